@@ -0,0 +1,138 @@
+package tsirionantsoa.demo.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import tsirionantsoa.demo.DemoApplication;
+import tsirionantsoa.demo.dto.ProjetDTO;
+import tsirionantsoa.demo.dto.TacheBatchDTO;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+import tsirionantsoa.demo.model.Utilisateur;
+import tsirionantsoa.demo.repository.UtilisateurRepository;
+import tsirionantsoa.demo.service.ProjetService;
+import tsirionantsoa.demo.service.TacheService;
+import tsirionantsoa.demo.service.UtilisateurService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexte Spring partagé par les benchmarks de services : application complète (sans serveur web)
+ * sur une base H2 en mémoire (mode PostgreSQL), remplie par les chemins d'écriture de l'application.
+ * Chaque fork JMH démarre son propre contexte et sa propre base.
+ */
+@State(Scope.Benchmark)
+public class ContexteBenchmark {
+
+	static final String MOT_DE_PASSE = "motdepasse";
+	static final StatutTache[] STATUTS = StatutTache.values();
+	static final PrioriteTache[] PRIORITES = PrioriteTache.values();
+
+	@Param({"10"})
+	public int utilisateurs;
+
+	@Param({"10"})
+	public int projetsParUtilisateur;
+
+	@Param({"50", "500"})
+	public int tachesParProjet;
+
+	ConfigurableApplicationContext contexte;
+	ProjetService projetService;
+	TacheService tacheService;
+	UtilisateurService utilisateurService;
+
+	final List<Long> utilisateurIds = new ArrayList<>();
+	final List<Long> projetIds = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void demarrer() {
+		contexte = new SpringApplicationBuilder(DemoApplication.class)
+				.web(WebApplicationType.NONE)
+				// Arguments de ligne de commande : ils priment sur application.properties
+				.run(
+						"--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						// Schéma généré par Hibernate (index des @Table compris) : les migrations visent PostgreSQL
+						"--spring.flyway.enabled=false",
+						"--app.search.indexation=false",
+						"--app.echeances.actif=false",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN");
+		projetService = contexte.getBean(ProjetService.class);
+		tacheService = contexte.getBean(TacheService.class);
+		utilisateurService = contexte.getBean(UtilisateurService.class);
+		remplir();
+	}
+
+	@TearDown(Level.Trial)
+	public void arreter() {
+		contexte.close();
+	}
+
+	// Un seul hachage BCrypt partagé : le remplissage reste rapide et chaque compte accepte MOT_DE_PASSE
+	private void remplir() {
+		UtilisateurRepository utilisateurRepository = contexte.getBean(UtilisateurRepository.class);
+		String hash = new BCryptPasswordEncoder().encode(MOT_DE_PASSE);
+		for (int u = 0; u < utilisateurs; u++) {
+			Utilisateur utilisateur = new Utilisateur();
+			utilisateur.setNom("Utilisateur " + u);
+			utilisateur.setEmail(email(u));
+			utilisateur.setMotDePasse(hash);
+			utilisateur.setDateCreation(LocalDate.now());
+			utilisateur.setRole("USER");
+			utilisateurIds.add(utilisateurRepository.save(utilisateur).getId());
+		}
+
+		for (Long utilisateurId : utilisateurIds) {
+			for (int p = 0; p < projetsParUtilisateur; p++) {
+				projetIds.add(projetService.createProjet(projet("Projet " + p), utilisateurId).getId());
+			}
+		}
+
+		List<TacheBatchDTO> lot = new ArrayList<>();
+		for (Long projetId : projetIds) {
+			for (int t = 0; t < tachesParProjet; t++) {
+				TacheBatchDTO tache = new TacheBatchDTO();
+				tache.setProjetId(projetId);
+				tache.setTitre("Tâche " + t);
+				tache.setStatus(STATUTS[t % STATUTS.length]);
+				tache.setPriorite(PRIORITES[t % PRIORITES.length]);
+				tache.setEcheance(LocalDate.now().plusDays(t % 60 - 10));
+				lot.add(tache);
+				if (lot.size() == 1000) {
+					tacheService.createTaches(lot);
+					lot = new ArrayList<>();
+				}
+			}
+		}
+		if (!lot.isEmpty()) {
+			tacheService.createTaches(lot);
+		}
+	}
+
+	static String email(int index) {
+		return "bench" + index + "@exemple.com";
+	}
+
+	static ProjetDTO projet(String nom) {
+		ProjetDTO dto = new ProjetDTO();
+		dto.setNom(nom);
+		dto.setDescription("Projet généré pour les benchmarks");
+		dto.setDateDebut(LocalDate.now().toString());
+		dto.setDateFin(LocalDate.now().plusMonths(3).toString());
+		return dto;
+	}
+}
@@ -0,0 +1,77 @@
+package tsirionantsoa.demo.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.TacheView;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la sérialisation JSON des listes renvoyées par l'API (projets, tâches, page de tâches),
+ * avec un ObjectMapper configuré comme celui de Spring MVC. Aucune base n'est nécessaire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerialisationBenchmark {
+
+	@Param({"20", "500"})
+	public int taille;
+
+	private ObjectMapper mapper;
+	private List<ProjetView> projets;
+	private List<TacheView> taches;
+	private CursorPage<TacheView> page;
+
+	@Setup(Level.Trial)
+	public void preparer() {
+		mapper = Jackson2ObjectMapperBuilder.json().build();
+		projets = new ArrayList<>(taille);
+		taches = new ArrayList<>(taille);
+		LocalDate aujourdHui = LocalDate.now();
+		for (int i = 0; i < taille; i++) {
+			long id = i + 1;
+			projets.add(new ProjetView(id, "Projet " + i, "Description du projet " + i,
+					aujourdHui, aujourdHui.plusMonths(3), aujourdHui, 1L, 0L));
+			taches.add(new TacheView(id, "Tâche " + i, ContexteBenchmark.PRIORITES[i % 3], aujourdHui.plusDays(i % 30),
+					ContexteBenchmark.STATUTS[i % 3], aujourdHui, aujourdHui, 0L, 1L, "Projet 1", 0L));
+		}
+		page = CursorPage.of(taches, taille - 1, TacheView::id);
+	}
+
+	@Benchmark
+	public byte[] listeProjets() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(projets);
+	}
+
+	@Benchmark
+	public byte[] listeTaches() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(taches);
+	}
+
+	@Benchmark
+	public byte[] pageTaches() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(page);
+	}
+}
@@ -0,0 +1,77 @@
+package tsirionantsoa.demo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsirionantsoa.demo.dto.ProjetDTO;
+import tsirionantsoa.demo.dto.TacheDTO;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.model.Projet;
+import tsirionantsoa.demo.model.Tache;
+import tsirionantsoa.demo.model.Utilisateur;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps moyen des opérations de service les plus sollicitées par l'API, contre la base remplie par
+ * {@link ContexteBenchmark}. Les créations font grossir la base au fil des itérations, comme en production.
+ * Lancement : mvn -Pjmh -DskipTests verify (ou -Djmh.args="ServiceBenchmark -rf json -rff target/jmh-result.json").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceBenchmark {
+
+	private int compteur;
+
+	@Benchmark
+	public Projet createProjet(ContexteBenchmark ctx) {
+		return ctx.projetService.createProjet(ContexteBenchmark.projet("Nouveau " + compteur++), hasard(ctx.utilisateurIds));
+	}
+
+	@Benchmark
+	public Projet updateProjet(ContexteBenchmark ctx) {
+		ProjetDTO dto = ContexteBenchmark.projet("Renommé " + compteur++);
+		return ctx.projetService.updateProjet(hasard(ctx.projetIds), dto, null);
+	}
+
+	@Benchmark
+	public Tache createTache(ContexteBenchmark ctx) {
+		TacheDTO dto = new TacheDTO();
+		dto.setTitre("Nouvelle tâche " + compteur++);
+		dto.setStatus(ContexteBenchmark.STATUTS[compteur % ContexteBenchmark.STATUTS.length]);
+		dto.setPriorite(ContexteBenchmark.PRIORITES[compteur % ContexteBenchmark.PRIORITES.length]);
+		dto.setEcheance(LocalDate.now().plusDays(7));
+		return ctx.tacheService.createTache(dto, hasard(ctx.projetIds));
+	}
+
+	@Benchmark
+	public List<TacheView> findTachesByProjet(ContexteBenchmark ctx) {
+		return ctx.tacheService.findTachesByProjet(hasard(ctx.projetIds));
+	}
+
+	// Dominé par la vérification BCrypt : sert de référence pour le coût d'une connexion
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Optional<Utilisateur> loginUtilisateur(ContexteBenchmark ctx) {
+		int index = ThreadLocalRandom.current().nextInt(ctx.utilisateurs);
+		return ctx.utilisateurService.loginUtilisateur(ContexteBenchmark.email(index), ContexteBenchmark.MOT_DE_PASSE);
+	}
+
+	private static Long hasard(List<Long> ids) {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+}
@@ -0,0 +1,12 @@
+package tsirionantsoa.demo.cache;
+
+import java.util.function.Consumer;
+
+// Diffuse les invalidations aux autres instances du backend.
+// L'abonné ne reçoit que les messages émis par les AUTRES instances : l'émetteur invalide déjà localement.
+public interface CacheInvalidationBus {
+
+    void publish(Invalidation invalidation);
+
+    void subscribe(Consumer<Invalidation> abonne);
+}
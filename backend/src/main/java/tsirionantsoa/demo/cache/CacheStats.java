@@ -0,0 +1,18 @@
+package tsirionantsoa.demo.cache;
+
+// Métriques d'un cache
+public record CacheStats(
+        String nom,
+        int taille,
+        int tailleMax,
+        long hits,
+        long misses,
+        long evictionsTaille,
+        long evictionsTtl,
+        long invalidations) {
+
+    public double getTauxHit() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
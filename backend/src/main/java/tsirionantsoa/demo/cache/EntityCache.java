@@ -0,0 +1,150 @@
+package tsirionantsoa.demo.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// Cache en lecture seule borné en taille (LRU) et en durée de vie (TTL).
+// Les valeurs doivent être immuables (vues/records) : elles sont partagées entre les requêtes.
+public class EntityCache<K, V> {
+
+    private final String nom;
+    private final int tailleMax;
+    private final long ttlNanos;
+    private final LongSupplier horloge;
+
+    // Ordre d'accès : l'entrée la moins récemment lue est la première évincée
+    private final LinkedHashMap<K, Entree<V>> entrees = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Incrémenté à chaque invalidation : une valeur chargée avant une invalidation n'est pas mise en cache
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictionsTaille = new AtomicLong();
+    private final AtomicLong evictionsTtl = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache(String nom, int tailleMax, long ttlMillis) {
+        this(nom, tailleMax, ttlMillis, System::nanoTime);
+    }
+
+    EntityCache(String nom, int tailleMax, long ttlMillis, LongSupplier horloge) {
+        this.nom = nom;
+        this.tailleMax = tailleMax;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.horloge = horloge;
+    }
+
+    // Lecture avec chargement à la demande. Un chargeur qui renvoie null (introuvable) n'est pas mis en cache.
+    public V get(K cle, Function<K, V> chargeur) {
+        long generationLecture;
+        synchronized (this) {
+            Entree<V> entree = entrees.get(cle);
+            if (entree != null) {
+                if (horloge.getAsLong() - entree.creeA < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entree.valeur;
+                }
+                entrees.remove(cle);
+                evictionsTtl.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            generationLecture = generation;
+        }
+
+        // Chargement hors verrou : une lecture lente ne bloque pas les autres clés
+        V valeur = chargeur.apply(cle);
+        if (valeur == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation == generationLecture) {
+                entrees.put(cle, new Entree<>(valeur, horloge.getAsLong()));
+                evincerSiPlein();
+            }
+        }
+        return valeur;
+    }
+
+    // Valeur en cache sans chargement (null si absente ou expirée) ; ne compte ni hit ni miss
+    public synchronized V getIfPresent(K cle) {
+        Entree<V> entree = entrees.get(cle);
+        return entree != null && horloge.getAsLong() - entree.creeA < ttlNanos ? entree.valeur : null;
+    }
+
+    public synchronized void invalidate(K cle) {
+        generation++;
+        if (entrees.remove(cle) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    // Invalide toutes les entrées dont la valeur vérifie le prédicat (parcours du cache, borné par tailleMax)
+    public synchronized void invalidateIf(Predicate<V> predicat) {
+        generation++;
+        Iterator<Entree<V>> it = entrees.values().iterator();
+        while (it.hasNext()) {
+            if (predicat.test(it.next().valeur)) {
+                it.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.addAndGet(entrees.size());
+        entrees.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(nom, entrees.size(), tailleMax, hits.get(), misses.get(),
+                evictionsTaille.get(), evictionsTtl.get(), invalidations.get());
+    }
+
+    // Compteurs et taille exposés par Micrometer (/actuator/metrics, /actuator/prometheus), étiquetés par cache
+    public void enregistrerMetriques(MeterRegistry registry) {
+        FunctionCounter.builder("app.cache.gets", hits, AtomicLong::get)
+                .tags("cache", nom, "result", "hit").register(registry);
+        FunctionCounter.builder("app.cache.gets", misses, AtomicLong::get)
+                .tags("cache", nom, "result", "miss").register(registry);
+        FunctionCounter.builder("app.cache.evictions", evictionsTaille, AtomicLong::get)
+                .tags("cache", nom, "cause", "taille").register(registry);
+        FunctionCounter.builder("app.cache.evictions", evictionsTtl, AtomicLong::get)
+                .tags("cache", nom, "cause", "ttl").register(registry);
+        FunctionCounter.builder("app.cache.invalidations", invalidations, AtomicLong::get)
+                .tags("cache", nom).register(registry);
+        Gauge.builder("app.cache.size", this, EntityCache::taille).tags("cache", nom).register(registry);
+        Gauge.builder("app.cache.max", this, cache -> cache.tailleMax).tags("cache", nom).register(registry);
+    }
+
+    private synchronized int taille() {
+        return entrees.size();
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    private void evincerSiPlein() {
+        Iterator<Map.Entry<K, Entree<V>>> it = entrees.entrySet().iterator();
+        while (entrees.size() > tailleMax && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictionsTaille.incrementAndGet();
+        }
+    }
+
+    private record Entree<V>(V valeur, long creeA) {
+    }
+}
@@ -0,0 +1,108 @@
+package tsirionantsoa.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.ProjetEvent;
+import tsirionantsoa.demo.event.ProjetsEnMasseEvent;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.event.TypeChangement;
+
+import java.util.List;
+
+// Caches des lectures de projets et de tâches, invalidés après commit par les événements d'écriture
+// puis propagés aux autres instances par le CacheInvalidationBus.
+@Component
+public class EntityCaches {
+
+    private static final int SEUIL_MASSE = 100;
+
+    @Autowired
+    private CacheInvalidationBus bus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.taille-max:10000}")
+    private int tailleMax;
+
+    @Value("${app.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private EntityCache<Long, ProjetView> projets;
+    private EntityCache<Long, List<ProjetView>> projetsParUtilisateur;
+    private EntityCache<Long, TacheView> taches;
+
+    @PostConstruct
+    void init() {
+        projets = new EntityCache<>("projets", tailleMax, ttlMs);
+        projetsParUtilisateur = new EntityCache<>("projetsParUtilisateur", tailleMax, ttlMs);
+        taches = new EntityCache<>("taches", tailleMax, ttlMs);
+        List.of(projets, projetsParUtilisateur, taches).forEach(cache -> cache.enregistrerMetriques(meterRegistry));
+        bus.subscribe(this::appliquer);
+    }
+
+    public EntityCache<Long, ProjetView> projets() {
+        return projets;
+    }
+
+    public EntityCache<Long, List<ProjetView>> projetsParUtilisateur() {
+        return projetsParUtilisateur;
+    }
+
+    public EntityCache<Long, TacheView> taches() {
+        return taches;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjetEvent(ProjetEvent event) {
+        invalider(new Invalidation(Invalidation.Type.PROJET, event.projetId()));
+        invalider(new Invalidation(Invalidation.Type.PROJETS_UTILISATEUR, event.utilisateurId()));
+        // Les vues de tâches portent le nom du projet
+        if (event.type() != TypeChangement.CREATION) {
+            invalider(new Invalidation(Invalidation.Type.TACHES_PROJET, event.projetId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        invalider(new Invalidation(Invalidation.Type.TACHE, event.tacheId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        // Au-delà d'un seuil, un seul message vaut mieux que des milliers de NOTIFY
+        if (event.tacheIds().size() > SEUIL_MASSE) {
+            invalider(new Invalidation(Invalidation.Type.TOUTES_TACHES, 0L));
+        } else {
+            event.tacheIds().forEach(id -> invalider(new Invalidation(Invalidation.Type.TACHE, id)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjetsEnMasse(ProjetsEnMasseEvent event) {
+        event.utilisateurIds().forEach(id -> invalider(new Invalidation(Invalidation.Type.PROJETS_UTILISATEUR, id)));
+    }
+
+    // Invalide localement puis prévient les autres instances
+    private void invalider(Invalidation invalidation) {
+        appliquer(invalidation);
+        bus.publish(invalidation);
+    }
+
+    private void appliquer(Invalidation invalidation) {
+        switch (invalidation.type()) {
+            case PROJET -> projets.invalidate(invalidation.id());
+            case PROJETS_UTILISATEUR -> projetsParUtilisateur.invalidate(invalidation.id());
+            case TACHE -> taches.invalidate(invalidation.id());
+            case TACHES_PROJET -> taches.invalidateIf(t -> invalidation.id().equals(t.projetId()));
+            case TOUTES_TACHES -> taches.clear();
+        }
+    }
+}
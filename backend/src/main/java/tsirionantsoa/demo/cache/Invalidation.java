@@ -0,0 +1,24 @@
+package tsirionantsoa.demo.cache;
+
+// Message d'invalidation échangé entre instances du backend
+public record Invalidation(Type type, Long id) {
+
+    public enum Type {
+        PROJET,               // détail d'un projet
+        PROJETS_UTILISATEUR,  // liste des projets d'un utilisateur
+        TACHE,                // détail d'une tâche
+        TACHES_PROJET,        // détails des tâches d'un projet (elles portent le nom du projet)
+        TOUTES_TACHES,        // tout le cache des tâches (opérations en masse), id ignoré
+        JETONS_UTILISATEUR    // jetons vérifiés d'un utilisateur supprimé (voir ComptesActifs)
+    }
+
+    // Format texte compact pour le transport : "TYPE:id"
+    public String encode() {
+        return type.name() + ":" + id;
+    }
+
+    public static Invalidation decode(String message) {
+        int sep = message.indexOf(':');
+        return new Invalidation(Type.valueOf(message.substring(0, sep)), Long.valueOf(message.substring(sep + 1)));
+    }
+}
@@ -0,0 +1,40 @@
+package tsirionantsoa.demo.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Bus mono-instance (par défaut, et pour les tests) : il n'y a pas d'autre instance à prévenir.
+// Garde les messages publiés pour pouvoir les inspecter.
+@Component
+@ConditionalOnProperty(name = "app.cache.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<Invalidation>> abonnes = new CopyOnWriteArrayList<>();
+    private final List<Invalidation> publiees = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        publiees.add(invalidation);
+        if (publiees.size() > 1000) {
+            publiees.remove(0);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> abonne) {
+        abonnes.add(abonne);
+    }
+
+    // Simule la réception d'un message venant d'une autre instance
+    public void recevoir(Invalidation invalidation) {
+        abonnes.forEach(a -> a.accept(invalidation));
+    }
+
+    public List<Invalidation> getPubliees() {
+        return List.copyOf(publiees);
+    }
+}
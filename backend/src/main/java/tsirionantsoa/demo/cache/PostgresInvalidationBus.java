@@ -0,0 +1,127 @@
+package tsirionantsoa.demo.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Bus multi-instance via LISTEN/NOTIFY de PostgreSQL : pas d'infrastructure en plus de la base.
+// Chaque instance garde une connexion dédiée en écoute sur le canal.
+@Component
+@ConditionalOnProperty(name = "app.cache.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cache.bus.canal:cache_invalidation}")
+    private String canal;
+
+    // Identifie cette instance pour ignorer ses propres messages
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final List<Consumer<Invalidation>> abonnes = new CopyOnWriteArrayList<>();
+
+    // NOTIFY n'est délivré qu'au commit de sa transaction
+    private TransactionTemplate envoi;
+
+    private volatile boolean actif = true;
+    private Thread ecoute;
+
+    // Appelé après le commit (EntityCaches) : la connexion encore liée au thread a déjà validé sa transaction
+    // et un NOTIFY y resterait sans commit. Il part donc dans une transaction à lui.
+    @Override
+    public void publish(Invalidation invalidation) {
+        envoi.executeWithoutResult(status -> jdbcTemplate.execute("SELECT pg_notify(?, ?)",
+                (java.sql.PreparedStatement ps) -> {
+                    ps.setString(1, canal);
+                    ps.setString(2, instanceId + "|" + invalidation.encode());
+                    return ps.execute();
+                }));
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> abonne) {
+        abonnes.add(abonne);
+    }
+
+    @PostConstruct
+    void demarrer() {
+        envoi = new TransactionTemplate(transactionManager);
+        envoi.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ecoute = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::ecouter);
+    }
+
+    @PreDestroy
+    void arreter() {
+        actif = false;
+        ecoute.interrupt();
+    }
+
+    private void ecouter() {
+        while (actif) {
+            try (Connection connexion = dataSource.getConnection()) {
+                // LISTEN ne prend effet qu'au commit, quel que soit le réglage du pool
+                connexion.setAutoCommit(true);
+                try (Statement st = connexion.createStatement()) {
+                    st.execute("LISTEN " + canal);
+                }
+                PGConnection pg = connexion.unwrap(PGConnection.class);
+                while (actif) {
+                    PGNotification[] notifications = pg.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification n : notifications) {
+                            recevoir(n.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!actif) {
+                    return;
+                }
+                // Connexion perdue : on ne sait plus ce qui a été manqué, les TTL bornent l'incohérence
+                log.warn("Écoute des invalidations interrompue, nouvelle tentative dans 5 s", e);
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void recevoir(String message) {
+        int sep = message.indexOf('|');
+        if (sep < 0 || message.substring(0, sep).equals(instanceId)) {
+            return;
+        }
+        Invalidation invalidation = Invalidation.decode(message.substring(sep + 1));
+        abonnes.forEach(a -> a.accept(invalidation));
+    }
+}
@@ -11,7 +11,8 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Appliquer à tous les endpoints sous /api
                 .allowedOrigins("http://localhost:5173") // 👈 VOTRE FRONTEND
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Autoriser ces méthodes
-                .allowedHeaders("*"); // Autoriser tous les headers
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Autoriser ces méthodes
+                .allowedHeaders("*") // Autoriser tous les headers
+                .exposedHeaders("ETag"); // Lisible par le frontend pour If-Match
     }
 }
\ No newline at end of file
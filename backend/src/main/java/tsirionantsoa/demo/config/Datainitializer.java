@@ -2,6 +2,8 @@ package tsirionantsoa.demo.config;
 
 import tsirionantsoa.demo.model.Utilisateur;
 import tsirionantsoa.demo.repository.UtilisateurRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder; // 1. Importez PasswordEncoder
 import org.springframework.stereotype.Component;
@@ -11,6 +13,8 @@ import java.time.LocalDate;
 @Component
 public class Datainitializer implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(Datainitializer.class);
+
     private final UtilisateurRepository utilisateurRepository;
     private final PasswordEncoder passwordEncoder; // 2. Déclarez PasswordEncoder
 
@@ -24,10 +28,7 @@ public class Datainitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
         // Nous vérifions si un utilisateur avec l'email "admin@projet.com" existe, 
         // car l'ID auto-incrémenté 1 n'est pas toujours garanti.
-        if (utilisateurRepository.findByEmail("admin@projet.com").isEmpty()) { 
-            
-            System.out.println("----------------------------------------");
-            System.out.println("INITIALISATION : Création du compte ADMINISTRATEUR par défaut.");
+        if (utilisateurRepository.countByEmailSupprimesCompris("admin@projet.com") == 0) { 
             
             Utilisateur admin = new Utilisateur();
             admin.setNom("Admin Principal");
@@ -44,13 +45,9 @@ public class Datainitializer implements CommandLineRunner {
             
             utilisateurRepository.save(admin);
             
-            System.out.println("Administrateur (ADMIN) créé avec succès.");
-            System.out.println("Mot de passe par défaut: " + rawPassword + " (Haché: " + hashedPassword.substring(0, 15) + "...)");
-            System.out.println("----------------------------------------");
+            log.warn("Compte administrateur par défaut (admin@projet.com) créé avec le mot de passe par défaut : à changer");
         } else {
-             System.out.println("----------------------------------------");
-             System.out.println("INFO : Le compte Administrateur par défaut (admin@projet.com) existe déjà. Initialisation ignorée.");
-             System.out.println("----------------------------------------");
+            log.debug("Compte administrateur par défaut (admin@projet.com) déjà présent, initialisation ignorée");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package tsirionantsoa.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tsirionantsoa.demo.metrics.InstrumentedDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enveloppe la DataSource du pool pour chronométrer connexions et requêtes SQL (voir InstrumentedDataSource)
+    @Bean
+    public static BeanPostProcessor dataSourceInstrumentation(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource source && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(source, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,34 +1,68 @@
 package tsirionantsoa.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import tsirionantsoa.demo.security.ComptesActifs;
+import tsirionantsoa.demo.security.TokenAuthenticationFilter;
+import tsirionantsoa.demo.security.TokenService;
 
 import java.util.Arrays;
 
 /**
- * Configuration de sécurité pour désactiver temporairement la protection CSRF
- * et autoriser toutes les requêtes (pour le développement REST sans JWT).
+ * Configuration de sécurité : API REST sans session.
+ * Les requêtes portant un jeton signé (voir TokenService) sont authentifiées par
+ * TokenAuthenticationFilter (la base n'est lue que pour un jeton absent de son cache) ; les autres restent autorisées
+ * le temps que le frontend envoie le jeton partout.
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Cache des jetons déjà vérifiés (par instance)
+    @Value("${app.auth.cache-jetons.taille-max:10000}")
+    private int tailleCacheJetons;
+
+    @Value("${app.auth.cache-jetons.ttl-ms:60000}")
+    private long ttlCacheJetons;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   ComptesActifs comptesActifs) throws Exception {
         http
             // Désactive la protection CSRF (utile pour les API REST stateless)
             .csrf(AbstractHttpConfigurer::disable)
             // Configure CORS pour utiliser la configuration @Bean ci-dessous
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-            // Autorise toutes les requêtes entrantes sans authentification
-            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+            // Aucune session HTTP : l'identité vient du jeton à chaque requête
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(
+                    new TokenAuthenticationFilter(tokenService, comptesActifs, tailleCacheJetons, ttlCacheJetons),
+                    UsernamePasswordAuthenticationFilter.class)
+            .authorizeHttpRequests(auth -> auth
+                // Métriques d'exploitation : réservées aux administrateurs
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                // Recalcul des cumuls de temps : opération d'administration
+                .requestMatchers("/api/reports/reconstruire").hasRole("ADMIN")
+                // Reconstruction de l'index de recherche : opération d'administration
+                .requestMatchers("/api/search/reconstruire").hasRole("ADMIN")
+                // Liste d'administration des utilisateurs
+                .requestMatchers("/api/utilisateurs/page").hasRole("ADMIN")
+                // Suppression d'un compte (purge de toutes ses données)
+                .requestMatchers(HttpMethod.DELETE, "/api/utilisateurs/*").hasRole("ADMIN")
+                // Autorise toutes les autres requêtes entrantes sans authentification
+                .anyRequest().permitAll());
 
         return http.build();
     }
@@ -43,9 +77,11 @@ public class SecurityConfig {
         // CHANGEMENT ICI: Utilisation de "*" pour l'origine, ce qui devrait TOUJOURS fonctionner pour les tests locaux.
         configuration.setAllowedOrigins(Arrays.asList("*")); 
         // Permet les méthodes POST, GET, PUT, DELETE, etc.
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         // Autorise tous les headers
         configuration.setAllowedHeaders(Arrays.asList("*")); 
+        // ETag lisible par le frontend (If-Match des PUT/PATCH)
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         // Désactivation des credentials lorsque l'origine est "*".
         configuration.setAllowCredentials(false); 
 
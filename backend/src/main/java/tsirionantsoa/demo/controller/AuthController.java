@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import tsirionantsoa.demo.dto.AuthResponse;
 import tsirionantsoa.demo.dto.LoginRequest;
 import tsirionantsoa.demo.model.Utilisateur;
+import tsirionantsoa.demo.security.TokenService;
 import tsirionantsoa.demo.service.UtilisateurService;
 import java.util.Optional;
 
@@ -18,6 +19,9 @@ public class AuthController {
     @Autowired
     private UtilisateurService utilisateurService;
 
+    @Autowired
+    private TokenService tokenService;
+
     // POST /api/auth/register
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody Utilisateur utilisateur) {
@@ -32,6 +36,8 @@ public class AuthController {
             response.setNom(newUser.getNom());
             response.setEmail(newUser.getEmail());
             response.setMot_de_passe(newUser.getMotDePasse());
+            response.setRole(newUser.getRole());
+            response.setToken(tokenService.emettre(newUser));
             response.setMessage("Inscription réussie. Bienvenue !");
             
             return ResponseEntity.ok(response);
@@ -51,16 +57,16 @@ public class AuthController {
 
         if (userOpt.isPresent()) {
             Utilisateur user = userOpt.get();
-            System.out.println("Data Utilisateur ->" + user);
             AuthResponse response = new AuthResponse();
             response.setId(user.getId());
             response.setNom(user.getNom());
             response.setEmail(user.getEmail());
             response.setRole(user.getRole());
+            response.setToken(tokenService.emettre(user));
             response.setMessage("Connexion réussie !");
            
 
-            // Renvoie l'ID utilisateur ET le RÔLE au frontend
+            // Renvoie l'ID utilisateur, le RÔLE et le jeton au frontend
             return ResponseEntity.ok(response);
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Email ou mot de passe incorrect.");
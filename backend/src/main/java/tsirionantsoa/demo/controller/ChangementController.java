@@ -0,0 +1,27 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.ChangementService;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/changes")
+public class ChangementController {
+
+    @Autowired
+    private ChangementService changementService;
+
+    // GET /api/changes/stream?userId=1 => Flux SSE : "connecte", puis "changement" (projet ou tâche créé,
+    // modifié ou supprimé) et "resync" quand le client doit tout recharger
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long userId,
+                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        return changementService.abonner(CurrentUser.resolve(principal, userId));
+    }
+}
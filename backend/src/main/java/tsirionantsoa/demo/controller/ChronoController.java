@@ -0,0 +1,77 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.ChronoView;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.ChronoService;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/timers")
+public class ChronoController {
+
+    @Autowired
+    private ChronoService chronoService;
+
+    // GET /api/timers?userId=1 => Chronomètres en cours ou en pause de l'utilisateur
+    @GetMapping
+    public List<ChronoView> getChronos(@RequestParam(required = false) Long userId,
+                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        return chronoService.chronosUtilisateur(CurrentUser.resolve(principal, userId));
+    }
+
+    // POST /api/timers/1/start?userId=1 => Démarrer le chronomètre de la tâche (ou le relancer après une pause)
+    @PostMapping("/{tacheId}/start")
+    public ResponseEntity<?> demarrer(@PathVariable Long tacheId, @RequestParam(required = false) Long userId,
+                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(chronoService.demarrer(utilisateurId, tacheId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // POST /api/timers/1/pause?userId=1 => Mettre le chronomètre en pause
+    @PostMapping("/{tacheId}/pause")
+    public ResponseEntity<?> pause(@PathVariable Long tacheId, @RequestParam(required = false) Long userId,
+                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(chronoService.pause(utilisateurId, tacheId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // POST /api/timers/1/stop?userId=1 => Arrêter et enregistrer le temps écoulé comme entrée de temps
+    @PostMapping("/{tacheId}/stop")
+    public ResponseEntity<?> arreter(@PathVariable Long tacheId, @RequestParam(required = false) Long userId,
+                                     @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(chronoService.arreter(utilisateurId, tacheId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // DELETE /api/timers/1?userId=1 => Abandonner le chronomètre sans enregistrer de temps
+    @DeleteMapping("/{tacheId}")
+    public ResponseEntity<?> abandonner(@PathVariable Long tacheId, @RequestParam(required = false) Long userId,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            chronoService.abandonner(utilisateurId, tacheId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
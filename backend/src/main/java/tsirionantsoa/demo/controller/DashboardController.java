@@ -0,0 +1,21 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.DashboardStats;
+import tsirionantsoa.demo.service.DashboardService;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // GET /api/dashboard/1 => Compteurs par statut, priorité et échéance + nombre d'utilisateurs
+    @GetMapping("/{userId}")
+    public DashboardStats getStats(@PathVariable Long userId) {
+        return dashboardService.getStats(userId);
+    }
+}
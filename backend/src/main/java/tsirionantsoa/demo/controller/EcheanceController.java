@@ -0,0 +1,33 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.EcheanceService;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/echeances")
+public class EcheanceController {
+
+    @Autowired
+    private EcheanceService echeanceService;
+
+    // GET /api/echeances?userId=1&apres=...&limite=100 => Rappels et retards déclenchés pour les tâches de
+    // l'utilisateur, après l'événement "apres" (curseur du dernier événement déjà lu, absent au début)
+    @GetMapping
+    public ResponseEntity<?> getEvenements(@RequestParam(required = false) Long userId,
+                                           @RequestParam(required = false) String apres,
+                                           @RequestParam(required = false) Integer limite,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(echeanceService.evenements(utilisateurId, apres, limite));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
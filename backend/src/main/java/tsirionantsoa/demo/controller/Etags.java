@@ -0,0 +1,68 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// ETags forts des lectures, dérivés des versions (@Version) : "version" pour un détail,
+// "nombre-somme-hachage" pour une liste complète (voir Empreinte), hachage des (id, version) pour une page.
+// Une réponse 200 porte l'ETag calculé sur le corps envoyé ; Spring répond alors 304 sans sérialiser
+// si If-None-Match correspond. Avant de charger, nonModifie() compare avec une version lue à part.
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String version(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String liste(Empreinte empreinte) {
+        return "\"" + empreinte.nombre() + "-" + empreinte.sommeVersions() + "-" + Long.toHexString(empreinte.hachage())
+                + "\"";
+    }
+
+    // Une page n'a pas d'agrégat équivalent (une suppression fait glisser la ligne suivante dans la page) :
+    // l'ETag hache les (id, version) des lignes et le curseur suivant
+    static <T> String page(CursorPage<T> page, ToLongFunction<T> id, ToLongFunction<T> version) {
+        List<T> items = page.items();
+        long hachage = 1;
+        for (T item : items) {
+            hachage = 31 * hachage + id.applyAsLong(item);
+            hachage = 31 * hachage + version.applyAsLong(item);
+        }
+        return "\"p" + items.size() + "-" + Long.toHexString(hachage) + (page.hasMore() ? "+" : "") + "\"";
+    }
+
+    // Vrai si If-None-Match correspond à l'ETag courant, obtenu sans charger la ressource :
+    // la réponse 304 est alors préparée et le contrôleur renvoie null
+    static boolean nonModifie(WebRequest requete, Supplier<Optional<String>> etagCourant) {
+        if (requete.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        return etagCourant.get().map(requete::checkNotModified).orElse(false);
+    }
+
+    // Version attendue par If-Match ; null si l'en-tête est absent ou vaut "*"
+    static Long versionAttendue(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valeur = ifMatch.trim();
+        if (valeur.length() > 2 && valeur.startsWith("\"") && valeur.endsWith("\"")) {
+            try {
+                return Long.parseLong(valeur.substring(1, valeur.length() - 1));
+            } catch (NumberFormatException e) {
+                // ETag d'un autre format : ne peut pas correspondre
+            }
+        }
+        throw new OptimisticLockingFailureException("ETag If-Match non reconnu: " + ifMatch);
+    }
+}
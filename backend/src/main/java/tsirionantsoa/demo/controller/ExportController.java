@@ -0,0 +1,44 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.ExportService;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // GET /api/export?userId=1&format=ndjson|csv => Export en flux des projets et tâches d'un utilisateur
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exporter(@RequestParam(required = false) Long userId,
+                                                          @RequestParam(defaultValue = "ndjson") String format,
+                                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        FormatFichier f;
+        try {
+            f = FormatFichier.parse(format);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        StreamingResponseBody corps = sortie -> exportService.exporter(utilisateurId, f, sortie);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(f.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"export-" + utilisateurId + "." + f.getExtension() + "\"")
+                .body(corps);
+    }
+}
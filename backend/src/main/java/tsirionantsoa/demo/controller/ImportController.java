@@ -0,0 +1,77 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.dto.ImportProgress;
+import tsirionantsoa.demo.importation.ImportJob;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.ImportService;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Optional;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    // POST /api/import?userId=1&format=ndjson|csv (corps = fichier brut) => Démarrer un import, 202 + avancement
+    @PostMapping
+    public ResponseEntity<?> importer(InputStream corps,
+                                      @RequestParam(required = false) Long userId,
+                                      @RequestParam(defaultValue = "ndjson") String format,
+                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            ImportProgress progression = importService.demarrer(utilisateurId, FormatFichier.parse(format), corps);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/import/" + progression.jobId()))
+                    .body(progression);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /api/import/{jobId} => Avancement d'un import
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportProgress> getProgression(@PathVariable String jobId,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        return job(jobId, principal)
+                .map(job -> ResponseEntity.ok(job.progression()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // GET /api/import/{jobId}/erreurs => Lignes rejetées (CSV : ligne, erreur, contenu d'origine)
+    @GetMapping("/{jobId}/erreurs")
+    public ResponseEntity<Resource> getErreurs(@PathVariable String jobId,
+                                               @AuthenticationPrincipal AuthenticatedUser principal) {
+        return job(jobId, principal)
+                .filter(job -> job.getStatut() != ImportJob.Statut.EN_COURS && Files.exists(job.getFichierErreurs()))
+                .map(job -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"import-" + jobId + "-erreurs.csv\"")
+                        .<Resource>body(new FileSystemResource(job.getFichierErreurs())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Le job n'est visible que de son utilisateur (ou d'un administrateur)
+    private Optional<ImportJob> job(String jobId, AuthenticatedUser principal) {
+        Optional<ImportJob> job = importService.findJob(jobId);
+        job.ifPresent(j -> CurrentUser.resolve(principal, j.getUtilisateurId()));
+        return job;
+    }
+}
@@ -1,86 +1,152 @@
 package tsirionantsoa.demo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
 import tsirionantsoa.demo.dto.ProjetDTO;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.PurgeProgress;
 import tsirionantsoa.demo.model.Projet;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
 import tsirionantsoa.demo.service.ProjetService;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173")
 @RequestMapping("/api/projets")
 public class ProjetController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProjetController.class);
+
     @Autowired
     private ProjetService projetService;
 
-    // POST /api/projets?userId=1 => Créer un projet
+    // POST /api/projets?userId=1 => Créer un projet (userId facultatif avec un jeton)
     @PostMapping
-    public ResponseEntity<?> createProjet(@RequestBody ProjetDTO projetDTO, @RequestParam Long userId) {
+    public ResponseEntity<?> createProjet(@RequestBody ProjetDTO projetDTO,
+                                          @RequestParam(required = false) Long userId,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
         try {
-            System.out.println("=== CONTROLLER DEBUG ===");
-            System.out.println("DTO reçu: " + projetDTO);
-
-            Projet createdProjet = projetService.createProjet(projetDTO, userId);
-            return ResponseEntity.ok(createdProjet);
+            Projet createdProjet = principal != null && utilisateurId.equals(principal.id())
+                    ? projetService.createProjet(projetDTO, principal)
+                    : projetService.createProjet(projetDTO, utilisateurId);
+            return ResponseEntity.ok(ProjetView.from(createdProjet));
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.debug("Création de projet refusée : {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // GET /api/projets/liste/1 => Liste de projet créer par un utilisateur
+    // GET /api/projets/liste/1 => Liste de projet créer par un utilisateur (ETag, 304 si If-None-Match correspond)
     @GetMapping("/liste/{id}")
-    public ResponseEntity<List<Projet>> getAllProjetsByUtilisateur(@PathVariable Long id) {
+    public ResponseEntity<List<ProjetView>> getAllProjetsByUtilisateur(@PathVariable Long id, WebRequest requete) {
         try {
-            List<Projet> projets = projetService.listeProjetByUtilisateur(id);
-            return ResponseEntity.ok(projets);
+            if (Etags.nonModifie(requete,
+                    () -> Optional.of(Etags.liste(projetService.empreinteProjetsByUtilisateur(id))))) {
+                return null;
+            }
+            List<ProjetView> projets = projetService.listeProjetByUtilisateur(id);
+            return ResponseEntity.ok()
+                    .eTag(Etags.liste(Empreinte.of(projets, ProjetView::id, ProjetView::version)))
+                    .body(projets);
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.error("Lecture des projets de l'utilisateur {} impossible", id, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    // GET /api/projets/1 => Détail du projet
+    // GET /api/projets?userId=1&size=20&cursor=... => Page de projets d'un utilisateur (pagination par curseur)
+    @GetMapping
+    public ResponseEntity<?> getPageProjetsByUtilisateur(@RequestParam(required = false) Long userId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            CursorPage<ProjetView> page = projetService.pageProjetsByUtilisateur(utilisateurId, cursor, size);
+            return ResponseEntity.ok().eTag(Etags.page(page, ProjetView::id, ProjetView::version)).body(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /api/projets/1 => Détail du projet (ETag ; If-None-Match => 304 sans relire le projet)
     @GetMapping("/detail/{id}")
-    public ResponseEntity<?> getProjetById(@PathVariable Long id) {
+    public ResponseEntity<?> getProjetById(@PathVariable Long id, WebRequest requete) {
         try {
+            if (Etags.nonModifie(requete, () -> projetService.findVersionById(id).map(Etags::version))) {
+                return null;
+            }
             return projetService.findProjetById(id)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(projet -> ResponseEntity.ok().eTag(Etags.version(projet.version())).body(projet))
                 .orElse(ResponseEntity.notFound().build());
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.debug("Lecture du projet {} refusée : {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // PUT /api/projets/1 => Modifier un projet
+    // PUT /api/projets/1 (If-Match: "ETag lu" facultatif) => Modifier un projet, 412 s'il a changé depuis
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateProjet(@PathVariable Long id, @RequestBody ProjetDTO projetDTO) {
+    public ResponseEntity<?> updateProjet(@PathVariable Long id, @RequestBody ProjetDTO projetDTO,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            System.out.println("=== UPDATE CONTROLLER DEBUG ===");
-            System.out.println("DTO reçu: " + projetDTO);
+            Projet updatedProjet = projetService.updateProjet(id, projetDTO, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(Etags.version(updatedProjet.getVersion()))
+                    .body(ProjetView.from(updatedProjet));
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Modification du projet {} en conflit : {}", id, e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.debug("Modification du projet {} refusée : {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-            Projet updatedProjet = projetService.updateProjet(id, projetDTO);
-            return ResponseEntity.ok(updatedProjet);
+    // PATCH /api/projets/1 (JSON Merge Patch, If-Match facultatif) => Modifier seulement les champs fournis
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchProjet(@PathVariable Long id, @RequestBody JsonNode patch,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            ProjetView projet = projetService.patchProjet(id, patch, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.version(projet.version())).body(projet);
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Modification du projet {} en conflit : {}", id, e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(e.getMessage());
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.debug("Modification du projet {} refusée : {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // DELETE /api/projets/1 => Supprimer un projet
+    // DELETE /api/projets/1 => Supprimer un projet : masqué aussitôt, 202 + avancement de la purge en arrière-plan
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProjet(@PathVariable Long id) {
         try {
-            projetService.deleteProjet(id);
-            return ResponseEntity.noContent().build();
+            PurgeProgress purge = projetService.deleteProjet(id);
+            return ResponseEntity.accepted().location(URI.create("/api/purges/" + purge.jobId())).body(purge);
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.debug("Suppression du projet {} refusée : {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
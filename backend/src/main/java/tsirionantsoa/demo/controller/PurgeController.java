@@ -0,0 +1,32 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.PurgeService;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/purges")
+public class PurgeController {
+
+    @Autowired
+    private PurgeService purgeService;
+
+    // GET /api/purges/{jobId} => Avancement de la purge d'un projet ou d'un utilisateur
+    // (visible de l'utilisateur concerné ou d'un administrateur)
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PurgeProgress> getProgression(@PathVariable String jobId,
+                                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        return purgeService.findJob(jobId)
+                .map(job -> {
+                    CurrentUser.resolve(principal, job.getUtilisateurId());
+                    return ResponseEntity.ok(job.progression());
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,48 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.model.Granularite;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.RapportService;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/reports")
+public class RapportController {
+
+    @Autowired
+    private RapportService rapportService;
+
+    // GET /api/reports?userId=1&granularite=semaine&debut=2025-01-01&fin=2025-12-31&par=projet
+    // => Temps cumulé par période (jour, semaine, mois), total ou par projet ou par tâche
+    @GetMapping
+    public ResponseEntity<?> getRapport(@RequestParam(required = false) Long userId,
+                                        @RequestParam(required = false) String granularite,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+                                        @RequestParam(defaultValue = "utilisateur") String par,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(rapportService.rapport(utilisateurId, Granularite.parse(granularite), debut, fin, par));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // POST /api/reports/reconstruire?userId=1 => Recalcul des cumuls depuis les entrées de temps
+    // (tous les utilisateurs sans userId ; réservé aux administrateurs)
+    @PostMapping("/reconstruire")
+    public Map<String, Integer> reconstruire(@RequestParam(required = false) Long userId) {
+        int lignes = userId != null ? rapportService.reconstruire(userId) : rapportService.reconstruireTout();
+        return Map.of("lignes", lignes);
+    }
+}
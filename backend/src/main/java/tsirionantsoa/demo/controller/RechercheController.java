@@ -0,0 +1,43 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.RechercheService;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/search")
+public class RechercheController {
+
+    @Autowired
+    private RechercheService rechercheService;
+
+    // GET /api/search?q=rapp&userId=1&limite=20 => Projets et tâches de l'utilisateur contenant tous les mots
+    // (sans tenir compte des accents ni de la casse, le dernier mot pouvant être incomplet)
+    @GetMapping
+    public ResponseEntity<?> rechercher(@RequestParam(defaultValue = "") String q,
+                                        @RequestParam(required = false) Long userId,
+                                        @RequestParam(required = false) Integer limite,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            return ResponseEntity.ok(rechercheService.rechercher(utilisateurId, q, limite));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // POST /api/search/reconstruire?userId=1 => Reconstruction de l'index de recherche
+    // (tous les utilisateurs sans userId ; réservé aux administrateurs)
+    @PostMapping("/reconstruire")
+    public Map<String, Integer> reconstruire(@RequestParam(required = false) Long userId) {
+        int documents = userId != null ? rechercheService.reconstruire(userId) : rechercheService.reconstruireTout();
+        return Map.of("documents", documents);
+    }
+}
@@ -0,0 +1,31 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.SyncResponse;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.SyncService;
+
+import java.time.Instant;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    // GET /api/sync?userId=1&since=2025-01-01T10:00:00Z => Changements depuis "since" (valeur "jusqua" de
+    // la réponse précédente) ; sans "since", toutes les données
+    @GetMapping
+    public SyncResponse synchroniser(@RequestParam(required = false) Long userId,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                     @AuthenticationPrincipal AuthenticatedUser principal) {
+        return syncService.synchroniser(CurrentUser.resolve(principal, userId), since);
+    }
+}
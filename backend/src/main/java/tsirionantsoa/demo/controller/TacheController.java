@@ -1,18 +1,35 @@
 package tsirionantsoa.demo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.TacheBatchDTO;
 import tsirionantsoa.demo.dto.TacheDTO;
+import tsirionantsoa.demo.dto.TacheView;
 import tsirionantsoa.demo.model.Tache;
 import tsirionantsoa.demo.service.TacheService;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173")
 @RequestMapping("/api/taches")
 public class TacheController {
 
+    private static final Logger log = LoggerFactory.getLogger(TacheController.class);
+
     @Autowired
     private TacheService tacheService;
 
@@ -20,47 +37,129 @@ public class TacheController {
     @PostMapping
     public ResponseEntity<?> createTache(@RequestBody TacheDTO tacheDTO, @RequestParam Long projetId) {
         try {
-            System.out.println("Data tache => " + tacheDTO);
             Tache createdTache = tacheService.createTache(tacheDTO, projetId);
-            return ResponseEntity.ok(createdTache);
+            return ResponseEntity.ok(TacheView.from(createdTache));
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            log.debug("Création de tâche refusée pour le projet {} : {}", projetId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
+    // POST /api/taches/batch => Créer des tâches en lot (chaque élément porte son projetId)
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTaches(@RequestBody List<TacheBatchDTO> taches) {
+        try {
+            List<Long> ids = tacheService.createTaches(taches);
+            return ResponseEntity.ok(Map.of("ids", ids));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // PUT /api/taches/batch => Modifier des tâches en lot (chaque élément porte son id)
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateTaches(@RequestBody List<TacheBatchDTO> taches) {
+        try {
+            int nb = tacheService.updateTaches(taches);
+            return ResponseEntity.ok(Map.of("modifiees", nb));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // DELETE /api/taches/batch => Supprimer des tâches en lot (corps : liste d'IDs), 409 si du temps y est enregistré
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteTaches(@RequestBody List<Long> ids) {
+        try {
+            int nb = tacheService.deleteTaches(ids);
+            return ResponseEntity.ok(Map.of("supprimees", nb));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // GET /api/taches/projet/1 => Liste des taches par projet
+    // GET /api/taches/projet/1 => Liste des taches par projet (ETag, 304 si If-None-Match correspond)
     @GetMapping("/projet/{projetId}")
-    public List<Tache> getTachesByProjetId(@PathVariable Long projetId) {
-        return tacheService.findTachesByProjet(projetId);
+    public ResponseEntity<List<TacheView>> getTachesByProjetId(@PathVariable Long projetId, WebRequest requete) {
+        if (Etags.nonModifie(requete,
+                () -> Optional.of(Etags.liste(tacheService.empreinteTachesByProjet(projetId))))) {
+            return null;
+        }
+        List<TacheView> taches = tacheService.findTachesByProjet(projetId);
+        return ResponseEntity.ok()
+                .eTag(Etags.liste(Empreinte.of(taches, TacheView::id, TacheView::versionComposee)))
+                .body(taches);
     }
 
-    // GET /api/taches/1 => Details sur une tache
+    // GET /api/taches/projet/1/page?size=50&cursor=... => Page de taches d'un projet (pagination par curseur)
+    @GetMapping("/projet/{projetId}/page")
+    public ResponseEntity<?> getPageTachesByProjetId(@PathVariable Long projetId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<TacheView> page = tacheService.pageTachesByProjet(projetId, cursor, size);
+            return ResponseEntity.ok().eTag(Etags.page(page, TacheView::id, TacheView::versionComposee)).body(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /api/taches/1 => Details sur une tache (ETag ; If-None-Match => 304 sans relire la tâche)
     @GetMapping("/{id}")
-    public ResponseEntity<Tache> getTacheById(@PathVariable Long id) {
+    public ResponseEntity<TacheView> getTacheById(@PathVariable Long id, WebRequest requete) {
+        if (Etags.nonModifie(requete, () -> tacheService.findVersionById(id).map(Etags::version))) {
+            return null;
+        }
         return tacheService.findTacheById(id)
-                .map(ResponseEntity::ok)
+                .map(tache -> ResponseEntity.ok().eTag(Etags.version(tache.versionComposee())).body(tache))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // PUT /api/taches/1 => Modifier une tache
+    // PUT /api/taches/1 (If-Match: "ETag lu" facultatif) => Modifier une tache, 412 si elle a changé depuis
     @PutMapping("/{id}")
-    public ResponseEntity<Tache> updateTache(@PathVariable Long id, @RequestBody Tache tacheDetails) {
+    public ResponseEntity<?> updateTache(@PathVariable Long id, @RequestBody Tache tacheDetails,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Tache updatedTache = tacheService.updateTache(id, tacheDetails);
-            return ResponseEntity.ok(updatedTache);
+            TacheView updatedTache = TacheView.from(
+                    tacheService.updateTache(id, tacheDetails, Etags.versionAttendue(ifMatch)));
+            return ResponseEntity.ok().eTag(Etags.version(updatedTache.versionComposee())).body(updatedTache);
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Modification de la tâche {} en conflit : {}", id, e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // DELETE /api/taches/1 => Supprimer un tache
+    // PATCH /api/taches/1 (JSON Merge Patch, If-Match facultatif) => Modifier seulement les champs fournis
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchTache(@PathVariable Long id, @RequestBody JsonNode patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            TacheView tache = tacheService.patchTache(id, patch, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.version(tache.versionComposee())).body(tache);
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Modification de la tâche {} en conflit : {}", id, e.getMessage());
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.debug("Modification de la tâche {} refusée : {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // DELETE /api/taches/1 => Supprimer un tache, 409 si du temps y est enregistré
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTache(@PathVariable Long id) {
+    public ResponseEntity<?> deleteTache(@PathVariable Long id) {
         try {
             tacheService.deleteTache(id);
             return ResponseEntity.noContent().build();
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Suppression de la tâche {} refusée : {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -80,4 +179,10 @@ public class TacheController {
         return ResponseEntity.ok(count);
     }
 
+    // GET /api/taches/ouvertes/utilisateur/{userId} => Tâches non terminées, de l'échéance la plus proche à la plus lointaine
+    @GetMapping("/ouvertes/utilisateur/{userId}")
+    public ResponseEntity<List<TacheView>> getTachesOuvertesParUtilisateur(@PathVariable Long userId) {
+        return ResponseEntity.ok(tacheService.findTachesOuvertesByUtilisateur(userId));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package tsirionantsoa.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.dto.TimeEntryView;
+import tsirionantsoa.demo.security.AuthenticatedUser;
+import tsirionantsoa.demo.security.CurrentUser;
+import tsirionantsoa.demo.service.TimeEntryService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:5173")
+@RequestMapping("/api/time-entries")
+public class TimeEntryController {
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+
+    // POST /api/time-entries?userId=1 => Enregistrer un lot d'entrées de temps (userId facultatif avec un jeton)
+    @PostMapping
+    public ResponseEntity<?> ingest(@RequestBody List<TimeEntryDTO> entries,
+                                    @RequestParam(required = false) Long userId,
+                                    @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long utilisateurId = CurrentUser.resolve(principal, userId);
+        try {
+            int nb = timeEntryService.ingest(entries, utilisateurId);
+            return ResponseEntity.ok(Map.of("enregistrees", nb));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /api/time-entries/utilisateur/1?debut=2025-01-01&fin=2025-01-31 => Entrées d'un utilisateur
+    @GetMapping("/utilisateur/{userId}")
+    public List<TimeEntryView> getByUtilisateur(@PathVariable Long userId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        return timeEntryService.findByUtilisateur(CurrentUser.resolve(principal, userId), debut, fin);
+    }
+
+    // GET /api/time-entries/tache/1?userId=1 => Entrées d'une tâche de l'utilisateur (vide pour une tâche d'un autre)
+    @GetMapping("/tache/{tacheId}")
+    public List<TimeEntryView> getByTache(@PathVariable Long tacheId, @RequestParam(required = false) Long userId,
+                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        return timeEntryService.findByTache(tacheId, CurrentUser.resolve(principal, userId));
+    }
+}
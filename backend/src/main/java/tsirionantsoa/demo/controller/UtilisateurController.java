@@ -1,12 +1,22 @@
 package tsirionantsoa.demo.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.FiltreUtilisateurs;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.dto.UtilisateurResume;
 import tsirionantsoa.demo.model.Utilisateur;
 import tsirionantsoa.demo.service.UtilisateurService;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173")
@@ -17,20 +27,60 @@ public class UtilisateurController {
     private UtilisateurService utilisateurService;
 
 
-    // GET /api/utilisateurs => Liste de tous les utilisateurs
+    // GET /api/utilisateurs => Liste de tous les utilisateurs (ETag, 304 si If-None-Match correspond)
     @GetMapping
-    public List<Utilisateur> getAllUtilisateurs() {
-        return utilisateurService.findAllUtilisateurs();
+    public ResponseEntity<List<Utilisateur>> getAllUtilisateurs(WebRequest requete) {
+        if (Etags.nonModifie(requete, () -> Optional.of(Etags.liste(utilisateurService.empreinteUtilisateurs())))) {
+            return null;
+        }
+        List<Utilisateur> utilisateurs = utilisateurService.findAllUtilisateurs();
+        return ResponseEntity.ok()
+                .eTag(Etags.liste(Empreinte.of(utilisateurs, Utilisateur::getId, Utilisateur::getVersion)))
+                .body(utilisateurs);
     }
 
-    // GET /api/utilisateurs/1 => Detail utilisateur
+    // GET /api/utilisateurs/page?role=ADMIN&email=jean&creeDepuis=2025-01-01&creeAvant=2026-01-01&tri=email&ordre=desc
+    //     &size=50&cursor=... => Liste d'administration paginée (sans mot de passe, avec nombres de projets et de tâches)
+    @GetMapping("/page")
+    public ResponseEntity<?> getPageUtilisateurs(@RequestParam(required = false) String role,
+                                                 @RequestParam(required = false) String email,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate creeDepuis,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate creeAvant,
+                                                 @RequestParam(required = false) String tri,
+                                                 @RequestParam(required = false) String ordre,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<UtilisateurResume> page = utilisateurService.pageUtilisateurs(
+                    new FiltreUtilisateurs(role, email, creeDepuis, creeAvant), tri, ordre, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET /api/utilisateurs/1 => Detail utilisateur (ETag ; If-None-Match => 304 sans relire l'utilisateur)
     @GetMapping("/{id}")
-    public ResponseEntity<Utilisateur> getUtilisateurById(@PathVariable Long id) {
+    public ResponseEntity<Utilisateur> getUtilisateurById(@PathVariable Long id, WebRequest requete) {
+        if (Etags.nonModifie(requete, () -> utilisateurService.findVersionById(id).map(Etags::version))) {
+            return null;
+        }
         return utilisateurService.findUtilisateurById(id)
-            .map(ResponseEntity::ok)
+            .map(utilisateur -> ResponseEntity.ok().eTag(Etags.version(utilisateur.getVersion())).body(utilisateur))
             .orElse(ResponseEntity.notFound().build());
     }
 
+    // DELETE /api/utilisateurs/1 => Supprimer un utilisateur (administrateur) : masqué aussitôt, 202 + avancement de la purge
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteUtilisateur(@PathVariable Long id) {
+        try {
+            PurgeProgress purge = utilisateurService.deleteUtilisateur(id);
+            return ResponseEntity.accepted().location(URI.create("/api/purges/" + purge.jobId())).body(purge);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // GET /api/utilisateurs/count
     @GetMapping("/dashboard")
     public ResponseEntity<Long> getNbUtilisateursTotal() {
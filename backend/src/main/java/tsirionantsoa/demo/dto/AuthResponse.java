@@ -15,6 +15,9 @@ public class AuthResponse {
     // ⭐ AJOUT NÉCESSAIRE: Le rôle de l'utilisateur pour la redirection
     private String role; 
 
+    // Jeton d'accès signé à envoyer dans l'en-tête "Authorization: Bearer ..."
+    private String token;
+
     public Long getId() {
         return id;
     }
@@ -63,4 +66,12 @@ public class AuthResponse {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
 }
\ No newline at end of file
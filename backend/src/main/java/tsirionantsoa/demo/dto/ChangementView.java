@@ -0,0 +1,12 @@
+package tsirionantsoa.demo.dto;
+
+import tsirionantsoa.demo.event.TypeChangement;
+
+// Changement poussé aux abonnés du flux SSE : "donnees" est la vue après écriture (ProjetView ou TacheView),
+// null pour une suppression. Le client l'applique à sa copie locale au lieu de tout recharger.
+public record ChangementView(
+        String entite,
+        TypeChangement type,
+        Long id,
+        Object donnees) {
+}
@@ -0,0 +1,11 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDateTime;
+
+// État d'un chronomètre : temps écoulé hors pauses, calculé au moment de la lecture
+public record ChronoView(
+        Long tacheId,
+        LocalDateTime debut,
+        long ecouleSecondes,
+        boolean enCours) {
+}
@@ -0,0 +1,10 @@
+package tsirionantsoa.demo.dto;
+
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
+import java.time.LocalDate;
+
+// Ligne d'agrégat : nombre de tâches d'un utilisateur pour un statut, une priorité et une échéance
+public record CompteurTache(StatutTache status, PrioriteTache priorite, LocalDate echeance, Long nb) {
+}
@@ -0,0 +1,40 @@
+package tsirionantsoa.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position d'un consommateur dans deadline_outbox : transaction qui a écrit l'événement, puis son ID.
+// Opaque pour le client (comme CursorPage) ; absent => depuis le début.
+public record CurseurEcheance(long transaction, long id) {
+
+    private static final String PREFIXE = "ech:";
+    public static final CurseurEcheance DEBUT = new CurseurEcheance(0, 0);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXE + transaction + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CurseurEcheance decode(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return DEBUT;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            if (!valeur.startsWith(PREFIXE)) {
+                throw new IllegalArgumentException(valeur);
+            }
+            String[] parties = valeur.substring(PREFIXE.length()).split(":", -1);
+            if (parties.length != 2) {
+                throw new IllegalArgumentException(valeur);
+            }
+            CurseurEcheance decode = new CurseurEcheance(Long.parseLong(parties[0]), Long.parseLong(parties[1]));
+            if (decode.transaction < 0 || decode.id < 0) {
+                throw new IllegalArgumentException(valeur);
+            }
+            return decode;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Curseur d'échéances invalide: " + curseur);
+        }
+    }
+}
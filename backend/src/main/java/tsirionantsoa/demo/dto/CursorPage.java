@@ -0,0 +1,84 @@
+package tsirionantsoa.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Page d'une liste paginée par curseur (keyset) : "nextCursor" est opaque pour le client
+// et se renvoie tel quel pour obtenir la page suivante. Null quand il n'y a plus rien.
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    private static final String PREFIXE = "id:";
+    private static final String PREFIXE_CLE = "cle:";
+    public static final int TAILLE_DEFAUT = 20;
+    public static final int TAILLE_MAX = 100;
+
+    // Construit une page à partir de "taille + 1" lignes lues : la ligne en trop indique la suite
+    public static <T> CursorPage<T> of(List<T> lignes, int taille, Function<T, Long> cle) {
+        if (lignes.size() <= taille) {
+            return new CursorPage<>(lignes, null, false);
+        }
+        List<T> items = lignes.subList(0, taille);
+        return new CursorPage<>(items, encode(cle.apply(items.get(taille - 1))), true);
+    }
+
+    // Variante pour un tri qui n'est pas l'ID : la clé (valeur de tri et ID de la dernière ligne) est une chaîne
+    public static <T> CursorPage<T> parCle(List<T> lignes, int taille, Function<T, String> cle) {
+        if (lignes.size() <= taille) {
+            return new CursorPage<>(lignes, null, false);
+        }
+        List<T> items = lignes.subList(0, taille);
+        return new CursorPage<>(items, encodeCle(cle.apply(items.get(taille - 1))), true);
+    }
+
+    // Taille de page demandée, bornée à [1, TAILLE_MAX]
+    public static int taille(Integer size) {
+        if (size == null) {
+            return TAILLE_DEFAUT;
+        }
+        return Math.max(1, Math.min(size, TAILLE_MAX));
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXE + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Curseur absent => première page (aucune borne)
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valeur.startsWith(PREFIXE)) {
+                throw new IllegalArgumentException(valeur);
+            }
+            return Long.parseLong(valeur.substring(PREFIXE.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Curseur de pagination invalide: " + cursor);
+        }
+    }
+
+    public static String encodeCle(String cle) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXE_CLE + cle).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Curseur absent => null (première page)
+    public static String decodeCle(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valeur.startsWith(PREFIXE_CLE)) {
+                throw new IllegalArgumentException(valeur);
+            }
+            return valeur.substring(PREFIXE_CLE.length());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Curseur de pagination invalide: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package tsirionantsoa.demo.dto;
+
+import java.util.Map;
+
+// Statistiques du tableau de bord d'un utilisateur, servies depuis les compteurs en mémoire
+public record DashboardStats(
+        Long utilisateurId,
+        long total,
+        Map<String, Long> parStatut,
+        Map<String, Long> parPriorite,
+        long enRetard,
+        long echeanceAujourdhui,
+        long echeanceSemaine,
+        long nbUtilisateurs) {
+}
@@ -0,0 +1,34 @@
+package tsirionantsoa.demo.dto;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Empreinte d'une liste pour son ETag, lue par un agrégat SQL ou calculée sur les lignes déjà chargées.
+// Les versions ne font que croître : une modification augmente la somme des versions. Les IDs ne sont pas
+// attribués dans l'ordre (séquences par blocs, import) : ajouts et suppressions sont repérés par la somme
+// d'un hachage de chaque couple (id, version), indépendante de l'ordre des lignes.
+public record Empreinte(long nombre, long sommeVersions, long hachage) {
+
+    // Hachage d'une ligne : h = ((id mod P) * K + version) mod P, puis h² mod P (P = 2^31 - 1, premier). Le carré
+    // lie id et version : des versions déplacées d'une ligne à l'autre changent la somme. Chaque produit tient
+    // dans un bigint. Doit rester identique à l'expression des requêtes d'empreinte (ProjetRepository,
+    // TacheRepository, UtilisateurRepository).
+    public static final long MODULE = 2147483647L;
+    public static final long MULTIPLICATEUR = 1588635695L;
+
+    public static long hachage(long id, long version) {
+        long h = Math.floorMod(Math.floorMod(id, MODULE) * MULTIPLICATEUR + version, MODULE);
+        return h * h % MODULE;
+    }
+
+    public static <T> Empreinte of(List<T> lignes, ToLongFunction<T> id, ToLongFunction<T> version) {
+        long somme = 0;
+        long hachage = 0;
+        for (T ligne : lignes) {
+            long v = version.applyAsLong(ligne);
+            somme += v;
+            hachage += hachage(id.applyAsLong(ligne), v);
+        }
+        return new Empreinte(lignes.size(), somme, hachage);
+    }
+}
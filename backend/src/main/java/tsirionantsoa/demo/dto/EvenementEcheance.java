@@ -0,0 +1,11 @@
+package tsirionantsoa.demo.dto;
+
+import tsirionantsoa.demo.model.TypeEcheance;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Événement d'échéance lu dans deadline_outbox ; le consommateur renvoie le curseur du dernier événement lu
+public record EvenementEcheance(Long id, TypeEcheance type, Long tacheId, LocalDate echeance, Instant declencheLe,
+                                String curseur) {
+}
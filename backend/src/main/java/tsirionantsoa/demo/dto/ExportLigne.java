@@ -0,0 +1,23 @@
+package tsirionantsoa.demo.dto;
+
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
+import java.time.LocalDate;
+
+// Ligne d'export : un projet et une de ses tâches (colonnes de tâche nulles pour un projet sans tâche)
+public record ExportLigne(
+        Long projetId,
+        String projetNom,
+        String projetDescription,
+        LocalDate projetDateDebut,
+        LocalDate projetDateFin,
+        LocalDate projetDateCreation,
+        Long tacheId,
+        String titre,
+        PrioriteTache priorite,
+        LocalDate echeance,
+        StatutTache status,
+        LocalDate tacheDateCreation,
+        LocalDate tacheDateModification) {
+}
@@ -0,0 +1,7 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDate;
+
+// Filtres de GET /api/utilisateurs/page, tous facultatifs : rôle exact, début d'email, création dans [creeDepuis, creeAvant)
+public record FiltreUtilisateurs(String role, String email, LocalDate creeDepuis, LocalDate creeAvant) {
+}
@@ -0,0 +1,32 @@
+package tsirionantsoa.demo.dto;
+
+// Formats de fichier acceptés par l'export et l'import
+public enum FormatFichier {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    FormatFichier(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static FormatFichier parse(String valeur) {
+        for (FormatFichier format : values()) {
+            if (format.extension.equalsIgnoreCase(valeur)) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Format de fichier inconnu: " + valeur + " (ndjson ou csv)");
+    }
+}
@@ -0,0 +1,19 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.Instant;
+
+// Avancement d'un import (GET /api/import/{jobId})
+public record ImportProgress(
+        String jobId,
+        Long utilisateurId,
+        String format,
+        String statut,
+        long lignesLues,
+        long projetsCrees,
+        long tachesCreees,
+        long lignesEnErreur,
+        boolean copy,
+        Instant debut,
+        Instant fin,
+        String message) {
+}
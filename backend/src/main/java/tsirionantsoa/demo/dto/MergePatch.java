@@ -0,0 +1,70 @@
+package tsirionantsoa.demo.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Set;
+
+// Corps d'une requête PATCH au format JSON Merge Patch (RFC 7396) : un champ absent reste inchangé,
+// un champ à null est effacé, toute autre valeur remplace l'ancienne
+public final class MergePatch {
+
+    private final JsonNode champs;
+
+    private MergePatch(JsonNode champs) {
+        this.champs = champs;
+    }
+
+    // Refuse un corps qui n'est pas un objet ou qui vise un champ non modifiable
+    public static MergePatch of(JsonNode corps, Set<String> modifiables) {
+        if (corps == null || !corps.isObject()) {
+            throw new RuntimeException("Le corps doit être un objet JSON (merge patch)");
+        }
+        Iterator<String> noms = corps.fieldNames();
+        while (noms.hasNext()) {
+            String nom = noms.next();
+            if (!modifiables.contains(nom)) {
+                throw new RuntimeException("Champ non modifiable: " + nom);
+            }
+        }
+        return new MergePatch(corps);
+    }
+
+    public boolean contient(String champ) {
+        return champs.has(champ);
+    }
+
+    public String texte(String champ) {
+        JsonNode valeur = champs.get(champ);
+        if (valeur == null || valeur.isNull()) {
+            return null;
+        }
+        if (!valeur.isTextual()) {
+            throw new RuntimeException("Texte attendu pour " + champ);
+        }
+        return valeur.asText();
+    }
+
+    // Champ obligatoire : ni null ni vide
+    public String texteRequis(String champ, String message) {
+        String valeur = texte(champ);
+        if (valeur == null || valeur.trim().isEmpty()) {
+            throw new RuntimeException(message);
+        }
+        return valeur;
+    }
+
+    public LocalDate date(String champ) {
+        String valeur = texte(champ);
+        if (valeur == null || valeur.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valeur);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Date invalide pour " + champ + " (AAAA-MM-JJ attendu): " + valeur);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package tsirionantsoa.demo.dto;
+
+import tsirionantsoa.demo.model.Projet;
+
+import java.time.LocalDate;
+
+// Vue en lecture d'un projet : colonnes de la table projet uniquement (pas de chargement de l'utilisateur).
+// La version sert d'ETag (voir Etags)
+public record ProjetView(
+        Long id,
+        String nom,
+        String description,
+        LocalDate dateDebut,
+        LocalDate dateFin,
+        LocalDate dateCreation,
+        Long utilisateurId,
+        Long version) {
+
+    public static ProjetView from(Projet projet) {
+        return new ProjetView(projet.getId(), projet.getNom(), projet.getDescription(), projet.getDateDebut(),
+                projet.getDateFin(), projet.getDateCreation(), projet.getUtilisateur().getId(), projet.getVersion());
+    }
+}
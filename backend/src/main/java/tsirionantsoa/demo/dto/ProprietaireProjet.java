@@ -0,0 +1,5 @@
+package tsirionantsoa.demo.dto;
+
+// Couple (projet, propriétaire) lu sans charger les entités
+public record ProprietaireProjet(Long projetId, Long utilisateurId) {
+}
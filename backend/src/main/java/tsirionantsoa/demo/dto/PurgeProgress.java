@@ -0,0 +1,19 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.Instant;
+
+// Avancement d'une purge (GET /api/purges/{jobId}) : "tachesAPurger" est compté au démarrage du job
+public record PurgeProgress(
+        String jobId,
+        String cible,
+        Long cibleId,
+        Long utilisateurId,
+        String statut,
+        long tachesAPurger,
+        long tachesSupprimees,
+        long projetsSupprimes,
+        long lignesAnnexes,
+        Instant debut,
+        Instant fin,
+        String message) {
+}
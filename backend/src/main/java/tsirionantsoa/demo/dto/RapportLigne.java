@@ -0,0 +1,13 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDate;
+
+// Ligne de rapport : temps cumulé sur une période, pour l'utilisateur entier, un projet ou une tâche
+// (projetId et tacheId sont null quand le regroupement ne les inclut pas)
+public record RapportLigne(
+        LocalDate periode,
+        Long projetId,
+        Long tacheId,
+        Long totalSecondes,
+        Long nbEntrees) {
+}
@@ -0,0 +1,5 @@
+package tsirionantsoa.demo.dto;
+
+// Résultat de GET /api/search : "projet" ou "tache", son ID, son projet (lui-même pour un projet) et son libellé
+public record ResultatRecherche(String type, Long id, Long projetId, String libelle) {
+}
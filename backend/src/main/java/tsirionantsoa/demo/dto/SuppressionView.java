@@ -0,0 +1,7 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.Instant;
+
+// Suppression signalée par la synchronisation : entité ("projet" ou "tache") et ID supprimé
+public record SuppressionView(String entite, Long id, Instant supprimeLe) {
+}
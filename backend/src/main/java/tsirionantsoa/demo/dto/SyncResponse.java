@@ -0,0 +1,15 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+// Réponse de GET /api/sync : changements jusqu'à "jusqua", à renvoyer comme "since" à l'appel suivant.
+// "complet" : la réponse contient toutes les données (premier appel ou curseur trop ancien),
+// le client remplace sa copie locale au lieu de la compléter.
+public record SyncResponse(
+        Instant jusqua,
+        boolean complet,
+        List<ProjetView> projets,
+        List<TacheView> taches,
+        List<SuppressionView> suppressions) {
+}
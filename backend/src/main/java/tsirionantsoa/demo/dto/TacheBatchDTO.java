@@ -0,0 +1,25 @@
+package tsirionantsoa.demo.dto;
+
+// Élément d'une opération groupée sur les tâches :
+// "projetId" est requis à la création, "id" est requis à la modification.
+public class TacheBatchDTO extends TacheDTO {
+
+    private Long id;
+    private Long projetId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProjetId() {
+        return projetId;
+    }
+
+    public void setProjetId(Long projetId) {
+        this.projetId = projetId;
+    }
+}
@@ -1,12 +1,15 @@
 package tsirionantsoa.demo.dto;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
 import java.time.LocalDate;
 
 public class TacheDTO {
 
     private String titre;
-    private String priorite;
+    private PrioriteTache priorite;
     private LocalDate echeance;
-    private String status;
+    private StatutTache status;
 
     public String getTitre() {
         return titre;
@@ -16,11 +19,11 @@ public class TacheDTO {
         this.titre = titre;
     }
 
-    public String getPriorite() {
+    public PrioriteTache getPriorite() {
         return priorite;
     }
 
-    public void setPriorite(String priorite) {
+    public void setPriorite(PrioriteTache priorite) {
         this.priorite = priorite;
     }
 
@@ -32,11 +35,11 @@ public class TacheDTO {
         this.echeance = echeance;
     }
 
-    public String getStatus() {
+    public StatutTache getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(StatutTache status) {
         this.status = status;
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package tsirionantsoa.demo.dto;
+
+// Couple (tâche, projet) lu sans charger les entités
+public record TacheProjet(Long tacheId, Long projetId) {
+}
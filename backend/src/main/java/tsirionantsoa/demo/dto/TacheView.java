@@ -0,0 +1,45 @@
+package tsirionantsoa.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+import tsirionantsoa.demo.model.Tache;
+
+import java.time.LocalDate;
+
+// Vue en lecture d'une tâche : colonnes de la tâche + id, nom et version du projet (une seule jointure).
+// Le nom du projet fait partie de la représentation : l'ETag combine les deux versions (voir Etags)
+public record TacheView(
+        Long id,
+        String titre,
+        PrioriteTache priorite,
+        LocalDate echeance,
+        StatutTache status,
+        LocalDate dateCreation,
+        LocalDate dateModification,
+        Long version,
+        Long projetId,
+        @JsonIgnore String projetNom,
+        @JsonIgnore Long projetVersion) {
+
+    public static TacheView from(Tache tache) {
+        return new TacheView(tache.getId(), tache.getTitre(), tache.getPriorite(), tache.getEcheance(),
+                tache.getStatus(), tache.getDateCreation(), tache.getDateModification(), tache.getVersion(),
+                tache.getProjet().getId(), tache.getProjet().getNom(), tache.getProjet().getVersion());
+    }
+
+    // Version de la représentation : la tâche et son projet (dont le nom est affiché)
+    public long versionComposee() {
+        return version + projetVersion;
+    }
+
+    // Garde la forme { "projet": { "id", "nom" } } attendue par le frontend
+    @JsonProperty("projet")
+    public ProjetRef projet() {
+        return new ProjetRef(projetId, projetNom);
+    }
+
+    public record ProjetRef(Long id, String nom) {
+    }
+}
@@ -0,0 +1,53 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDateTime;
+
+// DTO pour l'enregistrement d'une entrée de temps
+public class TimeEntryDTO {
+
+    private Long tacheId;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+    private Long dureeSecondes; // Optionnel si "fin" est fourni
+    private String description;
+
+    public Long getTacheId() {
+        return tacheId;
+    }
+
+    public void setTacheId(Long tacheId) {
+        this.tacheId = tacheId;
+    }
+
+    public LocalDateTime getDebut() {
+        return debut;
+    }
+
+    public void setDebut(LocalDateTime debut) {
+        this.debut = debut;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    public void setFin(LocalDateTime fin) {
+        this.fin = fin;
+    }
+
+    public Long getDureeSecondes() {
+        return dureeSecondes;
+    }
+
+    public void setDureeSecondes(Long dureeSecondes) {
+        this.dureeSecondes = dureeSecondes;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,14 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Vue en lecture d'une entrée de temps (sans charger la tâche ni l'utilisateur)
+public record TimeEntryView(
+        Long id,
+        Long tacheId,
+        Long utilisateurId,
+        LocalDateTime debut,
+        LocalDateTime fin,
+        Long dureeSecondes,
+        String description) {
+}
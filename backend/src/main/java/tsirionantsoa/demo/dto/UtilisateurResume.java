@@ -0,0 +1,12 @@
+package tsirionantsoa.demo.dto;
+
+import java.time.LocalDate;
+
+// Ligne de la liste d'administration des utilisateurs : colonnes utiles et compteurs, sans mot de passe
+public record UtilisateurResume(Long id, String nom, String email, String role, LocalDate dateCreation,
+                                long nbProjets, long nbTaches) {
+
+    public UtilisateurResume avecCompteurs(long nbProjets, long nbTaches) {
+        return new UtilisateurResume(id, nom, email, role, dateCreation, nbProjets, nbTaches);
+    }
+}
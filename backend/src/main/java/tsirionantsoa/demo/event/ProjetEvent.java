@@ -0,0 +1,24 @@
+package tsirionantsoa.demo.event;
+
+import tsirionantsoa.demo.dto.ProjetView;
+
+// Événement publié par ProjetService après chaque écriture sur un projet.
+// "avant" est null à la création, "apres" est null à la suppression.
+public record ProjetEvent(TypeChangement type, Long utilisateurId, ProjetView avant, ProjetView apres) {
+
+    public static ProjetEvent creation(ProjetView apres) {
+        return new ProjetEvent(TypeChangement.CREATION, apres.utilisateurId(), null, apres);
+    }
+
+    public static ProjetEvent modification(ProjetView avant, ProjetView apres) {
+        return new ProjetEvent(TypeChangement.MODIFICATION, apres.utilisateurId(), avant, apres);
+    }
+
+    public static ProjetEvent suppression(ProjetView avant) {
+        return new ProjetEvent(TypeChangement.SUPPRESSION, avant.utilisateurId(), avant, null);
+    }
+
+    public Long projetId() {
+        return apres != null ? apres.id() : avant.id();
+    }
+}
@@ -0,0 +1,11 @@
+package tsirionantsoa.demo.event;
+
+import java.util.Set;
+
+// Événement publié après une création de projets en masse (import) : seuls les utilisateurs concernés sont fournis.
+public record ProjetsEnMasseEvent(Set<Long> utilisateurIds) {
+
+    public ProjetsEnMasseEvent {
+        utilisateurIds = Set.copyOf(utilisateurIds);
+    }
+}
@@ -0,0 +1,24 @@
+package tsirionantsoa.demo.event;
+
+import tsirionantsoa.demo.dto.TacheView;
+
+// Événement publié par TacheService après chaque écriture sur une tâche.
+// "avant" est null à la création, "apres" est null à la suppression.
+public record TacheEvent(TypeChangement type, Long utilisateurId, TacheView avant, TacheView apres) {
+
+    public static TacheEvent creation(Long utilisateurId, TacheView apres) {
+        return new TacheEvent(TypeChangement.CREATION, utilisateurId, null, apres);
+    }
+
+    public static TacheEvent modification(Long utilisateurId, TacheView avant, TacheView apres) {
+        return new TacheEvent(TypeChangement.MODIFICATION, utilisateurId, avant, apres);
+    }
+
+    public static TacheEvent suppression(Long utilisateurId, TacheView avant) {
+        return new TacheEvent(TypeChangement.SUPPRESSION, utilisateurId, avant, null);
+    }
+
+    public Long tacheId() {
+        return apres != null ? apres.id() : avant.id();
+    }
+}
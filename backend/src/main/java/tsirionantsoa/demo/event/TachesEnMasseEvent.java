@@ -0,0 +1,13 @@
+package tsirionantsoa.demo.event;
+
+import java.util.Set;
+
+// Événement publié après une opération groupée (lot, import...) : le détail par tâche n'est pas fourni,
+// seuls les utilisateurs et tâches concernés le sont.
+public record TachesEnMasseEvent(Set<Long> utilisateurIds, Set<Long> tacheIds) {
+
+    public TachesEnMasseEvent {
+        utilisateurIds = Set.copyOf(utilisateurIds);
+        tacheIds = Set.copyOf(tacheIds);
+    }
+}
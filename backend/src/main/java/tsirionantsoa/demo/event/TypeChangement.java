@@ -0,0 +1,6 @@
+package tsirionantsoa.demo.event;
+
+// Nature d'une écriture publiée dans un événement de changement
+public enum TypeChangement {
+    CREATION, MODIFICATION, SUPPRESSION
+}
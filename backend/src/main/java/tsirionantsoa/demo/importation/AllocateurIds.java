@@ -0,0 +1,55 @@
+package tsirionantsoa.demo.importation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Réserve des IDs dans une séquence partagée avec Hibernate (optimiseur "pooled", incrément 50) :
+ * une valeur v tirée de la séquence donne le bloc [v - 49, v], exactement comme Hibernate,
+ * ce qui évite toute collision avec les IDs attribués par l'application pendant l'import.
+ * Une valeur inférieure à 50 (séquence neuve) est écartée : Hibernate n'utilise alors que la valeur elle-même.
+ */
+public class AllocateurIds {
+
+    static final int INCREMENT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sequence;
+    private final Deque<Long> blocs = new ArrayDeque<>();
+    private long prochain;
+    private long fin;
+
+    public AllocateurIds(JdbcTemplate jdbcTemplate, String sequence) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequence = sequence;
+    }
+
+    public long suivant() {
+        if (prochain == 0 || prochain > fin) {
+            if (blocs.isEmpty()) {
+                reserver(20);
+            }
+            long v = blocs.poll();
+            prochain = v - INCREMENT + 1;
+            fin = v;
+        }
+        return prochain++;
+    }
+
+    // Un aller-retour pour plusieurs blocs
+    private void reserver(int nbBlocs) {
+        List<Long> valeurs = jdbcTemplate.queryForList(
+                "select nextval('" + sequence + "') from generate_series(1, " + nbBlocs + ")", Long.class);
+        for (Long v : valeurs) {
+            if (v >= INCREMENT) {
+                blocs.add(v);
+            }
+        }
+        if (blocs.isEmpty()) {
+            reserver(nbBlocs);
+        }
+    }
+}
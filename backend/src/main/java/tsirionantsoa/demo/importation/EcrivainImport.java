@@ -0,0 +1,150 @@
+package tsirionantsoa.demo.importation;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Étape d'écriture : un lot = projets puis tâches, par COPY ... FROM STDIN (format CSV) sur PostgreSQL,
+ * sinon par INSERT en lots JDBC (multi-lignes avec reWriteBatchedInserts). À appeler dans une transaction.
+ * modifie_le reçoit l'instant d'écriture du lot et version vaut 0, comme le feraient @PrePersist et @Version ;
+ * statut et priorité sont écrits sous forme de code, comme le feraient leurs convertisseurs JPA.
+ */
+public class EcrivainImport {
+
+    private static final String COPY_PROJETS = "COPY projet (id_projet, nom_projet, description_projet, "
+            + "datedebut_projet, datefin_projet, datecreation_projet, id_users, modifie_le, version) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_TACHES = "COPY tache (id_task, titre_task, priorite_task, echeance_task, status, "
+            + "datecreation_task, datemodification_task, id_projets, modifie_le, version) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_PROJET = "INSERT INTO projet (id_projet, nom_projet, description_projet, "
+            + "datedebut_projet, datefin_projet, datecreation_projet, id_users, modifie_le, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_TACHE = "INSERT INTO tache (id_task, titre_task, priorite_task, echeance_task, "
+            + "status, datecreation_task, datemodification_task, id_projets, modifie_le, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean copy;
+
+    public EcrivainImport(JdbcTemplate jdbcTemplate, boolean copy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copy = copy && copyDisponible(jdbcTemplate);
+    }
+
+    public boolean utiliseCopy() {
+        return copy;
+    }
+
+    public void ecrire(LotImport lot, long utilisateurId, LocalDate aujourdHui) {
+        if (copy) {
+            copier(lot, utilisateurId, aujourdHui);
+        } else {
+            inserer(lot, utilisateurId, aujourdHui);
+        }
+    }
+
+    private void copier(LotImport lot, long utilisateurId, LocalDate aujourdHui) {
+        OffsetDateTime ecriture = OffsetDateTime.now(ZoneOffset.UTC);
+        List<LotImport.ProjetImporte> lotProjets = lot.projets();
+        List<LotImport.TacheImportee> lotTaches = lot.taches();
+        StringBuilder projets = new StringBuilder(lotProjets.size() * 96);
+        for (LotImport.ProjetImporte p : lotProjets) {
+            ligne(projets, p.id(), p.nom(), p.description(), p.dateDebut(), p.dateFin(), aujourdHui, utilisateurId,
+                    ecriture, 0);
+        }
+        StringBuilder taches = new StringBuilder(lotTaches.size() * 96);
+        for (LotImport.TacheImportee t : lotTaches) {
+            ligne(taches, t.id(), t.titre(), code(t.priorite()), t.echeance(), code(t.status()), aujourdHui, aujourdHui,
+                    t.projetId(), ecriture, 0);
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connexion -> {
+            try {
+                PGConnection pg = connexion.unwrap(PGConnection.class);
+                if (!lotProjets.isEmpty()) {
+                    pg.getCopyAPI().copyIn(COPY_PROJETS, new StringReader(projets.toString()));
+                }
+                if (!lotTaches.isEmpty()) {
+                    pg.getCopyAPI().copyIn(COPY_TACHES, new StringReader(taches.toString()));
+                }
+            } catch (IOException e) {
+                throw new SQLException("COPY interrompu", e);
+            }
+            return null;
+        });
+    }
+
+    private void inserer(LotImport lot, long utilisateurId, LocalDate aujourdHui) {
+        Date creation = Date.valueOf(aujourdHui);
+        OffsetDateTime ecriture = OffsetDateTime.now(ZoneOffset.UTC);
+        List<LotImport.ProjetImporte> lotProjets = lot.projets();
+        List<LotImport.TacheImportee> lotTaches = lot.taches();
+        if (!lotProjets.isEmpty()) {
+            List<Object[]> lignes = new ArrayList<>(lotProjets.size());
+            for (LotImport.ProjetImporte p : lotProjets) {
+                lignes.add(new Object[]{p.id(), p.nom(), p.description(), date(p.dateDebut()), date(p.dateFin()),
+                        creation, utilisateurId, ecriture});
+            }
+            jdbcTemplate.batchUpdate(INSERT_PROJET, lignes);
+        }
+        if (!lotTaches.isEmpty()) {
+            List<Object[]> lignes = new ArrayList<>(lotTaches.size());
+            for (LotImport.TacheImportee t : lotTaches) {
+                lignes.add(new Object[]{t.id(), t.titre(), code(t.priorite()), date(t.echeance()), code(t.status()),
+                        creation, creation, t.projetId(), ecriture});
+            }
+            jdbcTemplate.batchUpdate(INSERT_TACHE, lignes);
+        }
+    }
+
+    // Format CSV de COPY : champ vide non cité = NULL, texte toujours entre guillemets
+    private static void ligne(StringBuilder sortie, Object... valeurs) {
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                sortie.append(',');
+            }
+            Object valeur = valeurs[i];
+            if (valeur instanceof String texte) {
+                sortie.append('"').append(texte.replace("\"", "\"\"")).append('"');
+            } else if (valeur != null) {
+                sortie.append(valeur);
+            }
+        }
+        sortie.append('\n');
+    }
+
+    private static Short code(PrioriteTache priorite) {
+        return priorite != null ? priorite.getCode() : null;
+    }
+
+    private static Short code(StatutTache statut) {
+        return statut.getCode();
+    }
+
+    private static Date date(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    private static boolean copyDisponible(JdbcTemplate jdbcTemplate) {
+        Boolean disponible = jdbcTemplate.execute((ConnectionCallback<Boolean>) connexion -> estPostgres(connexion));
+        return Boolean.TRUE.equals(disponible);
+    }
+
+    private static boolean estPostgres(Connection connexion) throws SQLException {
+        return connexion.isWrapperFor(PGConnection.class);
+    }
+}
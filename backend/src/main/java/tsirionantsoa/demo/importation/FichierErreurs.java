@@ -0,0 +1,56 @@
+package tsirionantsoa.demo.importation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fichier CSV des lignes rejetées (ligne, erreur, contenu d'origine), alimenté par la validation
+ * et par l'écriture ; partagé entre les deux étapes.
+ */
+public class FichierErreurs implements Closeable {
+
+    private final Path chemin;
+    private final BufferedWriter sortie;
+
+    public FichierErreurs(Path chemin) throws IOException {
+        this.chemin = chemin;
+        this.sortie = Files.newBufferedWriter(chemin, StandardCharsets.UTF_8);
+        try {
+            sortie.write("ligne,erreur,contenu\r\n");
+        } catch (IOException e) {
+            sortie.close();
+            throw e;
+        }
+    }
+
+    public synchronized void ajouter(LigneImport ligne, String erreur) {
+        try {
+            sortie.write(Long.toString(ligne.numero()));
+            sortie.write(',');
+            sortie.write(citer(erreur));
+            sortie.write(',');
+            sortie.write(citer(ligne.brut()));
+            sortie.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getChemin() {
+        return chemin;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sortie.close();
+    }
+
+    private static String citer(String valeur) {
+        return valeur == null ? "" : '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+}
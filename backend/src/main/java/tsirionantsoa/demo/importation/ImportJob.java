@@ -0,0 +1,93 @@
+package tsirionantsoa.demo.importation;
+
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.dto.ImportProgress;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * État d'un import, mis à jour par les trois étapes (compteurs atomiques) et lu par GET /api/import/{jobId}.
+ */
+public class ImportJob {
+
+    public enum Statut { EN_COURS, TERMINE, ECHEC }
+
+    private final String id;
+    private final Long utilisateurId;
+    private final FormatFichier format;
+    private final Instant debut = Instant.now();
+    final AtomicLong lignesLues = new AtomicLong();
+    final AtomicLong projetsCrees = new AtomicLong();
+    final AtomicLong tachesCreees = new AtomicLong();
+    final AtomicLong lignesEnErreur = new AtomicLong();
+    private volatile Statut statut = Statut.EN_COURS;
+    private volatile boolean copy;
+    private volatile Instant fin;
+    private volatile String message;
+    private volatile Path fichierErreurs;
+
+    public ImportJob(String id, Long utilisateurId, FormatFichier format) {
+        this.id = id;
+        this.utilisateurId = utilisateurId;
+        this.format = format;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUtilisateurId() {
+        return utilisateurId;
+    }
+
+    public FormatFichier getFormat() {
+        return format;
+    }
+
+    public Statut getStatut() {
+        return statut;
+    }
+
+    public Instant getFin() {
+        return fin;
+    }
+
+    public Path getFichierErreurs() {
+        return fichierErreurs;
+    }
+
+    public boolean estEchoue() {
+        return statut == Statut.ECHEC;
+    }
+
+    void setCopy(boolean copy) {
+        this.copy = copy;
+    }
+
+    public void setFichierErreurs(Path fichierErreurs) {
+        this.fichierErreurs = fichierErreurs;
+    }
+
+    // Le premier échec l'emporte ; un job échoué n'est plus marqué terminé
+    public synchronized void echouer(String message) {
+        if (statut == Statut.EN_COURS) {
+            this.statut = Statut.ECHEC;
+            this.message = message;
+            this.fin = Instant.now();
+        }
+    }
+
+    public synchronized void terminer() {
+        if (statut == Statut.EN_COURS) {
+            this.statut = Statut.TERMINE;
+            this.fin = Instant.now();
+        }
+    }
+
+    public ImportProgress progression() {
+        return new ImportProgress(id, utilisateurId, format.getExtension(), statut.name(), lignesLues.get(),
+                projetsCrees.get(), tachesCreees.get(), lignesEnErreur.get(), copy, debut, fin, message);
+    }
+}
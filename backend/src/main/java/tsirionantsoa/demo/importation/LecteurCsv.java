@@ -0,0 +1,90 @@
+package tsirionantsoa.demo.importation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV RFC 4180 en flux : séparateur virgule, champs entre guillemets (guillemet doublé pour
+ * l'échapper), sauts de ligne autorisés dans un champ entre guillemets, fins de ligne CRLF ou LF.
+ * Garde le texte brut de chaque enregistrement pour le fichier d'erreurs.
+ */
+public class LecteurCsv {
+
+    private final Reader source;
+    private final StringBuilder brut = new StringBuilder();
+    private int suivant = -2;
+
+    public LecteurCsv(Reader source) {
+        this.source = source;
+    }
+
+    // Enregistrement suivant, ou null en fin de fichier
+    public List<String> lire() throws IOException {
+        brut.setLength(0);
+        int c = lireCaractere();
+        if (c == -1) {
+            return null;
+        }
+        List<String> champs = new ArrayList<>();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        while (true) {
+            if (entreGuillemets) {
+                if (c == -1) {
+                    throw new IOException("Guillemet non fermé en fin de fichier");
+                }
+                if (c == '"') {
+                    if (regarder() == '"') {
+                        champ.append('"');
+                        lireCaractere();
+                    } else {
+                        entreGuillemets = false;
+                    }
+                } else {
+                    champ.append((char) c);
+                }
+            } else if (c == '"' && champ.isEmpty()) {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && regarder() == '\n') {
+                    lireCaractere();
+                }
+                champs.add(champ.toString());
+                return champs;
+            } else {
+                champ.append((char) c);
+            }
+            c = lireCaractere();
+        }
+    }
+
+    // Texte de l'enregistrement renvoyé par le dernier appel à lire(), sans la fin de ligne
+    public String brut() {
+        int fin = brut.length();
+        while (fin > 0 && (brut.charAt(fin - 1) == '\n' || brut.charAt(fin - 1) == '\r')) {
+            fin--;
+        }
+        return brut.substring(0, fin);
+    }
+
+    private int lireCaractere() throws IOException {
+        int c = suivant != -2 ? suivant : source.read();
+        suivant = -2;
+        if (c != -1) {
+            brut.append((char) c);
+        }
+        return c;
+    }
+
+    private int regarder() throws IOException {
+        if (suivant == -2) {
+            suivant = source.read();
+        }
+        return suivant;
+    }
+}
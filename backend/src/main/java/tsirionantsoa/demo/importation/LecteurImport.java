@@ -0,0 +1,167 @@
+package tsirionantsoa.demo.importation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tsirionantsoa.demo.dto.FormatFichier;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Étape de lecture : transforme le fichier en LigneImport, une par enregistrement, dans le format
+ * produit par l'export (NDJSON : une ligne "projet" puis ses lignes "tache" ; CSV : une ligne par tâche
+ * avec les colonnes de son projet). En CSV, les colonnes sont repérées par l'en-tête.
+ */
+public abstract class LecteurImport implements Closeable {
+
+    protected final BufferedReader source;
+    protected long numero;
+
+    protected LecteurImport(Path fichier) throws IOException {
+        this.source = Files.newBufferedReader(fichier, StandardCharsets.UTF_8);
+    }
+
+    public static LecteurImport ouvrir(Path fichier, FormatFichier format) throws IOException {
+        return format == FormatFichier.CSV ? new Csv(fichier) : new Ndjson(fichier);
+    }
+
+    // Enregistrement suivant, ou null en fin de fichier
+    public abstract LigneImport suivante() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private static final class Ndjson extends LecteurImport {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        Ndjson(Path fichier) throws IOException {
+            super(fichier);
+        }
+
+        @Override
+        public LigneImport suivante() throws IOException {
+            String ligne;
+            do {
+                ligne = source.readLine();
+                if (ligne == null) {
+                    return null;
+                }
+                numero++;
+            } while (ligne.isBlank());
+
+            JsonNode json;
+            try {
+                json = MAPPER.readTree(ligne);
+            } catch (IOException e) {
+                return LigneImport.illisible(numero, ligne, "JSON invalide");
+            }
+            if (!json.isObject()) {
+                return LigneImport.illisible(numero, ligne, "Objet JSON attendu");
+            }
+            String type = texte(json, "type");
+            if ("projet".equals(type)) {
+                return new LigneImport(numero, ligne, champs(json, "id", "nom", "description", "dateDebut", "dateFin"), null, null);
+            }
+            if ("tache".equals(type)) {
+                return new LigneImport(numero, ligne, null, champs(json, "projetId", "titre", "priorite", "echeance", "status"), null);
+            }
+            return LigneImport.illisible(numero, ligne, "Type inconnu (projet ou tache attendu): " + type);
+        }
+
+        private static Map<String, String> champs(JsonNode json, String... noms) {
+            Map<String, String> champs = new HashMap<>();
+            for (String nom : noms) {
+                champs.put(nom, texte(json, nom));
+            }
+            return champs;
+        }
+
+        private static String texte(JsonNode json, String nom) {
+            JsonNode valeur = json.get(nom);
+            return valeur == null || valeur.isNull() ? null : valeur.asText();
+        }
+    }
+
+    private static final class Csv extends LecteurImport {
+
+        private final LecteurCsv csv;
+        private final Map<String, Integer> colonnes = new HashMap<>();
+
+        Csv(Path fichier) throws IOException {
+            super(fichier);
+            this.csv = new LecteurCsv(source);
+            List<String> entete = csv.lire();
+            if (entete == null) {
+                throw new IOException("Fichier CSV vide");
+            }
+            numero++;
+            for (int i = 0; i < entete.size(); i++) {
+                colonnes.put(entete.get(i).trim().toLowerCase(), i);
+            }
+            for (String requise : List.of("projet_id", "projet_nom", "tache_titre")) {
+                if (!colonnes.containsKey(requise)) {
+                    throw new IOException("Colonne requise absente de l'en-tête CSV: " + requise);
+                }
+            }
+        }
+
+        @Override
+        public LigneImport suivante() throws IOException {
+            List<String> valeurs;
+            try {
+                valeurs = csv.lire();
+            } catch (IOException e) {
+                numero++;
+                return LigneImport.illisible(numero, csv.brut(), e.getMessage());
+            }
+            if (valeurs == null) {
+                return null;
+            }
+            numero++;
+            if (valeurs.size() == 1 && valeurs.get(0).isBlank()) {
+                return suivante();
+            }
+            if (valeurs.size() != colonnes.size()) {
+                return LigneImport.illisible(numero, csv.brut(),
+                        "Nombre de colonnes incorrect: " + valeurs.size() + " au lieu de " + colonnes.size());
+            }
+            Map<String, String> projet = new HashMap<>();
+            projet.put("id", valeur(valeurs, "projet_id"));
+            projet.put("nom", valeur(valeurs, "projet_nom"));
+            projet.put("description", valeur(valeurs, "projet_description"));
+            projet.put("dateDebut", valeur(valeurs, "projet_date_debut"));
+            projet.put("dateFin", valeur(valeurs, "projet_date_fin"));
+
+            Map<String, String> tache = null;
+            if (valeur(valeurs, "tache_titre") != null) {
+                tache = new HashMap<>();
+                tache.put("projetId", projet.get("id"));
+                tache.put("titre", valeur(valeurs, "tache_titre"));
+                tache.put("priorite", valeur(valeurs, "tache_priorite"));
+                tache.put("echeance", valeur(valeurs, "tache_echeance"));
+                tache.put("status", valeur(valeurs, "tache_status"));
+            }
+            return new LigneImport(numero, csv.brut(), projet, tache, null);
+        }
+
+        // Colonne absente ou vide => null
+        private String valeur(List<String> valeurs, String colonne) {
+            Integer index = colonnes.get(colonne);
+            if (index == null) {
+                return null;
+            }
+            String valeur = valeurs.get(index);
+            return valeur.isEmpty() ? null : valeur;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tsirionantsoa.demo.importation;
+
+import java.util.Map;
+
+/**
+ * Enregistrement lu du fichier, avant validation : valeurs texte du projet et/ou de la tâche
+ * (clés id, nom, description, dateDebut, dateFin pour le projet ; projetId, titre, priorite,
+ * echeance, status pour la tâche). Une ligne illisible porte seulement son erreur.
+ */
+public record LigneImport(long numero, String brut, Map<String, String> projet, Map<String, String> tache,
+                          String erreur) {
+
+    // Marque de fin de flux entre les étapes
+    static final LigneImport FIN = new LigneImport(-1, null, null, null, null);
+
+    static LigneImport illisible(long numero, String brut, String erreur) {
+        return new LigneImport(numero, brut, null, null, erreur);
+    }
+}
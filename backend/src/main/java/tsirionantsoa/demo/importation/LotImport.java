@@ -0,0 +1,75 @@
+package tsirionantsoa.demo.importation;
+
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lot validé prêt à écrire : une entrée par ligne du fichier, avec le projet et/ou la tâche qu'elle crée
+ * (IDs déjà attribués). Les lignes d'origine sont gardées pour le fichier d'erreurs si l'écriture échoue.
+ */
+public class LotImport {
+
+    // Marque de fin de flux entre validation et écriture
+    static final LotImport FIN = new LotImport(List.of());
+
+    public record ProjetImporte(long id, String nom, String description, LocalDate dateDebut, LocalDate dateFin) {
+    }
+
+    public record TacheImportee(long id, long projetId, String titre, PrioriteTache priorite, LocalDate echeance,
+                                StatutTache status) {
+    }
+
+    record Element(LigneImport ligne, ProjetImporte projet, TacheImportee tache) {
+    }
+
+    final List<Element> elements;
+
+    LotImport() {
+        this(new ArrayList<>());
+    }
+
+    private LotImport(List<Element> elements) {
+        this.elements = elements;
+    }
+
+    void ajouter(LigneImport ligne, ProjetImporte projet, TacheImportee tache) {
+        elements.add(new Element(ligne, projet, tache));
+    }
+
+    int taille() {
+        return elements.size();
+    }
+
+    List<ProjetImporte> projets() {
+        List<ProjetImporte> projets = new ArrayList<>();
+        for (Element e : elements) {
+            if (e.projet() != null) {
+                projets.add(e.projet());
+            }
+        }
+        return projets;
+    }
+
+    List<TacheImportee> taches() {
+        List<TacheImportee> taches = new ArrayList<>();
+        for (Element e : elements) {
+            if (e.tache() != null) {
+                taches.add(e.tache());
+            }
+        }
+        return taches;
+    }
+
+    // Deux moitiés dans l'ordre du fichier : les projets restent écrits avant les tâches qui les suivent
+    LotImport[] diviser() {
+        int milieu = elements.size() / 2;
+        return new LotImport[]{
+                new LotImport(new ArrayList<>(elements.subList(0, milieu))),
+                new LotImport(new ArrayList<>(elements.subList(milieu, elements.size())))
+        };
+    }
+}
@@ -0,0 +1,317 @@
+package tsirionantsoa.demo.importation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import en trois étapes sur trois threads, reliées par des files bornées :
+ * lecture (analyse du fichier) -> validation (contrôles, attribution des IDs, mise en lots) -> écriture
+ * (un lot par transaction). Les files bornées limitent la mémoire : une étape lente freine les précédentes.
+ * Un lot refusé par la base est coupé en deux jusqu'à isoler les lignes fautives, envoyées au fichier d'erreurs.
+ */
+public class PipelineImport {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineImport.class);
+    private static final int LONGUEUR_MAX = 255;
+
+    private final ImportJob job;
+    private final Path fichier;
+    private final FormatFichier format;
+    private final long utilisateurId;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final FichierErreurs erreurs;
+    private final Set<Long> projetsExistants;
+    private final boolean copy;
+    private final int tailleLot;
+    private final BlockingQueue<LigneImport> lignes;
+    private final BlockingQueue<LotImport> lots;
+
+    // ID source du projet dans le fichier -> ID attribué (validation uniquement)
+    private final Map<String, Long> projetsFichier = new HashMap<>();
+
+    public PipelineImport(ImportJob job, Path fichier, FormatFichier format, long utilisateurId,
+                          JdbcTemplate jdbcTemplate, TransactionTemplate transaction, FichierErreurs erreurs,
+                          Set<Long> projetsExistants, boolean copy, int tailleLot, int capaciteLignes,
+                          int capaciteLots) {
+        this.job = job;
+        this.fichier = fichier;
+        this.format = format;
+        this.utilisateurId = utilisateurId;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = transaction;
+        this.erreurs = erreurs;
+        this.projetsExistants = projetsExistants;
+        this.copy = copy;
+        this.tailleLot = tailleLot;
+        this.lignes = new ArrayBlockingQueue<>(capaciteLignes);
+        this.lots = new ArrayBlockingQueue<>(capaciteLots);
+    }
+
+    // Exécute l'import complet ; l'écriture tourne sur le thread appelant
+    public void executer() throws InterruptedException {
+        EcrivainImport ecrivain = new EcrivainImport(jdbcTemplate, copy);
+        job.setCopy(ecrivain.utiliseCopy());
+        String prefixe = "import-" + job.getId().substring(0, 8);
+        Thread lecture = Thread.ofPlatform().name(prefixe + "-lecture").start(() -> etape("lecture", this::lire));
+        Thread validation = Thread.ofPlatform().name(prefixe + "-validation").start(() -> etape("validation", this::valider));
+        try {
+            ecrire(ecrivain);
+        } catch (RuntimeException e) {
+            log.error("Import {} : échec de l'écriture", job.getId(), e);
+            job.echouer("Écriture interrompue: " + e.getMessage());
+        }
+        lecture.join();
+        validation.join();
+    }
+
+    private interface Etape {
+        void executer() throws Exception;
+    }
+
+    private void etape(String nom, Etape etape) {
+        try {
+            etape.executer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.echouer("Import interrompu");
+        } catch (Exception e) {
+            log.error("Import {} : échec de l'étape {}", job.getId(), nom, e);
+            job.echouer("Étape " + nom + " interrompue: " + e.getMessage());
+        }
+    }
+
+    // Étape 1 : lecture
+    private void lire() throws IOException, InterruptedException {
+        try (LecteurImport lecteur = LecteurImport.ouvrir(fichier, format)) {
+            LigneImport ligne;
+            while ((ligne = lecteur.suivante()) != null) {
+                job.lignesLues.incrementAndGet();
+                if (!transmettre(lignes, ligne)) {
+                    return;
+                }
+            }
+        }
+        transmettre(lignes, LigneImport.FIN);
+    }
+
+    // Étape 2 : validation et mise en lots
+    private void valider() throws InterruptedException {
+        AllocateurIds idsProjets = new AllocateurIds(jdbcTemplate, "projet_id_projet_seq");
+        AllocateurIds idsTaches = new AllocateurIds(jdbcTemplate, "tache_id_task_seq");
+        LotImport lot = new LotImport();
+        while (true) {
+            LigneImport ligne = recevoir(lignes);
+            if (ligne == null) {
+                return;
+            }
+            if (ligne == LigneImport.FIN) {
+                break;
+            }
+            try {
+                validerLigne(ligne, lot, idsProjets, idsTaches);
+            } catch (LigneInvalide e) {
+                rejeter(ligne, e.getMessage());
+            }
+            if (lot.taille() >= tailleLot) {
+                if (!transmettre(lots, lot)) {
+                    return;
+                }
+                lot = new LotImport();
+            }
+        }
+        if (lot.taille() > 0 && !transmettre(lots, lot)) {
+            return;
+        }
+        transmettre(lots, LotImport.FIN);
+    }
+
+    private void validerLigne(LigneImport ligne, LotImport lot, AllocateurIds idsProjets, AllocateurIds idsTaches) {
+        if (ligne.erreur() != null) {
+            throw new LigneInvalide(ligne.erreur());
+        }
+        LotImport.ProjetImporte projet = null;
+        Long projetId = null;
+        if (ligne.projet() != null) {
+            Map<String, String> p = ligne.projet();
+            String source = requis(p, "id", "L'ID du projet est requis");
+            projetId = projetsFichier.get(source);
+            if (projetId != null && format == FormatFichier.NDJSON) {
+                throw new LigneInvalide("Projet en double dans le fichier: " + source);
+            }
+            if (projetId == null) {
+                projet = new LotImport.ProjetImporte(idsProjets.suivant(),
+                        texte(requis(p, "nom", "Le nom du projet est requis"), "nom"),
+                        texte(requis(p, "description", "La description du projet est requise"), "description"),
+                        date(p.get("dateDebut"), "dateDebut"), date(p.get("dateFin"), "dateFin"));
+                projetId = projet.id();
+                projetsFichier.put(source, projetId);
+            }
+        }
+
+        LotImport.TacheImportee tache = null;
+        String erreurTache = null;
+        if (ligne.tache() != null) {
+            try {
+                tache = tache(ligne.tache(), projetId, idsTaches);
+            } catch (LigneInvalide e) {
+                // En CSV, le projet de la ligne reste importé même si sa tâche est refusée
+                erreurTache = e.getMessage();
+            }
+        }
+        if (projet != null || tache != null) {
+            lot.ajouter(ligne, projet, tache);
+        }
+        if (erreurTache != null) {
+            throw new LigneInvalide(erreurTache);
+        }
+    }
+
+    private LotImport.TacheImportee tache(Map<String, String> t, Long projetLigne, AllocateurIds idsTaches) {
+        String titre = texte(requis(t, "titre", "Le titre de la tâche est requis"), "titre");
+        Long projetId = projetLigne;
+        if (projetId == null) {
+            String reference = requis(t, "projetId", "Le projet de la tâche est requis");
+            projetId = projetsFichier.get(reference);
+            if (projetId == null) {
+                projetId = projetExistant(reference);
+            }
+        }
+        return new LotImport.TacheImportee(idsTaches.suivant(), projetId, titre,
+                priorite(t.get("priorite")), date(t.get("echeance"), "echeance"), statut(t.get("status")));
+    }
+
+    // Une tâche peut viser un projet déjà en base, à condition qu'il appartienne à l'utilisateur
+    private Long projetExistant(String reference) {
+        try {
+            Long id = Long.valueOf(reference);
+            if (projetsExistants.contains(id)) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // référence non numérique : projet inconnu
+        }
+        throw new LigneInvalide("Projet introuvable: " + reference);
+    }
+
+    private void rejeter(LigneImport ligne, String erreur) {
+        job.lignesEnErreur.incrementAndGet();
+        erreurs.ajouter(ligne, erreur);
+    }
+
+    // Étape 3 : écriture, un lot par transaction
+    private void ecrire(EcrivainImport ecrivain) throws InterruptedException {
+        LocalDate aujourdHui = LocalDate.now();
+        while (true) {
+            LotImport lot = recevoir(lots);
+            if (lot == null || lot == LotImport.FIN) {
+                return;
+            }
+            ecrireOuIsoler(ecrivain, lot, aujourdHui);
+        }
+    }
+
+    private void ecrireOuIsoler(EcrivainImport ecrivain, LotImport lot, LocalDate aujourdHui) {
+        try {
+            transaction.executeWithoutResult(status -> ecrivain.ecrire(lot, utilisateurId, aujourdHui));
+            job.projetsCrees.addAndGet(lot.projets().size());
+            job.tachesCreees.addAndGet(lot.taches().size());
+        } catch (DataAccessException e) {
+            if (lot.taille() == 1) {
+                rejeter(lot.elements.get(0).ligne(), "Refusé par la base: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            for (LotImport moitie : lot.diviser()) {
+                ecrireOuIsoler(ecrivain, moitie, aujourdHui);
+            }
+        }
+    }
+
+    // Dépôt dans la file suivante ; abandon si le job a échoué entre-temps (l'étape aval ne lit plus)
+    private <T> boolean transmettre(BlockingQueue<T> file, T element) throws InterruptedException {
+        while (!file.offer(element, 200, TimeUnit.MILLISECONDS)) {
+            if (job.estEchoue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Retrait dans la file précédente ; null si le job a échoué (l'étape amont ne produit plus)
+    private <T> T recevoir(BlockingQueue<T> file) throws InterruptedException {
+        T element;
+        while ((element = file.poll(200, TimeUnit.MILLISECONDS)) == null) {
+            if (job.estEchoue()) {
+                return null;
+            }
+        }
+        return element;
+    }
+
+    private static String requis(Map<String, String> champs, String nom, String message) {
+        String valeur = champs.get(nom);
+        if (valeur == null || valeur.trim().isEmpty()) {
+            throw new LigneInvalide(message);
+        }
+        return valeur;
+    }
+
+    private static String texte(String valeur, String champ) {
+        if (valeur != null && valeur.length() > LONGUEUR_MAX) {
+            throw new LigneInvalide("Champ " + champ + " trop long (" + LONGUEUR_MAX + " caractères max)");
+        }
+        return valeur;
+    }
+
+    // Statut et priorité : mêmes libellés tolérés que l'API ("Terminé", "en cours"...)
+    private static StatutTache statut(String valeur) {
+        try {
+            return StatutTache.parse(valeur);
+        } catch (RuntimeException e) {
+            throw new LigneInvalide(e.getMessage());
+        }
+    }
+
+    private static PrioriteTache priorite(String valeur) {
+        try {
+            return PrioriteTache.parse(valeur);
+        } catch (RuntimeException e) {
+            throw new LigneInvalide(e.getMessage());
+        }
+    }
+
+    private static LocalDate date(String valeur, String champ) {
+        if (valeur == null || valeur.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valeur);
+        } catch (DateTimeParseException e) {
+            throw new LigneInvalide("Date invalide pour " + champ + " (AAAA-MM-JJ attendu): " + valeur);
+        }
+    }
+
+    // Erreur de validation d'une ligne : la ligne va au fichier d'erreurs, l'import continue
+    private static final class LigneInvalide extends RuntimeException {
+        LigneInvalide(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tsirionantsoa.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource chronométrée : temps d'attente d'une connexion du pool et durée de chaque exécution SQL
+ * (Hibernate comme JdbcTemplate), publiés dans Micrometer et cumulés par requête HTTP (SqlRequestStats).
+ * Les autres appels JDBC (unwrap compris) sont transmis tels quels.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final Timer attenteConnexion;
+    private final Timer requetes;
+    private final Timer lots;
+
+    public InstrumentedDataSource(DataSource cible, MeterRegistry registry) {
+        super(cible);
+        this.attenteConnexion = Timer.builder("app.db.connection.acquire")
+                .description("Attente d'une connexion du pool")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.requetes = Timer.builder("app.db.statement")
+                .description("Exécution d'une requête SQL")
+                .tag("type", "requete")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lots = Timer.builder("app.db.statement")
+                .description("Exécution d'une requête SQL")
+                .tag("type", "lot")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long debut = System.nanoTime();
+        Connection connexion = super.getConnection();
+        enregistrerAttente(System.nanoTime() - debut);
+        return envelopper(connexion);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long debut = System.nanoTime();
+        Connection connexion = super.getConnection(username, password);
+        enregistrerAttente(System.nanoTime() - debut);
+        return envelopper(connexion);
+    }
+
+    private void enregistrerAttente(long nanos) {
+        attenteConnexion.record(nanos, TimeUnit.NANOSECONDS);
+        SqlRequestStats.connexionObtenue(nanos);
+    }
+
+    private Connection envelopper(Connection connexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, methode, args) -> {
+                    Object resultat = invoquer(connexion, methode, args);
+                    return switch (methode.getName()) {
+                        case "createStatement" -> envelopper((Statement) resultat, Statement.class);
+                        case "prepareStatement" -> envelopper((Statement) resultat, PreparedStatement.class);
+                        case "prepareCall" -> envelopper((Statement) resultat, CallableStatement.class);
+                        default -> resultat;
+                    };
+                });
+    }
+
+    private Object envelopper(Statement statement, Class<? extends Statement> type) {
+        InvocationHandler handler = (proxy, methode, args) -> {
+            if (!methode.getName().startsWith("execute")) {
+                return invoquer(statement, methode, args);
+            }
+            long debut = System.nanoTime();
+            try {
+                return invoquer(statement, methode, args);
+            } finally {
+                long duree = System.nanoTime() - debut;
+                Timer timer = methode.getName().startsWith("executeBatch")
+                        || methode.getName().startsWith("executeLargeBatch") ? lots : requetes;
+                timer.record(duree, TimeUnit.NANOSECONDS);
+                SqlRequestStats.requeteExecutee(duree);
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] args) throws Throwable {
+        try {
+            return methode.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package tsirionantsoa.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relevé SQL par requête HTTP : nombre de requêtes SQL, temps SQL cumulé et attente de connexion,
+ * publiés par endpoint (méthode + motif d'URI) à côté de http.server.requests.
+ * Journal de requête structuré et échantillonné : toujours pour les requêtes lentes,
+ * sinon une requête sur 1/app.metrics.log-echantillon.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry registry;
+
+    @Value("${app.metrics.log-echantillon:0.01}")
+    private double echantillon;
+
+    @Value("${app.metrics.log-seuil-lent-ms:500}")
+    private long seuilLentMs;
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.demarrer();
+        long debut = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long duree = System.nanoTime() - debut;
+            SqlRequestStats.terminer();
+            enregistrer(request, response, stats, duree);
+        }
+    }
+
+    private void enregistrer(HttpServletRequest request, HttpServletResponse response, SqlRequestStats stats, long duree) {
+        Object motif = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = motif != null ? motif.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("app.http.sql.statements")
+                .description("Requêtes SQL par requête HTTP")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.getRequetes());
+        Timer.builder("app.http.sql.time")
+                .description("Temps SQL cumulé par requête HTTP")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(stats.getDureeSqlNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("app.http.db.connection.wait")
+                .description("Attente de connexion cumulée par requête HTTP")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getAttenteConnexionNanos(), TimeUnit.NANOSECONDS);
+
+        long dureeMs = TimeUnit.NANOSECONDS.toMillis(duree);
+        boolean lente = dureeMs >= seuilLentMs;
+        if (lente || ThreadLocalRandom.current().nextDouble() < echantillon) {
+            log.atInfo()
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("uri", uri)
+                    .addKeyValue("status", response.getStatus())
+                    .addKeyValue("dureeMs", dureeMs)
+                    .addKeyValue("sqlRequetes", stats.getRequetes())
+                    .addKeyValue("sqlMs", TimeUnit.NANOSECONDS.toMillis(stats.getDureeSqlNanos()))
+                    .addKeyValue("attenteConnexionMs", TimeUnit.NANOSECONDS.toMillis(stats.getAttenteConnexionNanos()))
+                    .log(lente ? "Requête lente" : "Requête échantillonnée");
+        }
+    }
+}
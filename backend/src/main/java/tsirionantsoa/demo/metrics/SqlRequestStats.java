@@ -0,0 +1,61 @@
+package tsirionantsoa.demo.metrics;
+
+/**
+ * Compteurs SQL de la requête HTTP en cours, portés par le thread de la requête :
+ * démarrés et relevés par RequestMetricsFilter, alimentés par InstrumentedDataSource.
+ * Hors requête HTTP (tâches planifiées, démarrage), rien n'est accumulé.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> COURANT = new ThreadLocal<>();
+
+    private int requetes;
+    private long dureeSqlNanos;
+    private int connexions;
+    private long attenteConnexionNanos;
+
+    private SqlRequestStats() {
+    }
+
+    static SqlRequestStats demarrer() {
+        SqlRequestStats stats = new SqlRequestStats();
+        COURANT.set(stats);
+        return stats;
+    }
+
+    static void terminer() {
+        COURANT.remove();
+    }
+
+    static void requeteExecutee(long dureeNanos) {
+        SqlRequestStats stats = COURANT.get();
+        if (stats != null) {
+            stats.requetes++;
+            stats.dureeSqlNanos += dureeNanos;
+        }
+    }
+
+    static void connexionObtenue(long attenteNanos) {
+        SqlRequestStats stats = COURANT.get();
+        if (stats != null) {
+            stats.connexions++;
+            stats.attenteConnexionNanos += attenteNanos;
+        }
+    }
+
+    public int getRequetes() {
+        return requetes;
+    }
+
+    public long getDureeSqlNanos() {
+        return dureeSqlNanos;
+    }
+
+    public int getConnexions() {
+        return connexions;
+    }
+
+    public long getAttenteConnexionNanos() {
+        return attenteConnexionNanos;
+    }
+}
@@ -0,0 +1,87 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Point de sauvegarde d'un chronomètre en cours (voir ChronoService) : le chronomètre vit en mémoire,
+// cette ligne n'est écrite que périodiquement, pour le retrouver après un redémarrage.
+// Supprimée à l'arrêt du chronomètre ; simples colonnes d'ID, sans relation.
+@Entity
+@Table(name = "active_timer", uniqueConstraints = @UniqueConstraint(name = "uk_active_timer_tache",
+        columnNames = {"id_users", "id_task"}))
+public class ActiveTimer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_timer")
+    private Long id;
+
+    @Column(name = "id_users", nullable = false)
+    private Long utilisateurId;
+
+    @Column(name = "id_task", nullable = false)
+    private Long tacheId;
+
+    @Column(name = "debut_timer", nullable = false)
+    private LocalDateTime debut;
+
+    // Temps écoulé au moment du point de sauvegarde
+    @Column(name = "cumul_secondes", nullable = false)
+    private Long cumulSecondes;
+
+    @Column(name = "en_cours", nullable = false)
+    private Boolean enCours;
+
+    @Column(name = "sauvegarde_timer", nullable = false)
+    private LocalDateTime sauvegarde;
+
+    // Instance propriétaire (app.instance.id) et fin de son bail, renouvelé à chaque sauvegarde
+    @Column(name = "instance_timer")
+    private String instance;
+
+    @Column(name = "bail_timer", nullable = false)
+    private Instant bail;
+
+    // ============= CONSTRUCTEURS =============
+    public ActiveTimer() {
+    }
+
+    // ============= GETTERS =============
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUtilisateurId() {
+        return utilisateurId;
+    }
+
+    public Long getTacheId() {
+        return tacheId;
+    }
+
+    public LocalDateTime getDebut() {
+        return debut;
+    }
+
+    public Long getCumulSecondes() {
+        return cumulSecondes;
+    }
+
+    public Boolean getEnCours() {
+        return enCours;
+    }
+
+    public LocalDateTime getSauvegarde() {
+        return sauvegarde;
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    public Instant getBail() {
+        return bail;
+    }
+}
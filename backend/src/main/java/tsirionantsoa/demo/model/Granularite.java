@@ -0,0 +1,44 @@
+package tsirionantsoa.demo.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Granularité d'un cumul de temps ; la période commence au jour, au lundi (semaine ISO) ou au 1er du mois.
+// Le champ "sql" est l'unité de date_trunc PostgreSQL correspondante (reconstruction des cumuls).
+public enum Granularite {
+    JOUR("day"),
+    SEMAINE("week"),
+    MOIS("month");
+
+    private final String sql;
+
+    Granularite(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public LocalDate debutPeriode(LocalDate date) {
+        return switch (this) {
+            case JOUR -> date;
+            case SEMAINE -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MOIS -> date.withDayOfMonth(1);
+        };
+    }
+
+    // Accepte "jour", "SEMAINE", "mois"... ; null => JOUR
+    public static Granularite parse(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return JOUR;
+        }
+        for (Granularite g : values()) {
+            if (g.name().equalsIgnoreCase(valeur.trim())) {
+                return g;
+            }
+        }
+        throw new RuntimeException("Granularité inconnue (jour, semaine ou mois): " + valeur);
+    }
+}
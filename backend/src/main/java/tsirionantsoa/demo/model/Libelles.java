@@ -0,0 +1,21 @@
+package tsirionantsoa.demo.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Forme canonique d'un libellé saisi pour retrouver une constante d'enum :
+// "Terminé", "TERMINÉ" et " terminé " donnent "TERMINE", "en cours" et "En-cours" donnent "EN_COURS"
+final class Libelles {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^A-Z0-9]+");
+
+    private Libelles() {
+    }
+
+    static String cle(String valeur) {
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(valeur.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATEURS.matcher(sansAccents.toUpperCase(Locale.ROOT)).replaceAll("_");
+    }
+}
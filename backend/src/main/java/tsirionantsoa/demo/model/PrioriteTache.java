@@ -0,0 +1,45 @@
+package tsirionantsoa.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+// Priorité d'une tâche (facultative). Stockée en base sous forme de code smallint (voir PrioriteTacheConverter) :
+// les codes sont figés, une nouvelle priorité prend un nouveau code.
+public enum PrioriteTache {
+    BASSE((short) 0),
+    MOYENNE((short) 1),
+    HAUTE((short) 2);
+
+    private final short code;
+
+    PrioriteTache(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static PrioriteTache deCode(short code) {
+        for (PrioriteTache p : values()) {
+            if (p.code == code) {
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("Code de priorité inconnu: " + code);
+    }
+
+    // Accepte "HAUTE", "haute", "Moyenne"... ; null ou vide => pas de priorité
+    @JsonCreator
+    public static PrioriteTache parse(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return null;
+        }
+        String cle = Libelles.cle(valeur);
+        for (PrioriteTache p : values()) {
+            if (p.name().equals(cle)) {
+                return p;
+            }
+        }
+        throw new RuntimeException("Priorité inconnue (BASSE, MOYENNE ou HAUTE): " + valeur);
+    }
+}
@@ -0,0 +1,19 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Priorité <-> code smallint de la colonne tache.priorite_task
+@Converter(autoApply = true)
+public class PrioriteTacheConverter implements AttributeConverter<PrioriteTache, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(PrioriteTache priorite) {
+        return priorite != null ? priorite.getCode() : null;
+    }
+
+    @Override
+    public PrioriteTache convertToEntityAttribute(Short code) {
+        return code != null ? PrioriteTache.deCode(code) : null;
+    }
+}
@@ -1,14 +1,26 @@
 package tsirionantsoa.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "projet")
+@DynamicUpdate // UPDATE limité aux colonnes modifiées
+@SQLRestriction("supprime = false") // Projet en cours de purge : invisible dès sa suppression (voir PurgeService)
+// Index créés par les migrations (db/migration), repris ici pour un schéma généré par Hibernate (benchmarks JMH)
+@Table(name = "projet", indexes = {
+        @Index(name = "idx_projet_utilisateur_modifie", columnList = "id_users, modifie_le"),
+        @Index(name = "idx_projet_utilisateur_id", columnList = "id_users, id_projet")
+})
 public class Projet {
 
+    // Séquence avec allocation par blocs de 50 : Hibernate peut regrouper les INSERT en lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projet_seq")
+    @SequenceGenerator(name = "projet_seq", sequenceName = "projet_id_projet_seq", allocationSize = 50)
     @Column(name = "id_projet")
     private Long id;
 
@@ -27,10 +39,24 @@ public class Projet {
     @Column(name = "datecreation_projet")
     private LocalDate dateCreation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_users", nullable = false)
     private Utilisateur utilisateur;
 
+    // Instant précis de la dernière écriture : curseur de la synchronisation incrémentale (GET /api/sync)
+    @Column(name = "modifie_le", nullable = false)
+    private Instant modifieLe;
+
+    // Marqué par la suppression, avant la purge en arrière-plan ; écrit uniquement en SQL
+    @ColumnDefault("false")
+    @Column(name = "supprime", nullable = false, insertable = false, updatable = false)
+    private boolean supprime;
+
+    // Version optimiste : incrémentée à chaque écriture, sert d'ETag et refuse les mises à jour perdues
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ============= CONSTRUCTEURS =============
     public Projet() {
     }
@@ -100,6 +126,20 @@ public class Projet {
         this.utilisateur = utilisateur;
     }
 
+    public Instant getModifieLe() {
+        return modifieLe;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void horodater() {
+        this.modifieLe = Instant.now();
+    }
+
     // ============= TOSTRING =============
         /*
     @Override
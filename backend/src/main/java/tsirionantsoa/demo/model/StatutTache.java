@@ -0,0 +1,55 @@
+package tsirionantsoa.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+// Statut d'une tâche. Stocké en base sous forme de code smallint (voir StatutTacheConverter) :
+// les codes sont figés, un nouveau statut prend un nouveau code.
+public enum StatutTache {
+    EN_ATTENTE((short) 0),
+    EN_COURS((short) 1),
+    TERMINE((short) 2);
+
+    private final short code;
+
+    StatutTache(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    // Une tâche est ouverte tant qu'elle n'est pas terminée
+    public boolean estOuverte() {
+        return this != TERMINE;
+    }
+
+    public static StatutTache deCode(short code) {
+        for (StatutTache s : values()) {
+            if (s.code == code) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException("Code de statut inconnu: " + code);
+    }
+
+    // Accepte "EN_COURS", "en cours", "Terminé", "TERMINÉ"... ; null ou vide => EN_ATTENTE
+    @JsonCreator
+    public static StatutTache parse(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return EN_ATTENTE;
+        }
+        String cle = Libelles.cle(valeur);
+        for (StatutTache s : values()) {
+            if (s.name().equals(cle)) {
+                return s;
+            }
+        }
+        throw new RuntimeException("Statut inconnu (EN_ATTENTE, EN_COURS ou TERMINE): " + valeur);
+    }
+
+    // Statut d'une écriture : absent => EN_ATTENTE
+    public static StatutTache ouDefaut(StatutTache statut) {
+        return statut != null ? statut : EN_ATTENTE;
+    }
+}
@@ -0,0 +1,19 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Statut <-> code smallint de la colonne tache.status
+@Converter(autoApply = true)
+public class StatutTacheConverter implements AttributeConverter<StatutTache, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(StatutTache statut) {
+        return statut != null ? statut.getCode() : null;
+    }
+
+    @Override
+    public StatutTache convertToEntityAttribute(Short code) {
+        return code != null ? StatutTache.deCode(code) : null;
+    }
+}
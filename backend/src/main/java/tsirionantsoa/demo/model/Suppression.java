@@ -0,0 +1,56 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Trace d'une suppression de projet ou de tâche, écrite dans la transaction du DELETE : permet à la
+// synchronisation incrémentale de signaler les suppressions. Purgée après la durée de rétention.
+@Entity
+@Table(name = "suppression", indexes = @Index(name = "idx_suppression_utilisateur_date",
+        columnList = "id_users, supprime_le"))
+public class Suppression {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_suppression")
+    private Long id;
+
+    // "projet" ou "tache"
+    @Column(name = "entite", nullable = false, length = 16)
+    private String entite;
+
+    @Column(name = "id_entite", nullable = false)
+    private Long entiteId;
+
+    @Column(name = "id_users", nullable = false)
+    private Long utilisateurId;
+
+    @Column(name = "supprime_le", nullable = false)
+    private Instant supprimeLe;
+
+    // ============= CONSTRUCTEURS =============
+    public Suppression() {
+    }
+
+    // ============= GETTERS =============
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntite() {
+        return entite;
+    }
+
+    public Long getEntiteId() {
+        return entiteId;
+    }
+
+    public Long getUtilisateurId() {
+        return utilisateurId;
+    }
+
+    public Instant getSupprimeLe() {
+        return supprimeLe;
+    }
+}
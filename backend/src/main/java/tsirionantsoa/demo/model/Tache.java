@@ -1,30 +1,42 @@
 package tsirionantsoa.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tache")
+@DynamicUpdate // UPDATE limité aux colonnes modifiées (lignes de tâches très sollicitées)
+// Index créés par les migrations (db/migration), repris ici pour un schéma généré par Hibernate (benchmarks JMH),
+// sauf les index partiels des tâches ouvertes (idx_tache_ouvertes, idx_tache_echeance_ouvertes), propres à PostgreSQL
+@Table(name = "tache", indexes = {
+        @Index(name = "idx_tache_projet_modifie", columnList = "id_projets, modifie_le"),
+        @Index(name = "idx_tache_projet_id", columnList = "id_projets, id_task"),
+        @Index(name = "idx_tache_projet_status", columnList = "id_projets, status")
+})
 @Data
 public class Tache {
+    // Séquence avec allocation par blocs de 50 : Hibernate peut regrouper les INSERT en lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tache_seq")
+    @SequenceGenerator(name = "tache_seq", sequenceName = "tache_id_task_seq", allocationSize = 50)
     @Column(name = "id_task")
     private Long id;
 
     @Column(name = "titre_task", nullable = false)
     private String titre;
 
+    // Codes smallint (PrioriteTacheConverter, StatutTacheConverter)
     @Column(name = "priorite_task")
-    private String priorite; // Peut être un Enum si vous voulez plus de contrôle
+    private PrioriteTache priorite;
 
     @Column(name = "echeance_task")
     private LocalDate echeance;
 
-    @Column(name = "status")
-    private String status; // Nouveau champ
+    @Column(name = "status", nullable = false)
+    private StatutTache status;
 
     @Column(name = "datecreation_task", nullable = false)
     private LocalDate dateCreation;
@@ -33,10 +45,19 @@ public class Tache {
     private LocalDate dateModification;
 
     // Relation Many-to-One: Une tâche appartient à un seul projet
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_projets", nullable = false)
     private Projet projet;
 
+    // Instant précis de la dernière écriture : curseur de la synchronisation incrémentale (GET /api/sync)
+    @Column(name = "modifie_le", nullable = false)
+    private Instant modifieLe;
+
+    // Version optimiste : incrémentée à chaque écriture, sert d'ETag et refuse les mises à jour perdues
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     public Long getId() {
         return id;
@@ -54,11 +75,11 @@ public class Tache {
         this.titre = titre;
     }
 
-    public String getPriorite() {
+    public PrioriteTache getPriorite() {
         return priorite;
     }
 
-    public void setPriorite(String priorite) {
+    public void setPriorite(PrioriteTache priorite) {
         this.priorite = priorite;
     }
 
@@ -70,11 +91,11 @@ public class Tache {
         this.echeance = echeance;
     }
 
-    public String getStatus() {
+    public StatutTache getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(StatutTache status) {
         this.status = status;
     }
 
@@ -101,4 +122,18 @@ public class Tache {
     public void setProjet(Projet projet) {
         this.projet = projet;
     }
+
+    public Instant getModifieLe() {
+        return modifieLe;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void horodater() {
+        this.modifieLe = Instant.now();
+    }
 }
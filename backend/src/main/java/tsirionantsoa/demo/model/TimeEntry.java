@@ -0,0 +1,113 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Entrée de temps : un intervalle passé par un utilisateur sur une tâche.
+// Table en ajout seul : les lignes sont insérées par lots (voir TimeEntryService) et jamais modifiées.
+@Entity
+@Table(name = "time_entry", indexes = {
+        @Index(name = "idx_time_entry_utilisateur_debut", columnList = "id_users, debut_entry"),
+        @Index(name = "idx_time_entry_tache_debut", columnList = "id_task, debut_entry")
+})
+public class TimeEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_time_entry")
+    private Long id;
+
+    @Column(name = "debut_entry", nullable = false)
+    private LocalDateTime debut;
+
+    @Column(name = "fin_entry", nullable = false)
+    private LocalDateTime fin;
+
+    @Column(name = "duree_entry", nullable = false)
+    private Long dureeSecondes;
+
+    @Column(name = "description_entry")
+    private String description;
+
+    @Column(name = "datecreation_entry", nullable = false)
+    private LocalDate dateCreation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_task", nullable = false)
+    private Tache tache;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_users", nullable = false)
+    private Utilisateur utilisateur;
+
+    // ============= CONSTRUCTEURS =============
+    public TimeEntry() {
+    }
+
+    // ============= GETTERS ET SETTERS =============
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getDebut() {
+        return debut;
+    }
+
+    public void setDebut(LocalDateTime debut) {
+        this.debut = debut;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    public void setFin(LocalDateTime fin) {
+        this.fin = fin;
+    }
+
+    public Long getDureeSecondes() {
+        return dureeSecondes;
+    }
+
+    public void setDureeSecondes(Long dureeSecondes) {
+        this.dureeSecondes = dureeSecondes;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDate getDateCreation() {
+        return dateCreation;
+    }
+
+    public void setDateCreation(LocalDate dateCreation) {
+        this.dateCreation = dateCreation;
+    }
+
+    public Tache getTache() {
+        return tache;
+    }
+
+    public void setTache(Tache tache) {
+        this.tache = tache;
+    }
+
+    public Utilisateur getUtilisateur() {
+        return utilisateur;
+    }
+
+    public void setUtilisateur(Utilisateur utilisateur) {
+        this.utilisateur = utilisateur;
+    }
+}
@@ -0,0 +1,79 @@
+package tsirionantsoa.demo.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Cumul des entrées de temps d'un utilisateur sur une tâche pour une période (jour, semaine ou mois).
+// Donnée dérivée de time_entry : mise à jour par upsert à chaque ingestion (voir RapportService)
+// et reconstructible à tout moment ; d'où de simples colonnes d'ID, sans relation.
+@Entity
+@Table(name = "time_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_time_rollup_periode",
+        columnNames = {"id_users", "granularite", "debut_periode", "id_task"}),
+        indexes = @Index(name = "idx_time_rollup_tache", columnList = "id_task"))
+public class TimeRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_rollup")
+    private Long id;
+
+    @Column(name = "id_users", nullable = false)
+    private Long utilisateurId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularite", nullable = false, length = 8)
+    private Granularite granularite;
+
+    @Column(name = "debut_periode", nullable = false)
+    private LocalDate debutPeriode;
+
+    @Column(name = "id_projets", nullable = false)
+    private Long projetId;
+
+    @Column(name = "id_task", nullable = false)
+    private Long tacheId;
+
+    @Column(name = "total_secondes", nullable = false)
+    private Long totalSecondes;
+
+    @Column(name = "nb_entries", nullable = false)
+    private Long nbEntrees;
+
+    // ============= CONSTRUCTEURS =============
+    public TimeRollup() {
+    }
+
+    // ============= GETTERS =============
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUtilisateurId() {
+        return utilisateurId;
+    }
+
+    public Granularite getGranularite() {
+        return granularite;
+    }
+
+    public LocalDate getDebutPeriode() {
+        return debutPeriode;
+    }
+
+    public Long getProjetId() {
+        return projetId;
+    }
+
+    public Long getTacheId() {
+        return tacheId;
+    }
+
+    public Long getTotalSecondes() {
+        return totalSecondes;
+    }
+
+    public Long getNbEntrees() {
+        return nbEntrees;
+    }
+}
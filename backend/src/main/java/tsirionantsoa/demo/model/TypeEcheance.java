@@ -0,0 +1,7 @@
+package tsirionantsoa.demo.model;
+
+// Événement d'échéance d'une tâche ouverte : rappel avant l'échéance, retard le lendemain de l'échéance
+public enum TypeEcheance {
+    RAPPEL,
+    RETARD
+}
@@ -3,13 +3,21 @@ package tsirionantsoa.demo.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "utilisateur") // Spécifie le nom exact de la table
+// Index créés par les migrations, repris ici pour un schéma généré par Hibernate (benchmarks JMH) ;
+// l'index sur lower(email) est une expression et n'existe que dans la migration
+@Table(name = "utilisateur", indexes = {
+        @Index(name = "idx_utilisateur_date_creation", columnList = "date_creation, id")
+})
+@SQLRestriction("supprime = false") // Compte en cours de purge : invisible dès sa suppression (voir PurgeService)
 @Data
 public class Utilisateur {
 
@@ -23,6 +31,8 @@ public class Utilisateur {
     @Column(name = "email", nullable = false, unique = true) // L'email doit être unique
     private String email;
 
+    // Lu à l'inscription, jamais renvoyé dans les réponses
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "mot_de_passe", nullable = false)
     private String motDePasse;
 
@@ -32,8 +42,20 @@ public class Utilisateur {
     @Column(name = "role", nullable = false)
     private String role; 
 
-    // Relation inverse One-to-Many avec l'entité Projet
-    @OneToMany(mappedBy = "utilisateur", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Marqué par la suppression, avant la purge en arrière-plan ; écrit uniquement en SQL
+    @JsonIgnore
+    @ColumnDefault("false")
+    @Column(name = "supprime", nullable = false, insertable = false, updatable = false)
+    private boolean supprime;
+
+    // Version optimiste : incrémentée à chaque écriture, sert d'ETag et refuse les mises à jour perdues
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Relation inverse One-to-Many avec l'entité Projet. Sans cascade : supprimer un utilisateur passe par
+    // PurgeService (DELETE par tranches), jamais par le chargement de tous ses projets et tâches
+    @OneToMany(mappedBy = "utilisateur")
     @JsonIgnore // Évite les boucles de sérialisation infinies
     @ToString.Exclude
     private List<Projet> projets;
@@ -89,6 +111,10 @@ public class Utilisateur {
         this.role = role;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public List<Projet> getProjets() {
         return projets;
     }
@@ -0,0 +1,64 @@
+package tsirionantsoa.demo.recherche;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage d'un texte en mots d'index : décomposition Unicode (NFD) puis retrait des accents, minuscules,
+ * coupure sur tout ce qui n'est ni lettre ni chiffre. "Tâche TERMINÉE" donne "tache", "terminee".
+ * Le même découpage sert à l'indexation et aux requêtes : une recherche ignore donc casse et accents.
+ */
+public final class Tokeniseur {
+
+    // Longueur de la colonne search_token.token
+    public static final int LONGUEUR_MAX = 64;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Tokeniseur() {
+    }
+
+    public static String normaliser(String texte) {
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return sansAccents.toLowerCase(Locale.ROOT);
+    }
+
+    // Mots distincts des textes fournis (les textes null sont ignorés), dans leur ordre d'apparition
+    public static Set<String> tokens(String... textes) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String texte : textes) {
+            if (texte != null) {
+                tokens.addAll(decouper(texte));
+            }
+        }
+        return tokens;
+    }
+
+    // Mots d'une requête, dans l'ordre de saisie (le dernier peut être un début de mot)
+    public static List<String> termes(String requete) {
+        return requete == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(decouper(requete)));
+    }
+
+    // Plus petite chaîne supérieure à toutes celles commençant par le préfixe (ordre de la collation "C") :
+    // "commence par" devient l'intervalle [prefixe, borneSuperieure(prefixe)), parcouru sur un index
+    public static String borneSuperieure(String prefixe) {
+        int fin = prefixe.length() - 1;
+        return prefixe.substring(0, fin) + (char) (prefixe.charAt(fin) + 1);
+    }
+
+    private static List<String> decouper(String texte) {
+        List<String> mots = new ArrayList<>();
+        for (String mot : SEPARATEURS.split(normaliser(texte))) {
+            if (!mot.isEmpty()) {
+                mots.add(mot.length() > LONGUEUR_MAX ? mot.substring(0, LONGUEUR_MAX) : mot);
+            }
+        }
+        return mots;
+    }
+}
@@ -1,10 +1,76 @@
 package tsirionantsoa.demo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.ExportLigne;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.ProprietaireProjet;
 import tsirionantsoa.demo.model.Projet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProjetRepository extends JpaRepository<Projet, Long> {
+
+    String SELECT_VIEW = "select new tsirionantsoa.demo.dto.ProjetView(p.id, p.nom, p.description, p.dateDebut, "
+            + "p.dateFin, p.dateCreation, p.utilisateur.id, p.version) from Projet p ";
+
     // Trouver tous les projets créés par un utilisateur spécifique
-    List<Projet> findByUtilisateurId(Long utilisateurId);
-}
\ No newline at end of file
+    @Query(SELECT_VIEW + "where p.utilisateur.id = :utilisateurId order by p.id desc")
+    List<ProjetView> findViewsByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+
+    // Parmi les IDs donnés, ceux qui existent et leur propriétaire (une seule requête, sans charger les projets)
+    @Query("select new tsirionantsoa.demo.dto.ProprietaireProjet(p.id, p.utilisateur.id) from Projet p where p.id in :ids")
+    List<ProprietaireProjet> findProprietaires(@Param("ids") Collection<Long> ids);
+
+    // Détail d'un projet sans charger son propriétaire
+    @Query(SELECT_VIEW + "where p.id = :id")
+    Optional<ProjetView> findViewById(@Param("id") Long id);
+
+    // Version seule, pour l'ETag du détail (If-None-Match) sans lire le projet
+    @Query("select p.version from Projet p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Empreinte de la liste des projets d'un utilisateur, pour son ETag (un seul agrégat ; hachage : voir
+    // Empreinte.hachage)
+    @Query("select new tsirionantsoa.demo.dto.Empreinte(count(p), coalesce(sum(p.version), 0), "
+            + "coalesce(sum(mod(mod(mod(p.id, 2147483647) * 1588635695 + p.version, 2147483647)"
+            + " * mod(mod(p.id, 2147483647) * 1588635695 + p.version, 2147483647), 2147483647)), 0)) "
+            + "from Projet p where p.utilisateur.id = :utilisateurId")
+    Empreinte empreinteByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+
+    // Page keyset : projets de l'utilisateur d'ID inférieur au curseur, du plus récent au plus ancien
+    @Query(SELECT_VIEW + "where p.utilisateur.id = :utilisateurId and p.id < :avantId order by p.id desc")
+    List<ProjetView> findPageViewsByUtilisateurId(@Param("utilisateurId") Long utilisateurId,
+                                                  @Param("avantId") Long avantId, Pageable limite);
+
+    // Synchronisation : projets de l'utilisateur écrits dans l'intervalle ]depuis, jusqua]
+    @Query(SELECT_VIEW + "where p.utilisateur.id = :utilisateurId and p.modifieLe > :depuis and p.modifieLe <= :jusqua "
+            + "order by p.modifieLe")
+    List<ProjetView> findViewsModifiees(@Param("utilisateurId") Long utilisateurId,
+                                        @Param("depuis") Instant depuis, @Param("jusqua") Instant jusqua);
+
+    // IDs des projets d'un utilisateur (import : rattachement des tâches à des projets existants)
+    @Query("select p.id from Projet p where p.utilisateur.id = :utilisateurId")
+    List<Long> findIdsByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+
+    // Export : projets de l'utilisateur et leurs tâches en une seule requête lue par curseur (fetch size),
+    // sans entité gérée. À consommer dans une transaction et à fermer après usage.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new tsirionantsoa.demo.dto.ExportLigne(p.id, p.nom, p.description, p.dateDebut, p.dateFin, "
+            + "p.dateCreation, t.id, t.titre, t.priorite, t.echeance, t.status, t.dateCreation, t.dateModification) "
+            + "from Projet p left join Tache t on t.projet = p "
+            + "where p.utilisateur.id = :utilisateurId order by p.id, t.id")
+    Stream<ExportLigne> streamExportByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+}
@@ -0,0 +1,39 @@
+package tsirionantsoa.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tsirionantsoa.demo.dto.SuppressionView;
+import tsirionantsoa.demo.model.Suppression;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface SuppressionRepository extends JpaRepository<Suppression, Long> {
+
+    // Trace des tâches données, en une requête et avant leur DELETE (le propriétaire est lu via le projet)
+    @Modifying
+    @Query(value = "insert into suppression (entite, id_entite, id_users, supprime_le) "
+            + "select 'tache', t.id_task, p.id_users, :le from tache t join projet p on p.id_projet = t.id_projets "
+            + "where t.id_task in :ids", nativeQuery = true)
+    int enregistrerTaches(@Param("ids") Collection<Long> ids, @Param("le") Instant le);
+
+    // Trace d'un projet, avant son DELETE
+    @Modifying
+    @Query(value = "insert into suppression (entite, id_entite, id_users, supprime_le) "
+            + "select 'projet', p.id_projet, p.id_users, :le from projet p where p.id_projet = :id", nativeQuery = true)
+    int enregistrerProjet(@Param("id") Long id, @Param("le") Instant le);
+
+    // Suppressions d'un utilisateur dans l'intervalle ]depuis, jusqua]
+    @Query("select new tsirionantsoa.demo.dto.SuppressionView(s.entite, s.entiteId, s.supprimeLe) from Suppression s "
+            + "where s.utilisateurId = :utilisateurId and s.supprimeLe > :depuis and s.supprimeLe <= :jusqua "
+            + "order by s.supprimeLe")
+    List<SuppressionView> findViewsByUtilisateur(@Param("utilisateurId") Long utilisateurId,
+                                                 @Param("depuis") Instant depuis, @Param("jusqua") Instant jusqua);
+
+    @Modifying
+    @Query("delete from Suppression s where s.supprimeLe < :avant")
+    int purger(@Param("avant") Instant avant);
+}
@@ -1,13 +1,82 @@
 package tsirionantsoa.demo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tsirionantsoa.demo.dto.CompteurTache;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.TacheProjet;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.model.StatutTache;
 import tsirionantsoa.demo.model.Tache;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TacheRepository extends JpaRepository<Tache, Long> {
+
+    String SELECT_VIEW = "select new tsirionantsoa.demo.dto.TacheView(t.id, t.titre, t.priorite, t.echeance, t.status, "
+            + "t.dateCreation, t.dateModification, t.version, p.id, p.nom, p.version) from Tache t join t.projet p ";
+
     // Trouver toutes les tâches appartenant à un projet spécifique
-    List<Tache> findByProjetId(Long projetId);
+    @Query(SELECT_VIEW + "where p.id = :projetId order by t.id desc")
+    List<TacheView> findViewsByProjetId(@Param("projetId") Long projetId);
+
+    // Détail d'une tâche avec l'id et le nom de son projet
+    @Query(SELECT_VIEW + "where t.id = :id")
+    Optional<TacheView> findViewById(@Param("id") Long id);
+
+    // Version de la tâche plus celle de son projet (la vue porte le nom du projet), pour l'ETag du détail
+    @Query("select t.version + p.version from Tache t join t.projet p where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Empreinte de la liste des tâches d'un projet, pour son ETag (mêmes versions composées que le détail ;
+    // hachage : voir Empreinte.hachage)
+    @Query("select new tsirionantsoa.demo.dto.Empreinte(count(t), coalesce(sum(t.version + p.version), 0), "
+            + "coalesce(sum(mod(mod(mod(t.id, 2147483647) * 1588635695 + t.version + p.version, 2147483647)"
+            + " * mod(mod(t.id, 2147483647) * 1588635695 + t.version + p.version, 2147483647), 2147483647)), 0)) "
+            + "from Tache t join t.projet p where p.id = :projetId")
+    Empreinte empreinteByProjetId(@Param("projetId") Long projetId);
+
+    // Page keyset : tâches du projet d'ID inférieur au curseur, de la plus récente à la plus ancienne
+    @Query(SELECT_VIEW + "where p.id = :projetId and t.id < :avantId order by t.id desc")
+    List<TacheView> findPageViewsByProjetId(@Param("projetId") Long projetId,
+                                            @Param("avantId") Long avantId, Pageable limite);
+
+    // Synchronisation : tâches des projets de l'utilisateur écrites dans l'intervalle ]depuis, jusqua]
+    @Query(SELECT_VIEW + "where p.utilisateur.id = :utilisateurId and t.modifieLe > :depuis and t.modifieLe <= :jusqua "
+            + "order by t.modifieLe")
+    List<TacheView> findViewsModifiees(@Param("utilisateurId") Long utilisateurId,
+                                       @Param("depuis") Instant depuis, @Param("jusqua") Instant jusqua);
+
+    // Tâche avec son projet chargé dans la même requête (pour construire une TacheView après écriture)
+    @Query("select t from Tache t join fetch t.projet where t.id = :id")
+    Optional<Tache> findWithProjetById(@Param("id") Long id);
 
     // Compte les tâches par statut pour les projets créés par un utilisateur donné.
-    long countByProjetUtilisateurIdAndStatus(Long utilisateurId, String status);
-}
\ No newline at end of file
+    long countByProjetUtilisateurIdAndStatus(Long utilisateurId, StatutTache status);
+
+    // Tâches non terminées d'un utilisateur. Le statut est écrit en littéral (code 2) : la condition est celle
+    // de l'index partiel idx_tache_ouvertes, que PostgreSQL ne peut choisir qu'en la retrouvant dans la requête
+    @Query(SELECT_VIEW + "where p.utilisateur.id = :utilisateurId "
+            + "and t.status <> tsirionantsoa.demo.model.StatutTache.TERMINE order by t.echeance asc nulls last, t.id")
+    List<TacheView> findOuvertesByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+
+    // Agrégat du tableau de bord : nombre de tâches par (statut, priorité, échéance) pour un utilisateur
+    @Query("select new tsirionantsoa.demo.dto.CompteurTache(t.status, t.priorite, t.echeance, count(t)) "
+            + "from Tache t where t.projet.utilisateur.id = :utilisateurId group by t.status, t.priorite, t.echeance")
+    List<CompteurTache> compterParUtilisateur(@Param("utilisateurId") Long utilisateurId);
+
+    // Propriétaires distincts des tâches données
+    @Query("select distinct t.projet.utilisateur.id from Tache t where t.id in :ids")
+    List<Long> findUtilisateurIdsByTacheIds(@Param("ids") Collection<Long> ids);
+
+    // Parmi les IDs donnés, ne garde que les tâches des projets de l'utilisateur, avec leur projet (une seule requête)
+    @Query("select new tsirionantsoa.demo.dto.TacheProjet(t.id, t.projet.id) from Tache t "
+            + "where t.id in :ids and t.projet.utilisateur.id = :utilisateurId")
+    List<TacheProjet> findTacheProjetsByUtilisateur(@Param("ids") Collection<Long> ids,
+                                                    @Param("utilisateurId") Long utilisateurId);
+}
@@ -0,0 +1,26 @@
+package tsirionantsoa.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tsirionantsoa.demo.dto.TimeEntryView;
+import tsirionantsoa.demo.model.TimeEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TimeEntryRepository extends JpaRepository<TimeEntry, Long> {
+
+    // Entrées d'un utilisateur sur une période, sans jointure sur tache/utilisateur
+    @Query("select new tsirionantsoa.demo.dto.TimeEntryView(e.id, e.tache.id, e.utilisateur.id, e.debut, e.fin, e.dureeSecondes, e.description) "
+            + "from TimeEntry e where e.utilisateur.id = :utilisateurId and e.debut >= :debut and e.debut < :fin order by e.debut")
+    List<TimeEntryView> findViewsByUtilisateur(@Param("utilisateurId") Long utilisateurId,
+                                               @Param("debut") LocalDateTime debut,
+                                               @Param("fin") LocalDateTime fin);
+
+    // Entrées d'une tâche, seulement si elle est dans un projet de l'utilisateur
+    @Query("select new tsirionantsoa.demo.dto.TimeEntryView(e.id, e.tache.id, e.utilisateur.id, e.debut, e.fin, e.dureeSecondes, e.description) "
+            + "from TimeEntry e where e.tache.id = :tacheId and e.tache.projet.utilisateur.id = :utilisateurId order by e.debut")
+    List<TimeEntryView> findViewsByTacheAndUtilisateur(@Param("tacheId") Long tacheId,
+                                                       @Param("utilisateurId") Long utilisateurId);
+}
@@ -0,0 +1,42 @@
+package tsirionantsoa.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import tsirionantsoa.demo.dto.RapportLigne;
+import tsirionantsoa.demo.model.Granularite;
+import tsirionantsoa.demo.model.TimeRollup;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Lectures des cumuls : une ligne lue par (période, tâche), jamais par entrée de temps
+public interface TimeRollupRepository extends JpaRepository<TimeRollup, Long> {
+
+    String PERIODES = "from TimeRollup r where r.utilisateurId = :utilisateurId and r.granularite = :granularite "
+            + "and r.debutPeriode >= :debut and r.debutPeriode <= :fin ";
+
+    // Total de l'utilisateur par période
+    @Query("select new tsirionantsoa.demo.dto.RapportLigne(r.debutPeriode, cast(null as Long), cast(null as Long), "
+            + "sum(r.totalSecondes), sum(r.nbEntrees)) " + PERIODES
+            + "group by r.debutPeriode order by r.debutPeriode")
+    List<RapportLigne> totalParPeriode(@Param("utilisateurId") Long utilisateurId,
+                                       @Param("granularite") Granularite granularite,
+                                       @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    // Total par période et par projet
+    @Query("select new tsirionantsoa.demo.dto.RapportLigne(r.debutPeriode, r.projetId, cast(null as Long), "
+            + "sum(r.totalSecondes), sum(r.nbEntrees)) " + PERIODES
+            + "group by r.debutPeriode, r.projetId order by r.debutPeriode, r.projetId")
+    List<RapportLigne> totalParProjet(@Param("utilisateurId") Long utilisateurId,
+                                      @Param("granularite") Granularite granularite,
+                                      @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    // Détail par période et par tâche (les lignes de cumul telles quelles)
+    @Query("select new tsirionantsoa.demo.dto.RapportLigne(r.debutPeriode, r.projetId, r.tacheId, "
+            + "r.totalSecondes, r.nbEntrees) " + PERIODES
+            + "order by r.debutPeriode, r.projetId, r.tacheId")
+    List<RapportLigne> totalParTache(@Param("utilisateurId") Long utilisateurId,
+                                     @Param("granularite") Granularite granularite,
+                                     @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+}
@@ -1,11 +1,30 @@
 package tsirionantsoa.demo.repository;
 
+import tsirionantsoa.demo.dto.Empreinte;
 import tsirionantsoa.demo.model.Utilisateur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
     
     // ⭐ AJOUT : Permet de trouver un utilisateur par son email pour la vérification
     Optional<Utilisateur> findByEmail(String email);
+
+    // Comptes portant cet email, y compris un compte masqué en attente de purge : @SQLRestriction l'exclut
+    // de findByEmail, mais il occupe toujours uk_utilisateur_email
+    @Query(value = "SELECT count(*) FROM utilisateur WHERE email = :email", nativeQuery = true)
+    long countByEmailSupprimesCompris(@Param("email") String email);
+
+    // Version seule, pour l'ETag du détail (If-None-Match) sans lire l'utilisateur
+    @Query("select u.version from Utilisateur u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Empreinte de la liste des utilisateurs, pour son ETag (hachage : voir Empreinte.hachage)
+    @Query("select new tsirionantsoa.demo.dto.Empreinte(count(u), coalesce(sum(u.version), 0), "
+            + "coalesce(sum(mod(mod(mod(u.id, 2147483647) * 1588635695 + u.version, 2147483647)"
+            + " * mod(mod(u.id, 2147483647) * 1588635695 + u.version, 2147483647), 2147483647)), 0)) "
+            + "from Utilisateur u")
+    Empreinte empreinte();
 }
\ No newline at end of file
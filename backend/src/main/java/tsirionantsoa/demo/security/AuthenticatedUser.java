@@ -0,0 +1,9 @@
+package tsirionantsoa.demo.security;
+
+// Utilisateur authentifié par jeton, exposé aux contrôleurs via @AuthenticationPrincipal
+public record AuthenticatedUser(Long id, String role) {
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -0,0 +1,56 @@
+package tsirionantsoa.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tsirionantsoa.demo.cache.CacheInvalidationBus;
+import tsirionantsoa.demo.cache.Invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Un jeton bien signé ne suffit pas : le compte doit exister et ne pas être masqué en attente de purge
+// (voir PurgeService), sinon ses écritures bloqueraient la suppression finale. Vérifié quand un jeton entre
+// dans le cache du filtre ; une suppression retire aussitôt les jetons du compte de ce cache, sur cette
+// instance puis sur les autres par le bus d'invalidation.
+@Component
+public class ComptesActifs {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationBus bus;
+
+    private final List<Consumer<Long>> abonnes = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void init() {
+        bus.subscribe(invalidation -> {
+            if (invalidation.type() == Invalidation.Type.JETONS_UTILISATEUR) {
+                prevenir(invalidation.id());
+            }
+        });
+    }
+
+    public boolean estActif(Long utilisateurId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM utilisateur WHERE id = ? AND NOT supprime",
+                Long.class, utilisateurId) > 0;
+    }
+
+    // Appelé après le commit du masquage du compte
+    public void revoquer(Long utilisateurId) {
+        prevenir(utilisateurId);
+        bus.publish(new Invalidation(Invalidation.Type.JETONS_UTILISATEUR, utilisateurId));
+    }
+
+    public void surRevocation(Consumer<Long> abonne) {
+        abonnes.add(abonne);
+    }
+
+    private void prevenir(Long utilisateurId) {
+        abonnes.forEach(abonne -> abonne.accept(utilisateurId));
+    }
+}
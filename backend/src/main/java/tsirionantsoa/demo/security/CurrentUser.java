@@ -0,0 +1,24 @@
+package tsirionantsoa.demo.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Résout l'utilisateur d'une requête : le jeton fait foi, le paramètre userId reste accepté sans jeton.
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    public static Long resolve(AuthenticatedUser principal, Long userId) {
+        if (principal == null) {
+            if (userId == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentification requise");
+            }
+            return userId;
+        }
+        if (userId != null && !userId.equals(principal.id()) && !principal.isAdmin()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès refusé pour l'utilisateur " + userId);
+        }
+        return userId != null ? userId : principal.id();
+    }
+}
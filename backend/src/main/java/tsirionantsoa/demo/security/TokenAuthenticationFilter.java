@@ -0,0 +1,60 @@
+package tsirionantsoa.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tsirionantsoa.demo.cache.EntityCache;
+
+import java.io.IOException;
+import java.util.List;
+
+// Authentifie les requêtes portant "Authorization: Bearer <jeton>".
+// Les jetons déjà vérifiés sont gardés dans un petit cache pour éviter de recalculer le HMAC ; la base n'est lue
+// qu'à l'entrée d'un jeton dans le cache, pour refuser les comptes supprimés (voir ComptesActifs).
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXE = "Bearer ";
+
+    private final TokenService tokenService;
+    private final ComptesActifs comptes;
+    private final EntityCache<String, TokenService.JetonVerifie> verifies;
+
+    public TokenAuthenticationFilter(TokenService tokenService, ComptesActifs comptes, int tailleCache,
+                                     long ttlCacheMs) {
+        this.tokenService = tokenService;
+        this.comptes = comptes;
+        this.verifies = new EntityCache<>("jetons", tailleCache, ttlCacheMs);
+        comptes.surRevocation(id -> verifies.invalidateIf(verifie -> id.equals(verifie.utilisateur().id())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String entete = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (entete == null || !entete.startsWith(PREFIXE)) {
+            // Pas de jeton : la requête continue en anonyme (les endpoints acceptent encore userId)
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String jeton = entete.substring(PREFIXE.length()).trim();
+        TokenService.JetonVerifie verifie = verifies.get(jeton, j -> tokenService.verifier(j)
+                .filter(v -> comptes.estActif(v.utilisateur().id())).orElse(null));
+        if (verifie == null || verifie.estExpire()) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Jeton invalide ou expiré");
+            return;
+        }
+
+        AuthenticatedUser utilisateur = verifie.utilisateur();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                utilisateur, null, List.of(new SimpleGrantedAuthority("ROLE_" + utilisateur.role())));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,104 @@
+package tsirionantsoa.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tsirionantsoa.demo.model.Utilisateur;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+// Jetons d'accès signés HMAC-SHA256, vérifiables sans accès à la base.
+// Format : base64url("v1|id|role|expiration") + "." + base64url(signature)
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHME = "HmacSHA256";
+    private static final String VERSION = "v1";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Même secret sur toutes les instances pour qu'un jeton soit accepté partout
+    @Value("${app.auth.token-secret:}")
+    private String secret;
+
+    @Value("${app.auth.token-ttl-minutes:720}")
+    private long ttlMinutes;
+
+    private SecretKeySpec cle;
+
+    @PostConstruct
+    void init() {
+        byte[] octets;
+        if (secret == null || secret.isBlank()) {
+            // Secret aléatoire : les jetons ne survivent pas à un redémarrage (acceptable en développement)
+            log.warn("app.auth.token-secret non défini : secret aléatoire généré pour cette instance");
+            octets = new byte[32];
+            new SecureRandom().nextBytes(octets);
+        } else {
+            octets = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        cle = new SecretKeySpec(octets, ALGORITHME);
+    }
+
+    // Émettre un jeton pour un utilisateur connecté
+    public String emettre(Utilisateur utilisateur) {
+        long expiration = Instant.now().plusSeconds(ttlMinutes * 60).getEpochSecond();
+        String contenu = VERSION + "|" + utilisateur.getId() + "|" + utilisateur.getRole() + "|" + expiration;
+        byte[] octets = contenu.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(octets) + "." + ENCODER.encodeToString(signer(octets));
+    }
+
+    // Vérifier un jeton : signature puis expiration. Vide si le jeton est invalide ou expiré.
+    public Optional<JetonVerifie> verifier(String jeton) {
+        try {
+            int point = jeton.indexOf('.');
+            if (point < 0) {
+                return Optional.empty();
+            }
+            byte[] octets = DECODER.decode(jeton.substring(0, point));
+            byte[] signature = DECODER.decode(jeton.substring(point + 1));
+            if (!MessageDigest.isEqual(signer(octets), signature)) {
+                return Optional.empty();
+            }
+            String[] champs = new String(octets, StandardCharsets.UTF_8).split("\\|");
+            if (champs.length != 4 || !VERSION.equals(champs[0])) {
+                return Optional.empty();
+            }
+            JetonVerifie verifie = new JetonVerifie(
+                    new AuthenticatedUser(Long.valueOf(champs[1]), champs[2]), Long.parseLong(champs[3]));
+            return verifie.estExpire() ? Optional.empty() : Optional.of(verifie);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] signer(byte[] octets) {
+        try {
+            // Mac n'est pas thread-safe : une instance par appel (coût négligeable, et le filtre met en cache)
+            Mac mac = Mac.getInstance(ALGORITHME);
+            mac.init(cle);
+            return mac.doFinal(octets);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponible", e);
+        }
+    }
+
+    public record JetonVerifie(AuthenticatedUser utilisateur, long expiration) {
+
+        public boolean estExpire() {
+            return Instant.now().getEpochSecond() >= expiration;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package tsirionantsoa.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tsirionantsoa.demo.dto.ChangementView;
+import tsirionantsoa.demo.event.ProjetEvent;
+import tsirionantsoa.demo.event.ProjetsEnMasseEvent;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Flux SSE des changements de projets et tâches d'un utilisateur, alimenté après commit par les événements
+// de ProjetService et TacheService. Chaque abonné a sa file bornée et son thread virtuel d'envoi :
+// un écrivain ne fait que déposer dans les files (jamais bloquant) et un client lent ne freine que lui-même.
+// File pleine : les changements en attente sont remplacés par un unique "resync" (le client recharge tout).
+// Les abonnés sont locaux à l'instance : un changement fait sur une autre instance n'est pas poussé.
+@Service
+public class ChangementService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangementService.class);
+
+    // Marque de resynchronisation dans une file d'abonné
+    private static final Object RESYNC = new Object();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Changements en attente par abonné avant resynchronisation forcée
+    @Value("${app.changes.tampon:256}")
+    private int tampon;
+
+    // Durée de vie d'un abonnement (EventSource se reconnecte seul)
+    @Value("${app.changes.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Commentaire SSE envoyé sans activité : garde la connexion ouverte et détecte les clients partis
+    @Value("${app.changes.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    private final Map<Long, Set<Abonne>> abonnes = new ConcurrentHashMap<>();
+    private final AtomicInteger nbAbonnes = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private Counter resyncs;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("app.changes.abonnes", nbAbonnes);
+        resyncs = meterRegistry.counter("app.changes.resync");
+    }
+
+    // Nouvel abonnement : le premier événement ("connecte") indique au client de charger ses données,
+    // puis d'appliquer les changements suivants
+    public SseEmitter abonner(Long utilisateurId) {
+        return abonner(utilisateurId, new SseEmitter(timeoutMs));
+    }
+
+    // Émetteur fourni par l'appelant : les tests y observent les envois
+    SseEmitter abonner(Long utilisateurId, SseEmitter emitter) {
+        Abonne abonne = new Abonne(utilisateurId, emitter, new ArrayBlockingQueue<>(tampon));
+        abonnes.computeIfAbsent(utilisateurId, k -> ConcurrentHashMap.newKeySet()).add(abonne);
+        nbAbonnes.incrementAndGet();
+        emitter.onCompletion(abonne::fermer);
+        emitter.onTimeout(abonne::fermer);
+        emitter.onError(e -> abonne.fermer());
+        abonne.thread = Thread.ofVirtual().name("sse-" + utilisateurId).start(abonne::envoyer);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjetEvent(ProjetEvent event) {
+        publier(event.utilisateurId(), new ChangementView("projet", event.type(), event.projetId(), event.apres()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        publier(event.utilisateurId(), new ChangementView("tache", event.type(), event.tacheId(), event.apres()));
+    }
+
+    // Opérations groupées : pas de détail, les abonnés rechargent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        event.utilisateurIds().forEach(this::resynchroniser);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjetsEnMasse(ProjetsEnMasseEvent event) {
+        event.utilisateurIds().forEach(this::resynchroniser);
+    }
+
+    private void publier(Long utilisateurId, ChangementView changement) {
+        Set<Abonne> liste = abonnes.get(utilisateurId);
+        if (liste != null) {
+            liste.forEach(a -> a.deposer(changement));
+        }
+    }
+
+    private void resynchroniser(Long utilisateurId) {
+        Set<Abonne> liste = abonnes.get(utilisateurId);
+        if (liste != null) {
+            liste.forEach(Abonne::forcerResync);
+        }
+    }
+
+    private final class Abonne {
+        private final Long utilisateurId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> file;
+        private final AtomicBoolean ferme = new AtomicBoolean();
+        private volatile Thread thread;
+
+        Abonne(Long utilisateurId, SseEmitter emitter, BlockingQueue<Object> file) {
+            this.utilisateurId = utilisateurId;
+            this.emitter = emitter;
+            this.file = file;
+        }
+
+        void deposer(ChangementView changement) {
+            if (!file.offer(changement)) {
+                forcerResync();
+            }
+        }
+
+        // Les changements en attente sont inutiles puisque le client va tout recharger
+        void forcerResync() {
+            synchronized (file) {
+                file.clear();
+                file.offer(RESYNC);
+            }
+            resyncs.increment();
+        }
+
+        void envoyer() {
+            try {
+                emitter.send(SseEmitter.event().name("connecte").reconnectTime(3000));
+                while (!ferme.get()) {
+                    Object element = file.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (element == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else if (element == RESYNC) {
+                        emitter.send(SseEmitter.event().name("resync"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("changement").id(Long.toString(sequence.incrementAndGet()))
+                                .data(element, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Abonné SSE de l'utilisateur {} déconnecté", utilisateurId);
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                fermer();
+            }
+        }
+
+        void fermer() {
+            if (!ferme.compareAndSet(false, true)) {
+                return;
+            }
+            abonnes.computeIfPresent(utilisateurId, (id, liste) -> {
+                liste.remove(this);
+                return liste.isEmpty() ? null : liste;
+            });
+            nbAbonnes.decrementAndGet();
+            Thread t = thread;
+            if (t != null && t != Thread.currentThread()) {
+                t.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package tsirionantsoa.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.ChronoView;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.event.TypeChangement;
+import tsirionantsoa.demo.repository.TacheRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Chronomètres des tâches tenus en mémoire par (utilisateur, tâche) : démarrer, mettre en pause et arrêter
+// ne touchent pas la base. Le temps écoulé est sauvegardé en lot dans active_timer à intervalle régulier
+// (une panne perd au plus cet intervalle) ; l'arrêt enregistre une entrée de temps et supprime la sauvegarde.
+// Les chronomètres vivent sur une instance : avec plusieurs instances, un utilisateur doit toujours être
+// servi par la même. Chaque ligne sauvegardée porte son instance et un bail renouvelé à chaque sauvegarde :
+// une autre instance ne la restaure ni ne la réécrit tant que le bail court.
+@Service
+public class ChronoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChronoService.class);
+
+    // Premier enregistrement d'un chronomètre. Une ligne existante n'est remplacée que si elle est déjà
+    // à cette instance ou si son bail a expiré.
+    private static final String INSERT_SQL = "INSERT INTO active_timer (id_users, id_task, debut_timer, "
+            + "cumul_secondes, en_cours, sauvegarde_timer, instance_timer, bail_timer) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (id_users, id_task) DO UPDATE SET debut_timer = EXCLUDED.debut_timer, "
+            + "cumul_secondes = EXCLUDED.cumul_secondes, en_cours = EXCLUDED.en_cours, "
+            + "sauvegarde_timer = EXCLUDED.sauvegarde_timer, instance_timer = EXCLUDED.instance_timer, "
+            + "bail_timer = EXCLUDED.bail_timer "
+            + "WHERE active_timer.instance_timer = EXCLUDED.instance_timer OR active_timer.bail_timer < ?";
+
+    // Chronomètre déjà enregistré : mis à jour seulement si sa ligne existe encore et appartient à cette instance
+    private static final String UPDATE_SQL = "UPDATE active_timer SET cumul_secondes = ?, en_cours = ?, "
+            + "sauvegarde_timer = ?, bail_timer = ? WHERE id_users = ? AND id_task = ? AND instance_timer = ?";
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Identifiant stable : après un redémarrage, l'instance reprend aussitôt ses propres chronomètres
+    @Value("${app.instance.id:}")
+    private String instanceId;
+
+    @Value("${app.chrono.bail-ms:90000}")
+    private long bailMs;
+
+    private record Cle(Long utilisateurId, Long tacheId) {
+    }
+
+    // Ligne de active_timer relue pour la restauration
+    private record Sauvegarde(Cle cle, LocalDateTime debut, long cumulSecondes, boolean enCours) {
+    }
+
+    private final Map<Cle, Chrono> chronos = new ConcurrentHashMap<>();
+
+    // La sauvegarde prend le verrou exclusif : un arrêt ne peut pas supprimer une ligne
+    // qu'une sauvegarde en cours écrirait ensuite de nouveau
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = nomHote();
+        }
+    }
+
+    // Identifiant par défaut d'une instance (voir aussi PurgeService)
+    static String nomHote() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    // Démarrer le chronomètre d'une tâche, ou le relancer s'il est en pause
+    public ChronoView demarrer(Long userId, Long tacheId) {
+        Cle cle = new Cle(userId, tacheId);
+        Chrono chrono = chronos.get(cle);
+        if (chrono == null) {
+            if (tacheRepository.findTacheProjetsByUtilisateur(List.of(tacheId), userId).isEmpty()) {
+                throw new RuntimeException("Tâche non trouvée pour l'utilisateur " + userId + " avec l'ID: " + tacheId);
+            }
+            chrono = chronos.computeIfAbsent(cle, k -> new Chrono(LocalDateTime.now(), 0));
+        }
+        long maintenant = System.nanoTime();
+        chrono.reprendre(maintenant);
+        return chrono.vue(tacheId, maintenant);
+    }
+
+    // Mettre en pause : le temps écoulé est figé jusqu'à la reprise
+    public ChronoView pause(Long userId, Long tacheId) {
+        Chrono chrono = trouver(userId, tacheId);
+        long maintenant = System.nanoTime();
+        chrono.pause(maintenant);
+        return chrono.vue(tacheId, maintenant);
+    }
+
+    // Arrêter : enregistre le temps écoulé comme entrée de temps (cumuls des rapports compris)
+    // et supprime la sauvegarde, dans la même transaction
+    public ChronoView arreter(Long userId, Long tacheId) {
+        Cle cle = new Cle(userId, tacheId);
+        Chrono chrono = trouver(userId, tacheId);
+        long maintenant = System.nanoTime();
+        if (!chrono.terminer(maintenant)) {
+            throw new RuntimeException("Chronomètre déjà arrêté pour la tâche " + tacheId);
+        }
+        ChronoView vue = chrono.vue(tacheId, maintenant);
+        verrou.readLock().lock();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (vue.ecouleSecondes() > 0) {
+                    TimeEntryDTO entry = new TimeEntryDTO();
+                    entry.setTacheId(tacheId);
+                    entry.setDebut(vue.debut());
+                    entry.setFin(LocalDateTime.now());
+                    entry.setDureeSecondes(vue.ecouleSecondes());
+                    timeEntryService.ingest(List.of(entry), userId);
+                }
+                supprimerSauvegarde(userId, tacheId);
+            });
+        } catch (RuntimeException e) {
+            chrono.annulerFin();
+            throw e;
+        } finally {
+            verrou.readLock().unlock();
+        }
+        chronos.remove(cle, chrono);
+        return vue;
+    }
+
+    // Abandonner un chronomètre sans rien enregistrer (tâche supprimée, démarrage par erreur...)
+    public void abandonner(Long userId, Long tacheId) {
+        Chrono chrono = trouver(userId, tacheId);
+        if (!chrono.terminer(System.nanoTime())) {
+            return;
+        }
+        verrou.readLock().lock();
+        try {
+            supprimerSauvegarde(userId, tacheId);
+        } finally {
+            verrou.readLock().unlock();
+        }
+        chronos.remove(new Cle(userId, tacheId), chrono);
+    }
+
+    // Tâche supprimée (voir TacheService) : son chronomètre ne s'arrête qu'une fois la suppression validée.
+    // Si elle est annulée, le chronomètre continue et sa ligne de active_timer reste à cette instance.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        if (event.type() == TypeChangement.SUPPRESSION) {
+            oublierTaches(Set.of(event.tacheId()));
+        }
+    }
+
+    // Lot (suppression en lot, tranche de purge...) : l'événement ne précise pas l'opération, seules les tâches
+    // qui ont un chronomètre ici et n'existent plus en base sont oubliées
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        Set<Long> suivies = new HashSet<>();
+        chronos.keySet().forEach(cle -> {
+            if (event.tacheIds().contains(cle.tacheId())) {
+                suivies.add(cle.tacheId());
+            }
+        });
+        if (suivies.isEmpty()) {
+            return;
+        }
+        String liste = String.join(", ", Collections.nCopies(suivies.size(), "?"));
+        suivies.removeAll(jdbcTemplate.queryForList("SELECT id_task FROM tache WHERE id_task IN (" + liste + ")",
+                Long.class, suivies.toArray()));
+        if (!suivies.isEmpty()) {
+            oublierTaches(suivies);
+        }
+    }
+
+    // Chronomètres de tâches supprimées : arrêtés sans entrée de temps. Une sauvegarde passée entre la validation
+    // de la suppression et cet appel a pu réécrire leur ligne : elle est effacée sous le même verrou.
+    private void oublierTaches(Set<Long> tacheIds) {
+        String liste = String.join(", ", Collections.nCopies(tacheIds.size(), "?"));
+        oublier(cle -> tacheIds.contains(cle.tacheId()), () -> jdbcTemplate.update(
+                "DELETE FROM active_timer WHERE id_task IN (" + liste + ")", tacheIds.toArray()));
+    }
+
+    // Compte purgé (voir PurgeService) : ses lignes de active_timer sont effacées par la purge
+    public void oublierUtilisateur(Long userId) {
+        oublier(cle -> cle.utilisateurId().equals(userId), () -> {
+        });
+    }
+
+    // Verrou exclusif : aucune sauvegarde en cours ne peut réécrire un chronomètre oublié
+    private void oublier(Predicate<Cle> cible, Runnable nettoyage) {
+        verrou.writeLock().lock();
+        try {
+            long maintenant = System.nanoTime();
+            chronos.entrySet().removeIf(e -> cible.test(e.getKey()) && e.getValue().terminer(maintenant));
+            nettoyage.run();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Chronomètres d'un utilisateur, du plus ancien au plus récent
+    public List<ChronoView> chronosUtilisateur(Long userId) {
+        long maintenant = System.nanoTime();
+        List<ChronoView> vues = new ArrayList<>();
+        chronos.forEach((cle, chrono) -> {
+            if (cle.utilisateurId().equals(userId)) {
+                vues.add(chrono.vue(cle.tacheId(), maintenant));
+            }
+        });
+        vues.sort(Comparator.comparing(ChronoView::debut));
+        return vues;
+    }
+
+    private Chrono trouver(Long userId, Long tacheId) {
+        Chrono chrono = chronos.get(new Cle(userId, tacheId));
+        if (chrono == null) {
+            throw new RuntimeException("Aucun chronomètre pour la tâche " + tacheId);
+        }
+        return chrono;
+    }
+
+    private void supprimerSauvegarde(Long userId, Long tacheId) {
+        jdbcTemplate.update("DELETE FROM active_timer WHERE id_users = ? AND id_task = ?", userId, tacheId);
+    }
+
+    // Sauvegarde périodique : renouvelle le bail de l'instance, écrit les chronomètres en marche ou modifiés
+    // depuis la dernière fois, puis reprend ceux des instances dont le bail a expiré
+    @Scheduled(fixedDelayString = "${app.chrono.sauvegarde-ms:30000}", initialDelayString = "${app.chrono.sauvegarde-ms:30000}")
+    public void sauvegarder() {
+        verrou.writeLock().lock();
+        try {
+            long maintenant = System.nanoTime();
+            Instant instant = Instant.now();
+            Timestamp horloge = Timestamp.from(instant);
+            Timestamp bail = Timestamp.from(instant.plusMillis(bailMs));
+            Timestamp horodatage = Timestamp.valueOf(LocalDateTime.now());
+            List<Map.Entry<Cle, Chrono>> existants = new ArrayList<>();
+            List<Object[]> lignesExistants = new ArrayList<>();
+            List<Chrono> nouveaux = new ArrayList<>();
+            List<Object[]> lignesNouveaux = new ArrayList<>();
+            chronos.forEach((cle, chrono) -> {
+                ChronoView vue = chrono.aSauvegarder(cle.tacheId(), maintenant);
+                if (vue == null) {
+                    return;
+                }
+                if (chrono.estEnregistre()) {
+                    existants.add(Map.entry(cle, chrono));
+                    lignesExistants.add(new Object[]{vue.ecouleSecondes(), vue.enCours(), horodatage, bail,
+                            cle.utilisateurId(), cle.tacheId(), instanceId});
+                } else {
+                    nouveaux.add(chrono);
+                    lignesNouveaux.add(new Object[]{cle.utilisateurId(), cle.tacheId(), Timestamp.valueOf(vue.debut()),
+                            vue.ecouleSecondes(), vue.enCours(), horodatage, instanceId, bail, horloge});
+                }
+            });
+            List<Map.Entry<Cle, Chrono>> perimes = new ArrayList<>();
+            List<Chrono> enregistres = new ArrayList<>();
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.update("UPDATE active_timer SET bail_timer = ? WHERE instance_timer = ?",
+                            bail, instanceId);
+                    if (!lignesExistants.isEmpty()) {
+                        int[] misAJour = jdbcTemplate.batchUpdate(UPDATE_SQL, lignesExistants);
+                        for (int i = 0; i < misAJour.length; i++) {
+                            if (misAJour[i] == 0) {
+                                perimes.add(existants.get(i));
+                            }
+                        }
+                    }
+                    for (int i = 0; i < nouveaux.size(); i++) {
+                        if (jdbcTemplate.update(INSERT_SQL, lignesNouveaux.get(i)) > 0) {
+                            enregistres.add(nouveaux.get(i));
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                existants.forEach(entree -> entree.getValue().marquerModifie());
+                nouveaux.forEach(Chrono::marquerModifie);
+                log.warn("Sauvegarde des chronomètres échouée, nouvel essai au prochain passage", e);
+                return;
+            }
+            enregistres.forEach(Chrono::marquerEnregistre);
+            // Ligne tenue par une autre instance encore sous bail : nouvel essai au prochain passage
+            nouveaux.stream().filter(chrono -> !enregistres.contains(chrono)).forEach(Chrono::marquerModifie);
+            // Ligne supprimée (chronomètre arrêté, tâche supprimée) ou reprise par une autre instance :
+            // cette copie est périmée et ne doit plus être écrite
+            perimes.forEach(entree -> {
+                if (entree.getValue().terminer(maintenant)) {
+                    chronos.remove(entree.getKey(), entree.getValue());
+                }
+            });
+            if (!perimes.isEmpty()) {
+                log.info("{} chronomètres périmés abandonnés", perimes.size());
+            }
+            log.debug("{} chronomètres sauvegardés", lignesExistants.size() - perimes.size() + enregistres.size());
+            reprendre(false, horloge, bail);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Arrêt propre de l'application : rien n'est perdu
+    @PreDestroy
+    public void sauvegarderAvantArret() {
+        sauvegarder();
+    }
+
+    // Au démarrage, reprise des chronomètres de cette instance et de ceux dont le bail a expiré. Un chronomètre
+    // en marche repart du temps sauvegardé : le temps écoulé entre la dernière sauvegarde et le redémarrage
+    // n'est pas compté.
+    @EventListener(ApplicationReadyEvent.class)
+    public void restaurer() {
+        verrou.writeLock().lock();
+        try {
+            Instant instant = Instant.now();
+            int restaures = reprendre(true, Timestamp.from(instant), Timestamp.from(instant.plusMillis(bailMs)));
+            if (restaures > 0) {
+                log.info("{} chronomètres restaurés", restaures);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Prend les lignes libres (bail expiré) et, au démarrage, celles de cette instance, puis charge en mémoire
+    // celles qui n'y sont pas encore. Appelé sous le verrou exclusif.
+    private int reprendre(boolean demarrage, Timestamp horloge, Timestamp bail) {
+        List<Sauvegarde> lignes = new TransactionTemplate(transactionManager).execute(status -> {
+            int prises = demarrage
+                    ? jdbcTemplate.update("UPDATE active_timer SET instance_timer = ?, bail_timer = ? "
+                            + "WHERE instance_timer = ? OR bail_timer < ?", instanceId, bail, instanceId, horloge)
+                    : jdbcTemplate.update("UPDATE active_timer SET instance_timer = ?, bail_timer = ? "
+                            + "WHERE instance_timer IS DISTINCT FROM ? AND bail_timer < ?",
+                            instanceId, bail, instanceId, horloge);
+            if (prises == 0) {
+                return List.<Sauvegarde>of();
+            }
+            return jdbcTemplate.query("SELECT id_users, id_task, debut_timer, cumul_secondes, en_cours "
+                    + "FROM active_timer WHERE instance_timer = ?", (rs, i) -> new Sauvegarde(
+                    new Cle(rs.getLong("id_users"), rs.getLong("id_task")),
+                    rs.getTimestamp("debut_timer").toLocalDateTime(), rs.getLong("cumul_secondes"),
+                    rs.getBoolean("en_cours")), instanceId);
+        });
+        long maintenant = System.nanoTime();
+        int restaures = 0;
+        for (Sauvegarde ligne : lignes) {
+            Chrono chrono = new Chrono(ligne.debut(), TimeUnit.SECONDS.toNanos(ligne.cumulSecondes()));
+            if (ligne.enCours()) {
+                chrono.reprendre(maintenant);
+            }
+            chrono.marquerSauvegarde();
+            if (chronos.putIfAbsent(ligne.cle(), chrono) == null) {
+                restaures++;
+            }
+        }
+        return restaures;
+    }
+
+    // État d'un chronomètre ; segments mesurés avec System.nanoTime (insensible aux changements d'heure)
+    private static final class Chrono {
+        private final LocalDateTime debut;
+        private long cumulNanos;
+        private long segmentDepuis = -1; // -1 : en pause
+        private boolean modifie = true;
+        private boolean termine;
+        private boolean enregistre; // une ligne de active_timer existe pour ce chronomètre
+
+        Chrono(LocalDateTime debut, long cumulNanos) {
+            this.debut = debut;
+            this.cumulNanos = cumulNanos;
+        }
+
+        synchronized void reprendre(long maintenant) {
+            if (!termine && segmentDepuis < 0) {
+                segmentDepuis = maintenant;
+                modifie = true;
+            }
+        }
+
+        synchronized void pause(long maintenant) {
+            if (segmentDepuis >= 0) {
+                cumulNanos += maintenant - segmentDepuis;
+                segmentDepuis = -1;
+                modifie = true;
+            }
+        }
+
+        // Réserve l'arrêt à un seul appelant
+        synchronized boolean terminer(long maintenant) {
+            if (termine) {
+                return false;
+            }
+            pause(maintenant);
+            termine = true;
+            return true;
+        }
+
+        synchronized void annulerFin() {
+            termine = false;
+        }
+
+        synchronized void marquerModifie() {
+            modifie = true;
+        }
+
+        // État identique à la ligne en base (restauration)
+        synchronized void marquerSauvegarde() {
+            modifie = false;
+            enregistre = true;
+        }
+
+        synchronized void marquerEnregistre() {
+            enregistre = true;
+        }
+
+        synchronized boolean estEnregistre() {
+            return enregistre;
+        }
+
+        // État à écrire, ou null si la sauvegarde en base est déjà à jour
+        synchronized ChronoView aSauvegarder(Long tacheId, long maintenant) {
+            if (termine || (!modifie && segmentDepuis < 0)) {
+                return null;
+            }
+            modifie = false;
+            return vue(tacheId, maintenant);
+        }
+
+        synchronized ChronoView vue(Long tacheId, long maintenant) {
+            long ecoule = cumulNanos + (segmentDepuis >= 0 ? maintenant - segmentDepuis : 0);
+            return new ChronoView(tacheId, debut, TimeUnit.NANOSECONDS.toSeconds(ecoule), segmentDepuis >= 0);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package tsirionantsoa.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tsirionantsoa.demo.dto.CompteurTache;
+import tsirionantsoa.demo.dto.DashboardStats;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.model.PrioriteTache;
+import tsirionantsoa.demo.model.StatutTache;
+import tsirionantsoa.demo.repository.TacheRepository;
+import tsirionantsoa.demo.repository.UtilisateurRepository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compteurs du tableau de bord tenus en mémoire par utilisateur.
+// Chargés à la première lecture (une requête GROUP BY), mis à jour à chaque TacheEvent,
+// puis recalculés périodiquement depuis la base pour corriger une éventuelle dérive.
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    // Au-delà de cette durée sans lecture, les compteurs d'un utilisateur sont libérés
+    @Value("${app.dashboard.inactivite-ms:3600000}")
+    private long inactiviteMs;
+
+    private final Map<Long, Compteurs> compteurs = new ConcurrentHashMap<>();
+
+    private final AtomicLong nbUtilisateurs = new AtomicLong(-1);
+
+    // Statistiques d'un utilisateur : O(1) en base une fois les compteurs chargés
+    public DashboardStats getStats(Long utilisateurId) {
+        Compteurs c = compteurs.computeIfAbsent(utilisateurId, this::charger);
+        if (nbUtilisateurs.get() < 0) {
+            nbUtilisateurs.compareAndSet(-1, utilisateurRepository.count());
+        }
+        return c.stats(utilisateurId, LocalDate.now(), nbUtilisateurs.get());
+    }
+
+    // Appelé à l'inscription d'un utilisateur
+    public void utilisateurAjoute() {
+        nbUtilisateurs.updateAndGet(n -> n < 0 ? n : n + 1);
+    }
+
+    // Appelé à la suppression d'un utilisateur (masqué aussitôt, purgé ensuite)
+    public void utilisateurSupprime() {
+        nbUtilisateurs.updateAndGet(n -> n < 0 ? n : n - 1);
+    }
+
+    // Après commit, pour ne jamais compter une écriture annulée
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        Compteurs c = compteurs.get(event.utilisateurId());
+        if (c == null) {
+            return; // Pas encore chargé : la prochaine lecture partira de la base
+        }
+        if (event.avant() != null) {
+            c.appliquer(event.avant(), -1);
+        }
+        if (event.apres() != null) {
+            c.appliquer(event.apres(), +1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        // Pas de détail par tâche : on oublie les compteurs, ils seront rechargés à la prochaine lecture
+        event.utilisateurIds().forEach(compteurs::remove);
+    }
+
+    // Réconciliation périodique avec la base, et libération des utilisateurs inactifs
+    @Scheduled(fixedDelayString = "${app.dashboard.reconciliation-ms:300000}",
+            initialDelayString = "${app.dashboard.reconciliation-ms:300000}")
+    public void reconcilier() {
+        long limite = System.currentTimeMillis() - inactiviteMs;
+        compteurs.entrySet().removeIf(e -> e.getValue().derniereLecture < limite);
+        for (Long utilisateurId : compteurs.keySet()) {
+            compteurs.computeIfPresent(utilisateurId, (id, ancien) -> {
+                Compteurs frais = charger(id);
+                frais.derniereLecture = ancien.derniereLecture;
+                return frais;
+            });
+        }
+        nbUtilisateurs.set(utilisateurRepository.count());
+        log.debug("Compteurs du tableau de bord réconciliés pour {} utilisateurs", compteurs.size());
+    }
+
+    private Compteurs charger(Long utilisateurId) {
+        Compteurs c = new Compteurs();
+        for (CompteurTache ligne : tacheRepository.compterParUtilisateur(utilisateurId)) {
+            c.ajouter(ligne.status(), ligne.priorite(), ligne.echeance(), ligne.nb());
+        }
+        return c;
+    }
+
+    private static final class Compteurs {
+        private long total;
+        private final Map<String, Long> parStatut = new HashMap<>();
+        private final Map<String, Long> parPriorite = new HashMap<>();
+        // Échéances des tâches ouvertes : les tranches "en retard" / "cette semaine" se lisent par sous-ensemble
+        private final TreeMap<LocalDate, Long> echeancesOuvertes = new TreeMap<>();
+        private volatile long derniereLecture = System.currentTimeMillis();
+
+        synchronized void appliquer(TacheView tache, long delta) {
+            ajouter(tache.status(), tache.priorite(), tache.echeance(), delta);
+        }
+
+        synchronized void ajouter(StatutTache status, PrioriteTache priorite, LocalDate echeance, long nb) {
+            total += nb;
+            parStatut.merge(cle(status), nb, Long::sum);
+            parPriorite.merge(cle(priorite), nb, Long::sum);
+            if (echeance != null && status.estOuverte()) {
+                echeancesOuvertes.merge(echeance, nb, Long::sum);
+                if (echeancesOuvertes.get(echeance) == 0) {
+                    echeancesOuvertes.remove(echeance);
+                }
+            }
+        }
+
+        synchronized DashboardStats stats(Long utilisateurId, LocalDate aujourdHui, long nbUtilisateurs) {
+            derniereLecture = System.currentTimeMillis();
+            return new DashboardStats(utilisateurId, total, sansZeros(parStatut), sansZeros(parPriorite),
+                    somme(echeancesOuvertes.headMap(aujourdHui, false)),
+                    echeancesOuvertes.getOrDefault(aujourdHui, 0L),
+                    somme(echeancesOuvertes.subMap(aujourdHui, true, aujourdHui.plusDays(7), false)),
+                    nbUtilisateurs);
+        }
+
+        private static String cle(Enum<?> valeur) {
+            return valeur == null ? "AUCUN" : valeur.name();
+        }
+
+        private static Map<String, Long> sansZeros(Map<String, Long> source) {
+            Map<String, Long> copie = new HashMap<>();
+            source.forEach((k, v) -> {
+                if (v != 0) {
+                    copie.put(k, v);
+                }
+            });
+            return copie;
+        }
+
+        private static long somme(Map<LocalDate, Long> tranche) {
+            long s = 0;
+            for (long v : tranche.values()) {
+                s += v;
+            }
+            return s;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package tsirionantsoa.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tsirionantsoa.demo.dto.CurseurEcheance;
+import tsirionantsoa.demo.dto.EvenementEcheance;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.model.StatutTache;
+import tsirionantsoa.demo.model.TypeEcheance;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Échéances des tâches ouvertes : un rappel quelques jours avant (app.echeances.rappel-jours), un retard le
+// lendemain de l'échéance, déclenchés en début de journée et écrits dans deadline_outbox.
+// Les déclenchements à venir sont tenus en mémoire dans une file triée par instant, chargée par fenêtres de
+// quelques jours (une requête sur l'index partiel des échéances ouvertes par jour ajouté) puis tenue à jour par
+// les événements de TacheService : la base n'est jamais balayée pour chercher les tâches en retard.
+// Chaque instance déclenche ses échéances ; la contrainte d'unicité de deadline_outbox évite les doublons.
+@Service
+public class EcheanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(EcheanceService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO deadline_outbox "
+            + "(type_evenement, id_task, id_users, echeance, declenche_le) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (id_task, type_evenement, echeance) DO NOTHING";
+
+    // Même condition que l'index partiel idx_tache_echeance_ouvertes (code 2 = TERMINE) ;
+    // les tâches des projets masqués en attente de purge ne déclenchent plus rien
+    private static final String ECHEANCES_SQL = "SELECT t.id_task, t.echeance_task, p.id_users "
+            + "FROM tache t JOIN projet p ON p.id_projet = t.id_projets "
+            + "WHERE t.status <> 2 AND t.echeance_task >= ? AND t.echeance_task < ? AND NOT p.supprime";
+
+    // Ordre des commits : les IDs d'identité sont attribués à l'insertion, un ID inférieur peut être validé après
+    // un ID supérieur déjà lu. Seules les transactions terminées (antérieures au xmin de l'instantané, voir
+    // V9__curseur_echeances.sql) sont lues : aucune ne peut plus s'insérer avant le curseur. Une longue
+    // transaction ouverte sur la base retarde la lecture, elle ne fait rien perdre.
+    private static final String EVENEMENTS_SQL = "SELECT id_evenement, xid_evenement::text AS xid, type_evenement, "
+            + "id_task, echeance, declenche_le FROM deadline_outbox "
+            + "WHERE id_users = ? AND (xid_evenement, id_evenement) > (?::xid8, ?) "
+            + "AND xid_evenement < pg_snapshot_xmin(pg_current_snapshot()) "
+            + "ORDER BY xid_evenement, id_evenement LIMIT ?";
+
+    private static final int LIMITE_MAX = 500;
+
+    private static final Comparator<Declenchement> ORDRE = Comparator.comparing(Declenchement::instant)
+            .thenComparingLong(Declenchement::tacheId).thenComparing(Declenchement::type);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // false : aucun déclenchement (contextes sans PostgreSQL)
+    @Value("${app.echeances.actif:true}")
+    private boolean actif;
+
+    @Value("${app.echeances.rappel-jours:1}")
+    private int rappelJours;
+
+    // Nombre de jours de déclenchements chargés à l'avance
+    @Value("${app.echeances.fenetre-jours:2}")
+    private int fenetreJours;
+
+    // Au démarrage, déclenchements manqués rattrapés sur ce nombre de jours (arrêt, redéploiement)
+    @Value("${app.echeances.rattrapage-jours:1}")
+    private int rattrapageJours;
+
+    // Événements par lot JDBC écrit dans deadline_outbox ; tâches relues par requête après une écriture en lot
+    @Value("${app.echeances.taille-lot:500}")
+    private int tailleLot;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private record Declenchement(Instant instant, TypeEcheance type, long tacheId, long utilisateurId,
+                                 LocalDate echeance) {
+    }
+
+    // État protégé par le moniteur de l'instance
+    private final TreeSet<Declenchement> file = new TreeSet<>(ORDRE);
+    private final Map<Long, List<Declenchement>> parTache = new HashMap<>();
+    // Jours de déclenchement chargés : avant "fin" ; "finCible" est la fin d'un chargement en cours
+    private volatile LocalDate fin;
+    private LocalDate finCible;
+    // Tâches modifiées pendant un chargement : leurs lignes lues avant la modification sont ignorées
+    private Set<Long> modifieesPendantChargement;
+
+    // Un seul chargement à la fois (fenêtre suivante ou rechargement complet)
+    private final ReentrantLock chargement = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        if (actif) {
+            recharger();
+        }
+    }
+
+    // Déclenche les échéances arrivées et charge le jour suivant quand la fenêtre se réduit
+    @Scheduled(fixedDelayString = "${app.echeances.tick-ms:1000}", initialDelayString = "${app.echeances.tick-ms:1000}")
+    public void declencher() {
+        if (!actif || fin == null) {
+            return;
+        }
+        etendre(LocalDate.now(zone).plusDays(fenetreJours));
+        Instant maintenant = Instant.now();
+        List<Declenchement> dus = new ArrayList<>();
+        synchronized (this) {
+            while (!file.isEmpty() && !file.first().instant().isAfter(maintenant)) {
+                Declenchement d = file.pollFirst();
+                retirer(d);
+                dus.add(d);
+            }
+        }
+        if (dus.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, dus, tailleLot, (ps, d) -> {
+                ps.setString(1, d.type().name());
+                ps.setLong(2, d.tacheId());
+                ps.setLong(3, d.utilisateurId());
+                ps.setDate(4, Date.valueOf(d.echeance()));
+                ps.setTimestamp(5, Timestamp.from(d.instant()));
+            });
+            log.debug("{} échéances déclenchées", dus.size());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                dus.forEach(this::ajouter);
+            }
+            log.warn("Écriture des échéances échouée, nouvel essai au prochain passage", e);
+        }
+    }
+
+    // Événements d'échéance d'un utilisateur après le curseur, dans l'ordre des commits
+    public List<EvenementEcheance> evenements(Long userId, String apres, Integer limite) {
+        int taille = limite == null ? 100 : limite;
+        if (taille < 1 || taille > LIMITE_MAX) {
+            throw new RuntimeException("La limite doit être comprise entre 1 et " + LIMITE_MAX);
+        }
+        CurseurEcheance curseur = CurseurEcheance.decode(apres);
+        return jdbcTemplate.query(EVENEMENTS_SQL, (rs, i) -> {
+            long id = rs.getLong("id_evenement");
+            return new EvenementEcheance(id, TypeEcheance.valueOf(rs.getString("type_evenement")),
+                    rs.getLong("id_task"), rs.getDate("echeance").toLocalDate(),
+                    rs.getTimestamp("declenche_le").toInstant(),
+                    new CurseurEcheance(Long.parseLong(rs.getString("xid")), id).encode());
+        }, userId, Long.toString(curseur.transaction()), curseur.id(), taille);
+    }
+
+    // Nombre de déclenchements en attente dans la file
+    public synchronized int enAttente() {
+        return file.size();
+    }
+
+    // Après commit : seules l'échéance et le statut comptent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        if (!actif) {
+            return;
+        }
+        TacheView avant = event.avant();
+        TacheView apres = event.apres();
+        if (avant != null && apres != null && Objects.equals(avant.echeance(), apres.echeance())
+                && avant.status() == apres.status()) {
+            return;
+        }
+        synchronized (this) {
+            if (fin == null) {
+                return;
+            }
+            remplacer(event.tacheId());
+            if (apres != null) {
+                planifier(apres.id(), event.utilisateurId(), apres.echeance(), apres.status());
+            }
+        }
+    }
+
+    // Lots : les tâches citées sont relues ; sans liste (import), rechargement complet de la fenêtre
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        if (!actif || fin == null) {
+            return;
+        }
+        if (event.tacheIds().isEmpty()) {
+            recharger();
+            return;
+        }
+        List<Long> ids = new ArrayList<>(event.tacheIds());
+        for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+            List<Long> tranche = ids.subList(debut, Math.min(debut + tailleLot, ids.size()));
+            Map<Long, Object[]> ouvertes = new HashMap<>();
+            jdbcTemplate.query("SELECT t.id_task, t.echeance_task, p.id_users FROM tache t "
+                    + "JOIN projet p ON p.id_projet = t.id_projets WHERE t.status <> 2 AND t.echeance_task IS NOT NULL "
+                    + "AND NOT p.supprime AND t.id_task IN (" + String.join(", ", Collections.nCopies(tranche.size(), "?")) + ")", rs -> {
+                        ouvertes.put(rs.getLong("id_task"),
+                                new Object[]{rs.getDate("echeance_task").toLocalDate(), rs.getLong("id_users")});
+                    }, tranche.toArray());
+            synchronized (this) {
+                for (Long id : tranche) {
+                    remplacer(id);
+                    Object[] ligne = ouvertes.get(id);
+                    if (ligne != null) {
+                        planifier(id, (Long) ligne[1], (LocalDate) ligne[0], StatutTache.EN_ATTENTE);
+                    }
+                }
+            }
+        }
+    }
+
+    // Vide la file et recharge la fenêtre complète (rattrapage compris)
+    public void recharger() {
+        chargement.lock();
+        try {
+            synchronized (this) {
+                file.clear();
+                parTache.clear();
+                fin = LocalDate.now(zone).minusDays(rattrapageJours);
+                finCible = fin;
+            }
+            etendre(LocalDate.now(zone).plusDays(fenetreJours));
+        } finally {
+            chargement.unlock();
+        }
+        log.info("Échéances chargées jusqu'au {} : {} déclenchements en attente", fin, enAttente());
+    }
+
+    // Charge les déclenchements des jours [fin, jusqua) : une requête par type sur l'index des échéances ouvertes
+    private void etendre(LocalDate jusqua) {
+        chargement.lock();
+        try {
+            LocalDate de;
+            synchronized (this) {
+                if (!jusqua.isAfter(fin)) {
+                    return;
+                }
+                de = fin;
+                finCible = jusqua;
+                modifieesPendantChargement = new HashSet<>();
+            }
+            List<Declenchement> charges = new ArrayList<>();
+            try {
+                for (TypeEcheance type : TypeEcheance.values()) {
+                    jdbcTemplate.query(ECHEANCES_SQL, rs -> {
+                        LocalDate echeance = rs.getDate("echeance_task").toLocalDate();
+                        charges.add(new Declenchement(instant(jour(type, echeance)), type, rs.getLong("id_task"),
+                                rs.getLong("id_users"), echeance));
+                    }, Date.valueOf(echeance(type, de)), Date.valueOf(echeance(type, jusqua)));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    finCible = fin;
+                    modifieesPendantChargement = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (Declenchement d : charges) {
+                    if (!modifieesPendantChargement.contains(d.tacheId())) {
+                        ajouter(d);
+                    }
+                }
+                modifieesPendantChargement = null;
+                fin = jusqua;
+            }
+        } finally {
+            chargement.unlock();
+        }
+    }
+
+    // Appelé sous le moniteur
+    private void remplacer(Long tacheId) {
+        if (modifieesPendantChargement != null) {
+            modifieesPendantChargement.add(tacheId);
+        }
+        List<Declenchement> anciens = parTache.remove(tacheId);
+        if (anciens != null) {
+            anciens.forEach(file::remove);
+        }
+    }
+
+    // Appelé sous le moniteur : seuls les jours déjà chargés (ou en cours de chargement) sont planifiés,
+    // les suivants viendront avec leur fenêtre
+    private void planifier(long tacheId, long utilisateurId, LocalDate echeance, StatutTache statut) {
+        if (echeance == null || !statut.estOuverte()) {
+            return;
+        }
+        LocalDate depuis = LocalDate.now(zone).minusDays(rattrapageJours);
+        for (TypeEcheance type : TypeEcheance.values()) {
+            LocalDate jour = jour(type, echeance);
+            if (!jour.isBefore(depuis) && jour.isBefore(finCible)) {
+                ajouter(new Declenchement(instant(jour), type, tacheId, utilisateurId, echeance));
+            }
+        }
+    }
+
+    // Appelé sous le moniteur ; un rappel n'a plus de sens une fois l'échéance passée
+    private void ajouter(Declenchement d) {
+        if (d.type() == TypeEcheance.RAPPEL && d.echeance().isBefore(LocalDate.now(zone))) {
+            return;
+        }
+        if (file.add(d)) {
+            parTache.computeIfAbsent(d.tacheId(), k -> new ArrayList<>(2)).add(d);
+        }
+    }
+
+    // Appelé sous le moniteur
+    private void retirer(Declenchement d) {
+        List<Declenchement> liste = parTache.get(d.tacheId());
+        if (liste != null && liste.remove(d) && liste.isEmpty()) {
+            parTache.remove(d.tacheId());
+        }
+    }
+
+    // Jour de déclenchement d'une échéance, et inversement échéance déclenchée un jour donné
+    private LocalDate jour(TypeEcheance type, LocalDate echeance) {
+        return type == TypeEcheance.RAPPEL ? echeance.minusDays(rappelJours) : echeance.plusDays(1);
+    }
+
+    private LocalDate echeance(TypeEcheance type, LocalDate jour) {
+        return type == TypeEcheance.RAPPEL ? jour.plusDays(rappelJours) : jour.minusDays(1);
+    }
+
+    private Instant instant(LocalDate jour) {
+        return jour.atStartOfDay(zone).toInstant();
+    }
+}
@@ -0,0 +1,150 @@
+package tsirionantsoa.demo.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.ExportLigne;
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.repository.ProjetRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+public class ExportService {
+
+    private static final String ENTETE_CSV = "projet_id,projet_nom,projet_description,projet_date_debut,projet_date_fin,"
+            + "projet_date_creation,tache_id,tache_titre,tache_priorite,tache_echeance,tache_status,"
+            + "tache_date_creation,tache_date_modification";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Envoi au client toutes les N lignes : le client reçoit les données au fil de la lecture
+    @Value("${app.export.flush-lignes:1000}")
+    private int flushLignes;
+
+    // Exporter les projets et tâches d'un utilisateur : lecture par curseur dans une transaction en lecture seule,
+    // écriture ligne à ligne ; la mémoire utilisée ne dépend pas du volume exporté.
+    public void exporter(Long utilisateurId, FormatFichier format, OutputStream sortie) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<ExportLigne> lignes = projetRepository.streamExportByUtilisateurId(utilisateurId)) {
+                if (format == FormatFichier.CSV) {
+                    ecrireCsv(lignes.iterator(), sortie);
+                } else {
+                    ecrireNdjson(lignes.iterator(), sortie);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Une ligne JSON par projet (à sa première occurrence) puis une par tâche
+    private void ecrireNdjson(Iterator<ExportLigne> lignes, OutputStream sortie) throws IOException {
+        JsonGenerator json = JSON.createGenerator(sortie, JsonEncoding.UTF8);
+        json.setRootValueSeparator(null);
+        Long projetCourant = null;
+        int n = 0;
+        while (lignes.hasNext()) {
+            ExportLigne ligne = lignes.next();
+            if (!Objects.equals(ligne.projetId(), projetCourant)) {
+                projetCourant = ligne.projetId();
+                json.writeStartObject();
+                json.writeStringField("type", "projet");
+                json.writeNumberField("id", ligne.projetId());
+                json.writeStringField("nom", ligne.projetNom());
+                json.writeStringField("description", ligne.projetDescription());
+                json.writeStringField("dateDebut", date(ligne.projetDateDebut()));
+                json.writeStringField("dateFin", date(ligne.projetDateFin()));
+                json.writeStringField("dateCreation", date(ligne.projetDateCreation()));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            if (ligne.tacheId() != null) {
+                json.writeStartObject();
+                json.writeStringField("type", "tache");
+                json.writeNumberField("id", ligne.tacheId());
+                json.writeNumberField("projetId", ligne.projetId());
+                json.writeStringField("titre", ligne.titre());
+                json.writeStringField("priorite", nom(ligne.priorite()));
+                json.writeStringField("echeance", date(ligne.echeance()));
+                json.writeStringField("status", nom(ligne.status()));
+                json.writeStringField("dateCreation", date(ligne.tacheDateCreation()));
+                json.writeStringField("dateModification", date(ligne.tacheDateModification()));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            if (++n % flushLignes == 0) {
+                json.flush();
+            }
+        }
+        json.flush();
+    }
+
+    private void ecrireCsv(Iterator<ExportLigne> lignes, OutputStream sortie) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8), 16 * 1024);
+        csv.write(ENTETE_CSV);
+        csv.write("\r\n");
+        int n = 0;
+        while (lignes.hasNext()) {
+            ExportLigne l = lignes.next();
+            ecrireChamps(csv, l.projetId(), l.projetNom(), l.projetDescription(), l.projetDateDebut(), l.projetDateFin(),
+                    l.projetDateCreation(), l.tacheId(), l.titre(), l.priorite(), l.echeance(), l.status(),
+                    l.tacheDateCreation(), l.tacheDateModification());
+            if (++n % flushLignes == 0) {
+                csv.flush();
+            }
+        }
+        csv.flush();
+    }
+
+    private static void ecrireChamps(Writer csv, Object... champs) throws IOException {
+        for (int i = 0; i < champs.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            if (champs[i] != null) {
+                csv.write(echapperCsv(champs[i].toString()));
+            }
+        }
+        csv.write("\r\n");
+    }
+
+    // RFC 4180 : guillemets autour des champs contenant séparateur, guillemet ou saut de ligne
+    static String echapperCsv(String valeur) {
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    private static String date(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+
+    private static String nom(Enum<?> valeur) {
+        return valeur != null ? valeur.name() : null;
+    }
+}
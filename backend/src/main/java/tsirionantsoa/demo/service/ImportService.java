@@ -0,0 +1,190 @@
+package tsirionantsoa.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.FormatFichier;
+import tsirionantsoa.demo.dto.ImportProgress;
+import tsirionantsoa.demo.event.ProjetsEnMasseEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.importation.FichierErreurs;
+import tsirionantsoa.demo.importation.ImportJob;
+import tsirionantsoa.demo.importation.PipelineImport;
+import tsirionantsoa.demo.repository.ProjetRepository;
+import tsirionantsoa.demo.repository.UtilisateurRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Lignes par transaction d'écriture
+    @Value("${app.import.taille-lot:1000}")
+    private int tailleLot;
+
+    // Capacité des files entre étapes (lignes lues, lots validés)
+    @Value("${app.import.file-lignes:10000}")
+    private int capaciteLignes;
+
+    @Value("${app.import.file-lots:4}")
+    private int capaciteLots;
+
+    // COPY ... FROM STDIN sur PostgreSQL ; false => INSERT en lots JDBC
+    @Value("${app.import.copy:true}")
+    private boolean copy;
+
+    // Imports simultanés (chacun occupe trois threads et une connexion)
+    @Value("${app.import.max-simultanes:2}")
+    private int maxSimultanes;
+
+    // Durée de conservation d'un job terminé et de son fichier d'erreurs
+    @Value("${app.import.retention-ms:86400000}")
+    private long retentionMs;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private Semaphore places;
+
+    @PostConstruct
+    void init() {
+        places = new Semaphore(maxSimultanes);
+    }
+
+    // Démarrer un import : le corps est d'abord copié dans un fichier temporaire (la requête se termine
+    // aussitôt), puis traité en arrière-plan. L'avancement se suit avec l'ID du job.
+    public ImportProgress demarrer(Long utilisateurId, FormatFichier format, InputStream contenu) {
+        if (!utilisateurRepository.existsById(utilisateurId)) {
+            throw new RuntimeException("Utilisateur introuvable avec l'ID: " + utilisateurId);
+        }
+        if (!places.tryAcquire()) {
+            throw new RuntimeException("Trop d'imports en cours, réessayez plus tard");
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), utilisateurId, format);
+        Path fichier = null;
+        Path cheminErreurs = null;
+        FichierErreurs erreurs;
+        try {
+            fichier = Files.createTempFile("import-" + job.getId(), "." + format.getExtension());
+            Files.copy(contenu, fichier, StandardCopyOption.REPLACE_EXISTING);
+            cheminErreurs = Files.createTempFile("import-" + job.getId() + "-erreurs", ".csv");
+            erreurs = new FichierErreurs(cheminErreurs);
+        } catch (IOException e) {
+            places.release();
+            // Corps interrompu, disque plein... : l'import n'aura pas lieu, ses fichiers temporaires ne servent plus
+            supprimer(e, fichier, cheminErreurs);
+            throw new UncheckedIOException(e);
+        }
+        job.setFichierErreurs(cheminErreurs);
+        jobs.put(job.getId(), job);
+        Path source = fichier;
+        Thread.ofPlatform().name("import-" + job.getId().substring(0, 8) + "-ecriture")
+                .start(() -> executer(job, source, erreurs));
+        return job.progression();
+    }
+
+    private static void supprimer(IOException cause, Path... chemins) {
+        for (Path chemin : chemins) {
+            if (chemin == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(chemin);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    public Optional<ImportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void executer(ImportJob job, Path fichier, FichierErreurs erreurs) {
+        Long utilisateurId = job.getUtilisateurId();
+        try {
+            Set<Long> projetsExistants = new HashSet<>(projetRepository.findIdsByUtilisateurId(utilisateurId));
+            PipelineImport pipeline = new PipelineImport(job, fichier, job.getFormat(), utilisateurId, jdbcTemplate,
+                    new TransactionTemplate(transactionManager), erreurs, projetsExistants, copy, tailleLot,
+                    capaciteLignes, capaciteLots);
+            pipeline.executer();
+            job.terminer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.echouer("Import interrompu");
+        } catch (RuntimeException e) {
+            log.error("Import {} en échec", job.getId(), e);
+            job.echouer(e.getMessage());
+        } finally {
+            try {
+                erreurs.close();
+                Files.deleteIfExists(fichier);
+            } catch (IOException e) {
+                log.warn("Import {} : nettoyage incomplet", job.getId(), e);
+            }
+            places.release();
+        }
+        // Les lots déjà écrits restent en base même si l'import échoue : les caches sont invalidés dans tous les cas
+        ImportProgress progression = job.progression();
+        if (progression.projetsCrees() > 0 || progression.tachesCreees() > 0) {
+            eventPublisher.publishEvent(new ProjetsEnMasseEvent(Set.of(utilisateurId)));
+            eventPublisher.publishEvent(new TachesEnMasseEvent(Set.of(utilisateurId), Set.of()));
+        }
+        log.info("Import {} {} : {} lignes, {} projets, {} tâches, {} en erreur", job.getId(), progression.statut(),
+                progression.lignesLues(), progression.projetsCrees(), progression.tachesCreees(),
+                progression.lignesEnErreur());
+    }
+
+    // Oubli des jobs terminés depuis plus que la rétention, avec leur fichier d'erreurs
+    @Scheduled(fixedDelayString = "${app.import.purge-ms:600000}", initialDelayString = "${app.import.purge-ms:600000}")
+    public void purger() {
+        Instant limite = Instant.now().minusMillis(retentionMs);
+        jobs.values().removeIf(job -> {
+            if (job.getFin() == null || job.getFin().isAfter(limite)) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(job.getFichierErreurs());
+            } catch (IOException e) {
+                log.warn("Fichier d'erreurs de l'import {} non supprimé", job.getId(), e);
+            }
+            return true;
+        });
+    }
+}
@@ -1,48 +1,78 @@
 package tsirionantsoa.demo.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tsirionantsoa.demo.cache.EntityCaches;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.MergePatch;
 import tsirionantsoa.demo.dto.ProjetDTO;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.event.ProjetEvent;
 import tsirionantsoa.demo.model.Projet;
 import tsirionantsoa.demo.model.Utilisateur;
 import tsirionantsoa.demo.repository.ProjetRepository;
 import tsirionantsoa.demo.repository.UtilisateurRepository;
+import tsirionantsoa.demo.security.AuthenticatedUser;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ProjetService {
 
+private static final Logger log = LoggerFactory.getLogger(ProjetService.class);
+
+// Champs modifiables par PATCH
+private static final Set<String> CHAMPS_PATCH = Set.of("nom", "description", "dateDebut", "dateFin");
+
 @Autowired
 private ProjetRepository projetRepository;
 
 @Autowired
 private UtilisateurRepository utilisateurRepository;
 
+@Autowired
+private PurgeService purgeService;
+
+@Autowired
+private EntityCaches entityCaches;
+
+@Autowired
+private ApplicationEventPublisher eventPublisher;
+
 //Ajouter un projet
 public Projet createProjet(ProjetDTO projetDTO, Long userId) {
-    System.out.println("=== DEBUG CREATE PROJET ===");
-    System.out.println("DTO reçu: " + projetDTO);
-    System.out.println("Nom: " + projetDTO.getNom());
-    System.out.println("Description: " + projetDTO.getDescription());
-    System.out.println("DateDebut: " + projetDTO.getDateDebut());
-    System.out.println("DateFin: " + projetDTO.getDateFin());
-    System.out.println("UserId: " + userId);
+    Utilisateur utilisateur = utilisateurRepository.findById(userId)
+    .orElseThrow(() -> new RuntimeException("Utilisateur introuvable avec l'ID: " + userId));
+    return creerProjet(projetDTO, utilisateur);
+}
+
+//Ajouter un projet pour l'utilisateur du jeton : déjà vérifié, simple référence sans SELECT
+public Projet createProjet(ProjetDTO projetDTO, AuthenticatedUser principal) {
+    return creerProjet(projetDTO, utilisateurRepository.getReferenceById(principal.id()));
+}
+
+private Projet creerProjet(ProjetDTO projetDTO, Utilisateur utilisateur) {
     if (projetDTO.getNom() == null || projetDTO.getNom().trim().isEmpty()) {
     throw new RuntimeException("Le nom du projet est requis");
     }
     if (projetDTO.getDescription() == null || projetDTO.getDescription().trim().isEmpty()) {
     throw new RuntimeException("La description du projet est requise");
     }
-    Utilisateur utilisateur = utilisateurRepository.findById(userId)
-    .orElseThrow(() -> new RuntimeException("Utilisateur introuvable avec l'ID: " + userId));
-    System.out.println("Utilisateur trouvé: " + utilisateur.getNom());
     Projet projet = new Projet();
     projet.setNom(projetDTO.getNom());
     projet.setDescription(projetDTO.getDescription());
@@ -58,29 +88,50 @@ public Projet createProjet(ProjetDTO projetDTO, Long userId) {
     }
     projet.setUtilisateur(utilisateur);
     projet.setDateCreation(LocalDate.now());
-    System.out.println("Projet avant sauvegarde: " + projet);
     Projet savedProjet = projetRepository.save(projet);
-    System.out.println("Projet sauvegardé avec ID: " + savedProjet.getId());
-    System.out.println("=== FIN DEBUG ===");
+    log.debug("Projet {} créé pour l'utilisateur {}", savedProjet.getId(), utilisateur.getId());
+    eventPublisher.publishEvent(ProjetEvent.creation(ProjetView.from(savedProjet)));
     return savedProjet;
 }
 
 // Liste de projet créer par un utilisateur
-public List<Projet> listeProjetByUtilisateur(Long id){
-    return projetRepository.findByUtilisateurId(id);
+public List<ProjetView> listeProjetByUtilisateur(Long id){
+    return entityCaches.projetsParUtilisateur().get(id, projetRepository::findViewsByUtilisateurId);
+}
+
+// Page de projets d'un utilisateur (pagination par curseur sur l'ID)
+public CursorPage<ProjetView> pageProjetsByUtilisateur(Long id, String cursor, Integer size) {
+    int taille = CursorPage.taille(size);
+    List<ProjetView> lignes = projetRepository.findPageViewsByUtilisateurId(
+            id, CursorPage.decode(cursor), PageRequest.of(0, taille + 1));
+    return CursorPage.of(lignes, taille, ProjetView::id);
 }
 
 // Détail du projet
-public Optional<Projet> findProjetById(Long id) {
-    return projetRepository.findById(id);
+public Optional<ProjetView> findProjetById(Long id) {
+    return Optional.ofNullable(entityCaches.projets().get(id, k -> projetRepository.findViewById(k).orElse(null)));
 }
 
-// Modifier du projet
-public Projet updateProjet(Long id, ProjetDTO projetDTO) {
-    System.out.println("=== DEBUG UPDATE PROJET ===");
-    System.out.println("DTO reçu: " + projetDTO);
+// Version du projet pour l'ETag : lue dans le cache, sinon seule en base
+public Optional<Long> findVersionById(Long id) {
+    ProjetView vue = entityCaches.projets().getIfPresent(id);
+    return vue != null ? Optional.of(vue.version()) : projetRepository.findVersionById(id);
+}
+
+// Empreinte de la liste des projets d'un utilisateur pour l'ETag : calculée sur la liste en cache, sinon agrégat SQL
+public Empreinte empreinteProjetsByUtilisateur(Long id) {
+    List<ProjetView> projets = entityCaches.projetsParUtilisateur().getIfPresent(id);
+    return projets != null ? Empreinte.of(projets, ProjetView::id, ProjetView::version)
+            : projetRepository.empreinteByUtilisateurId(id);
+}
+
+// Modifier du projet. versionAttendue (If-Match, facultative) : refus si le projet a changé depuis sa lecture ;
+// une modification concurrente entre la lecture et l'écriture est refusée par @Version
+public Projet updateProjet(Long id, ProjetDTO projetDTO, Long versionAttendue) {
     Projet projet = projetRepository.findById(id)
     .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + id));
+    verifierVersion(projet, versionAttendue);
+    ProjetView avant = ProjetView.from(projet);
     if (projetDTO.getNom() != null && !projetDTO.getNom().trim().isEmpty()) {
     projet.setNom(projetDTO.getNom());}
     if (projetDTO.getDescription() != null && !projetDTO.getDescription().trim().isEmpty()) {
@@ -96,15 +147,54 @@ public Projet updateProjet(Long id, ProjetDTO projetDTO) {
     } else {
         projet.setDateFin(null);
     }
-    System.out.println("Projet après modification: " + projet);
-    return projetRepository.save(projet);
+    Projet savedProjet = projetRepository.save(projet);
+    log.debug("Projet {} modifié", id);
+    eventPublisher.publishEvent(ProjetEvent.modification(avant, ProjetView.from(savedProjet)));
+    return savedProjet;
 }
 
-// Supprimer projet
-public void deleteProjet(Long id) {
-if (!projetRepository.existsById(id)) {
-throw new RuntimeException("Projet introuvable avec l'ID: " + id);
+// Modification partielle (JSON Merge Patch) : seuls les champs présents changent, null efface une date.
+// Avec @DynamicUpdate, l'UPDATE n'écrit que les colonnes modifiées ; un patch sans effet n'écrit rien.
+@Transactional
+public ProjetView patchProjet(Long id, JsonNode corps, Long versionAttendue) {
+    MergePatch patch = MergePatch.of(corps, CHAMPS_PATCH);
+    Projet projet = projetRepository.findById(id)
+    .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + id));
+    verifierVersion(projet, versionAttendue);
+    ProjetView avant = ProjetView.from(projet);
+    if (patch.contient("nom")) {
+    projet.setNom(patch.texteRequis("nom", "Le nom du projet est requis"));
+    }
+    if (patch.contient("description")) {
+    projet.setDescription(patch.texteRequis("description", "La description du projet est requise"));
+    }
+    if (patch.contient("dateDebut")) {
+    projet.setDateDebut(patch.date("dateDebut"));
+    }
+    if (patch.contient("dateFin")) {
+    projet.setDateFin(patch.date("dateFin"));
+    }
+    if (ProjetView.from(projet).equals(avant)) {
+    return avant;
+    }
+    // Écriture immédiate : la vue renvoyée porte la nouvelle version
+    projetRepository.flush();
+    ProjetView apres = ProjetView.from(projet);
+    log.debug("Projet {} modifié partiellement", id);
+    eventPublisher.publishEvent(ProjetEvent.modification(avant, apres));
+    return apres;
 }
-projetRepository.deleteById(id);
+
+private void verifierVersion(Projet projet, Long versionAttendue) {
+    if (versionAttendue != null && !versionAttendue.equals(projet.getVersion())) {
+    throw new OptimisticLockingFailureException("Le projet " + projet.getId() + " a été modifié entre-temps (version "
+            + projet.getVersion() + ")");
+    }
+}
+
+// Supprimer projet : masqué aussitôt (avec sa trace pour la synchronisation), ses tâches et lui-même
+// sont ensuite effacés en arrière-plan par tranches (voir PurgeService)
+public PurgeProgress deleteProjet(Long id) {
+    return purgeService.supprimerProjet(id);
 }
 }
\ No newline at end of file
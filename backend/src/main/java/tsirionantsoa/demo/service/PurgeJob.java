@@ -0,0 +1,79 @@
+package tsirionantsoa.demo.service;
+
+import tsirionantsoa.demo.dto.PurgeProgress;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * État d'une purge, mis à jour après chaque tranche validée et lu par GET /api/purges/{jobId}.
+ */
+public class PurgeJob {
+
+    public enum Cible { PROJET, UTILISATEUR }
+
+    public enum Statut { EN_ATTENTE, EN_COURS, TERMINE, ECHEC }
+
+    private final String id;
+    private final Cible cible;
+    private final Long cibleId;
+    private final Long utilisateurId;
+    private final Instant debut = Instant.now();
+    final AtomicLong tachesAPurger = new AtomicLong();
+    final AtomicLong tachesSupprimees = new AtomicLong();
+    final AtomicLong projetsSupprimes = new AtomicLong();
+    // Entrées de temps, cumuls, chronomètres, événements d'échéance et traces de suppression
+    final AtomicLong lignesAnnexes = new AtomicLong();
+    private volatile Statut statut = Statut.EN_ATTENTE;
+    private volatile Instant fin;
+    private volatile String message;
+
+    public PurgeJob(String id, Cible cible, Long cibleId, Long utilisateurId) {
+        this.id = id;
+        this.cible = cible;
+        this.cibleId = cibleId;
+        this.utilisateurId = utilisateurId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Cible getCible() {
+        return cible;
+    }
+
+    public Long getCibleId() {
+        return cibleId;
+    }
+
+    public Long getUtilisateurId() {
+        return utilisateurId;
+    }
+
+    public Instant getFin() {
+        return fin;
+    }
+
+    void demarrer() {
+        this.statut = Statut.EN_COURS;
+    }
+
+    synchronized void echouer(String message) {
+        this.statut = Statut.ECHEC;
+        this.message = message;
+        this.fin = Instant.now();
+    }
+
+    synchronized void terminer() {
+        if (statut == Statut.EN_COURS) {
+            this.statut = Statut.TERMINE;
+            this.fin = Instant.now();
+        }
+    }
+
+    public PurgeProgress progression() {
+        return new PurgeProgress(id, cible.name(), cibleId, utilisateurId, statut.name(), tachesAPurger.get(),
+                tachesSupprimees.get(), projetsSupprimes.get(), lignesAnnexes.get(), debut, fin, message);
+    }
+}
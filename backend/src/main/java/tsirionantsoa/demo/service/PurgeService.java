@@ -0,0 +1,368 @@
+package tsirionantsoa.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.event.ProjetEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.repository.ProjetRepository;
+import tsirionantsoa.demo.repository.SuppressionRepository;
+import tsirionantsoa.demo.security.ComptesActifs;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Suppression des projets et des utilisateurs en deux temps. D'abord, dans une transaction courte, la ligne est
+// masquée (supprime = true, exclue des lectures JPA par @SQLRestriction) et les événements habituels la retirent
+// des caches, de l'index de recherche et des abonnés. Ensuite un job en arrière-plan efface les données par
+// tranches de taille fixe (une transaction courte par tranche, DELETE ... WHERE id IN (...)) : pas de verrou
+// long, aucune entité chargée. Les lignes masquées font foi : un job interrompu ou en échec est relancé au
+// passage de reprise suivant (au démarrage, puis toutes les app.purge.reprise-ms). Avec plusieurs instances, une
+// purge n'est exécutée que par celle qui tient son bail (table purge_bail).
+@Service
+public class PurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgeService.class);
+
+    // Tables rattachées à l'utilisateur (clé primaire pour les tranches), vidées une fois ses projets purgés
+    private record TableUtilisateur(String nom, String cle) {
+    }
+
+    // Ligne encore masquée, relue par la reprise
+    private record Masquee(PurgeJob.Cible cible, Long cibleId, Long utilisateurId) {
+    }
+
+    private static final List<TableUtilisateur> TABLES_PAR_UTILISATEUR = List.of(
+            new TableUtilisateur("time_entry", "id_time_entry"),
+            new TableUtilisateur("time_rollup", "id_rollup"),
+            new TableUtilisateur("active_timer", "id_timer"),
+            new TableUtilisateur("deadline_outbox", "id_evenement"),
+            new TableUtilisateur("suppression", "id_suppression"),
+            new TableUtilisateur("search_token", "token, entite, id_entite"),
+            new TableUtilisateur("search_document", "entite, id_entite"));
+
+    // Prise du bail d'une purge : ligne libre, bail expiré, ou déjà tenue par cette instance (redémarrage)
+    private static final String PRENDRE_SQL = "INSERT INTO purge_bail (cible, id_cible, instance_purge, bail_purge) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (cible, id_cible) DO UPDATE SET "
+            + "instance_purge = EXCLUDED.instance_purge, bail_purge = EXCLUDED.bail_purge "
+            + "WHERE purge_bail.instance_purge = EXCLUDED.instance_purge OR purge_bail.bail_purge < ?";
+
+    private static final String RENOUVELER_SQL = "UPDATE purge_bail SET bail_purge = ? "
+            + "WHERE cible = ? AND id_cible = ? AND instance_purge = ?";
+
+    // Suppression finale d'un compte : une écriture arrivée pendant la purge (requête déjà en cours au moment
+    // du masquage) bloque le DELETE sur une clé étrangère, ses données sont alors purgées de nouveau
+    private static final int ESSAIS_SUPPRESSION_COMPTE = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private SuppressionRepository suppressionRepository;
+
+    @Autowired
+    private TacheService tacheService;
+
+    @Autowired
+    private ChronoService chronoService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ComptesActifs comptesActifs;
+
+    // Lignes par tranche (et par transaction)
+    @Value("${app.purge.taille-tranche:1000}")
+    private int tailleTranche;
+
+    // Pause entre deux tranches, pour laisser passer les autres écritures
+    @Value("${app.purge.pause-ms:0}")
+    private long pauseMs;
+
+    // Identifiant stable : après un redémarrage, l'instance reprend aussitôt ses propres purges
+    @Value("${app.instance.id:}")
+    private String instanceId;
+
+    // Sans renouvellement pendant cette durée (instance arrêtée), une autre instance reprend la purge
+    @Value("${app.purge.bail-ms:300000}")
+    private long bailMs;
+
+    // Durée de conservation d'un job terminé
+    @Value("${app.purge.retention-ms:86400000}")
+    private long retentionMs;
+
+    private final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+
+    // Jobs en attente ou en cours sur cette instance, par cible : au plus un par projet ou utilisateur
+    private final Map<String, PurgeJob> actifs = new ConcurrentHashMap<>();
+
+    // Une purge à la fois : les suivantes attendent leur tour (statut EN_ATTENTE)
+    private final ExecutorService executeur = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("purge").daemon().factory());
+
+    @PostConstruct
+    void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = ChronoService.nomHote();
+        }
+    }
+
+    // Masque le projet (et ses tâches), écrit sa trace pour la synchronisation, puis lance sa purge
+    public PurgeProgress supprimerProjet(Long id) {
+        ProjetView projet = new TransactionTemplate(transactionManager).execute(status -> {
+            ProjetView vue = projetRepository.findViewById(id)
+                    .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + id));
+            // Deux suppressions simultanées : une seule masque le projet
+            if (jdbcTemplate.update("UPDATE projet SET supprime = true WHERE id_projet = ? AND NOT supprime", id) == 0) {
+                throw new RuntimeException("Projet introuvable avec l'ID: " + id);
+            }
+            suppressionRepository.enregistrerProjet(id, Instant.now());
+            eventPublisher.publishEvent(ProjetEvent.suppression(vue));
+            return vue;
+        });
+        return lancer(PurgeJob.Cible.PROJET, id, projet.utilisateurId())
+                .orElseGet(() -> dejaLance(PurgeJob.Cible.PROJET, id));
+    }
+
+    // Masque l'utilisateur et tous ses projets en une transaction, puis lance la purge du compte
+    public PurgeProgress supprimerUtilisateur(Long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<ProjetView> projets = projetRepository.findViewsByUtilisateurId(id);
+            if (jdbcTemplate.update("UPDATE utilisateur SET supprime = true WHERE id = ? AND NOT supprime", id) == 0) {
+                throw new RuntimeException("Utilisateur introuvable avec l'ID: " + id);
+            }
+            jdbcTemplate.update("UPDATE projet SET supprime = true WHERE id_users = ? AND NOT supprime", id);
+            projets.forEach(projet -> eventPublisher.publishEvent(ProjetEvent.suppression(projet)));
+            eventPublisher.publishEvent(new TachesEnMasseEvent(Set.of(id), Set.of()));
+        });
+        comptesActifs.revoquer(id);
+        dashboardService.utilisateurSupprime();
+        chronoService.oublierUtilisateur(id);
+        return lancer(PurgeJob.Cible.UTILISATEUR, id, id)
+                .orElseGet(() -> dejaLance(PurgeJob.Cible.UTILISATEUR, id));
+    }
+
+    public Optional<PurgeJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // Reprise des purges interrompues (arrêt, échec) : les lignes encore masquées. Renouvelle d'abord le bail
+    // des jobs de cette instance (ceux en attente ne passent pas encore de tranche), puis relance les purges
+    // sans job actif ici et sans bail en cours ailleurs.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.purge.reprise-ms:60000}", initialDelayString = "${app.purge.reprise-ms:60000}")
+    public synchronized void reprendre() {
+        if (!actifs.isEmpty()) {
+            jdbcTemplate.update("UPDATE purge_bail SET bail_purge = ? WHERE instance_purge = ?", finDeBail(),
+                    instanceId);
+        }
+        List<Masquee> masquees = new ArrayList<>();
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM utilisateur WHERE supprime", Long.class)) {
+            masquees.add(new Masquee(PurgeJob.Cible.UTILISATEUR, id, id));
+        }
+        jdbcTemplate.query("SELECT p.id_projet, p.id_users FROM projet p JOIN utilisateur u ON u.id = p.id_users "
+                + "WHERE p.supprime AND NOT u.supprime", rs -> {
+                    masquees.add(new Masquee(PurgeJob.Cible.PROJET, rs.getLong("id_projet"), rs.getLong("id_users")));
+                });
+        long reprises = masquees.stream()
+                .filter(m -> lancer(m.cible(), m.cibleId(), m.utilisateurId()).isPresent())
+                .count();
+        if (reprises > 0) {
+            log.info("{} purges reprises", reprises);
+        }
+    }
+
+    // Vide si la cible a déjà un job sur cette instance ou si une autre instance tient son bail
+    private Optional<PurgeProgress> lancer(PurgeJob.Cible cible, Long cibleId, Long utilisateurId) {
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), cible, cibleId, utilisateurId);
+        String cle = cle(cible, cibleId);
+        if (actifs.putIfAbsent(cle, job) != null) {
+            return Optional.empty();
+        }
+        Timestamp maintenant = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(PRENDRE_SQL, cible.name(), cibleId, instanceId, finDeBail(), maintenant) == 0) {
+            actifs.remove(cle, job);
+            return Optional.empty();
+        }
+        jobs.put(job.getId(), job);
+        executeur.execute(() -> executer(job));
+        return Optional.of(job.progression());
+    }
+
+    // Ligne masquée à l'instant et déjà relancée par un passage de reprise
+    private PurgeProgress dejaLance(PurgeJob.Cible cible, Long cibleId) {
+        PurgeJob job = actifs.get(cle(cible, cibleId));
+        if (job == null) {
+            throw new RuntimeException("Purge de " + cible + " " + cibleId + " déjà lancée sur une autre instance");
+        }
+        return job.progression();
+    }
+
+    private static String cle(PurgeJob.Cible cible, Long cibleId) {
+        return cible + ":" + cibleId;
+    }
+
+    private Timestamp finDeBail() {
+        return Timestamp.from(Instant.now().plusMillis(bailMs));
+    }
+
+    // Bail perdu (expiré puis pris par une autre instance) : la purge s'arrête ici
+    private void renouveler(PurgeJob job) {
+        if (jdbcTemplate.update(RENOUVELER_SQL, finDeBail(), job.getCible().name(), job.getCibleId(), instanceId) == 0) {
+            throw new RuntimeException("Purge reprise par une autre instance");
+        }
+    }
+
+    private void executer(PurgeJob job) {
+        job.demarrer();
+        try {
+            renouveler(job);
+            if (job.getCible() == PurgeJob.Cible.PROJET) {
+                job.tachesAPurger.set(jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM tache WHERE id_projets = ?", Long.class, job.getCibleId()));
+                purgerProjet(job, job.getCibleId());
+            } else {
+                job.tachesAPurger.set(jdbcTemplate.queryForObject("SELECT count(*) FROM tache t "
+                        + "JOIN projet p ON p.id_projet = t.id_projets WHERE p.id_users = ?", Long.class, job.getCibleId()));
+                purgerUtilisateur(job);
+            }
+            jdbcTemplate.update("DELETE FROM purge_bail WHERE cible = ? AND id_cible = ? AND instance_purge = ?",
+                    job.getCible().name(), job.getCibleId(), instanceId);
+            job.terminer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.echouer("Purge interrompue, reprise au prochain démarrage");
+        } catch (RuntimeException e) {
+            log.error("Purge {} en échec", job.getId(), e);
+            job.echouer(e.getMessage());
+        } finally {
+            actifs.remove(cle(job.getCible(), job.getCibleId()), job);
+        }
+        PurgeProgress progression = job.progression();
+        log.info("Purge {} ({} {}) {} : {} tâches, {} projets, {} lignes annexes", job.getId(), progression.cible(),
+                progression.cibleId(), progression.statut(), progression.tachesSupprimees(),
+                progression.projetsSupprimes(), progression.lignesAnnexes());
+    }
+
+    // Tâches par tranches (index idx_tache_projet_id), puis la ligne du projet
+    private void purgerProjet(PurgeJob job, Long projetId) throws InterruptedException {
+        List<Long> tranche;
+        while (!(tranche = jdbcTemplate.queryForList("SELECT id_task FROM tache WHERE id_projets = ? "
+                + "ORDER BY id_task LIMIT ?", Long.class, projetId, tailleTranche)).isEmpty()) {
+            supprimerTaches(job, tranche);
+            pause(job);
+        }
+        jdbcTemplate.update("DELETE FROM projet WHERE id_projet = ?", projetId);
+        job.projetsSupprimes.incrementAndGet();
+    }
+
+    // Une tranche de tâches et ce qui en dépend, en une transaction. L'événement de lot retire les tâches
+    // de la file des échéances, de l'index de recherche et des compteurs du tableau de bord.
+    private void supprimerTaches(PurgeJob job, List<Long> ids) {
+        String liste = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametres = ids.toArray();
+        Long annexes = new TransactionTemplate(transactionManager).execute(status -> {
+            long lignes = tacheService.supprimerDependances(ids);
+            jdbcTemplate.update("DELETE FROM tache WHERE id_task IN (" + liste + ")", parametres);
+            eventPublisher.publishEvent(new TachesEnMasseEvent(Set.of(job.getUtilisateurId()), new HashSet<>(ids)));
+            return lignes;
+        });
+        job.tachesSupprimees.addAndGet(ids.size());
+        job.lignesAnnexes.addAndGet(annexes == null ? 0 : annexes);
+    }
+
+    // Projets par tranches, puis les lignes propres au compte, puis l'utilisateur
+    private void purgerUtilisateur(PurgeJob job) throws InterruptedException {
+        for (int essai = 1; ; essai++) {
+            purgerDonneesUtilisateur(job);
+            try {
+                jdbcTemplate.update("DELETE FROM utilisateur WHERE id = ?", job.getCibleId());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (essai == ESSAIS_SUPPRESSION_COMPTE) {
+                    throw e;
+                }
+                log.warn("Purge {} : données ajoutées pendant la purge de l'utilisateur {}, nouveau passage",
+                        job.getId(), job.getCibleId());
+            }
+        }
+    }
+
+    private void purgerDonneesUtilisateur(PurgeJob job) throws InterruptedException {
+        Long userId = job.getCibleId();
+        List<Long> projets;
+        while (!(projets = jdbcTemplate.queryForList("SELECT id_projet FROM projet WHERE id_users = ? "
+                + "ORDER BY id_projet LIMIT ?", Long.class, userId, tailleTranche)).isEmpty()) {
+            for (Long projetId : projets) {
+                purgerProjet(job, projetId);
+            }
+        }
+        for (TableUtilisateur table : TABLES_PAR_UTILISATEUR) {
+            String sql = "DELETE FROM " + table.nom() + " WHERE id_users = ? AND (" + table.cle() + ") IN (SELECT "
+                    + table.cle() + " FROM " + table.nom() + " WHERE id_users = ? LIMIT ?)";
+            int lignes;
+            while ((lignes = jdbcTemplate.update(sql, userId, userId, tailleTranche)) > 0) {
+                job.lignesAnnexes.addAndGet(lignes);
+                pause(job);
+            }
+        }
+    }
+
+    // Entre deux tranches : renouvelle le bail. Arrêt de l'application : le job en cours s'arrête à la fin de
+    // sa tranche.
+    private void pause(PurgeJob job) throws InterruptedException {
+        renouveler(job);
+        if (pauseMs > 0) {
+            Thread.sleep(pauseMs);
+        } else if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executeur.shutdownNow();
+    }
+
+    // Oubli des jobs terminés depuis plus que la rétention
+    @Scheduled(fixedDelayString = "${app.purge.nettoyage-ms:600000}", initialDelayString = "${app.purge.nettoyage-ms:600000}")
+    public void oublierTermines() {
+        Instant limite = Instant.now().minusMillis(retentionMs);
+        jobs.values().removeIf(job -> job.getFin() != null && job.getFin().isBefore(limite));
+    }
+}
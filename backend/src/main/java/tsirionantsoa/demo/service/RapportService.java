@@ -0,0 +1,146 @@
+package tsirionantsoa.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.RapportLigne;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.model.Granularite;
+import tsirionantsoa.demo.repository.TimeRollupRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class RapportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RapportService.class);
+
+    // Ajoute un cumul à la ligne existante de la période, ou la crée
+    private static final String UPSERT_SQL = "INSERT INTO time_rollup "
+            + "(id_users, granularite, debut_periode, id_projets, id_task, total_secondes, nb_entries) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (id_users, granularite, debut_periode, id_task) DO UPDATE SET "
+            + "total_secondes = time_rollup.total_secondes + EXCLUDED.total_secondes, "
+            + "nb_entries = time_rollup.nb_entries + EXCLUDED.nb_entries";
+
+    // Recalcul ensembliste depuis time_entry : une seule lecture des entrées pour les trois granularités
+    private static final String RECONSTRUIRE_SQL = "INSERT INTO time_rollup "
+            + "(id_users, granularite, debut_periode, id_projets, id_task, total_secondes, nb_entries) "
+            + "SELECT e.id_users, g.nom, CAST(date_trunc(g.unite, e.debut_entry) AS date), t.id_projets, e.id_task, "
+            + "sum(e.duree_entry), count(*) "
+            + "FROM time_entry e JOIN tache t ON t.id_task = e.id_task "
+            + "CROSS JOIN (VALUES " + Stream.of(Granularite.values())
+                    .map(g -> "('" + g.name() + "', '" + g.getSql() + "')").collect(Collectors.joining(", "))
+            + ") AS g(nom, unite) "
+            + "WHERE e.id_users = ? "
+            + "GROUP BY e.id_users, g.nom, 3, t.id_projets, e.id_task";
+
+    // Ordre fixe des lignes modifiées : deux ingestions concurrentes verrouillent les cumuls dans le même ordre
+    private static final Comparator<Cle> ORDRE = Comparator.comparing(Cle::granularite)
+            .thenComparing(Cle::periode).thenComparingLong(Cle::tacheId);
+
+    @Autowired
+    private TimeRollupRepository timeRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Cumuls par lot JDBC d'upsert dans time_rollup
+    @Value("${app.reports.taille-lot:500}")
+    private int tailleLot;
+
+    // Reconstruire tous les cumuls au démarrage (rattrapage après une mise à jour ou un chargement direct en base)
+    @Value("${app.reports.reconstruire-au-demarrage:false}")
+    private boolean reconstruireAuDemarrage;
+
+    private record Cle(Granularite granularite, LocalDate periode, long tacheId) {
+    }
+
+    // Cumule des entrées dans les périodes jour, semaine et mois de leur début. Appelé par TimeEntryService.ingest
+    // dans la transaction d'insertion : les entrées et leurs cumuls sont validés ensemble.
+    // Les entrées sont d'abord regroupées par période et tâche : un upsert par ligne de cumul, pas par entrée.
+    public void cumuler(List<TimeEntryDTO> entries, Map<Long, Long> projetParTache, Long userId) {
+        Map<Cle, long[]> cumuls = new TreeMap<>(ORDRE);
+        for (TimeEntryDTO entry : entries) {
+            LocalDate jour = entry.getDebut().toLocalDate();
+            for (Granularite g : Granularite.values()) {
+                long[] cumul = cumuls.computeIfAbsent(new Cle(g, g.debutPeriode(jour), entry.getTacheId()), k -> new long[2]);
+                cumul[0] += entry.getDureeSecondes();
+                cumul[1]++;
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(cumuls.entrySet()), tailleLot, (ps, e) -> {
+            Cle cle = e.getKey();
+            ps.setLong(1, userId);
+            ps.setString(2, cle.granularite().name());
+            ps.setDate(3, Date.valueOf(cle.periode()));
+            ps.setLong(4, projetParTache.get(cle.tacheId()));
+            ps.setLong(5, cle.tacheId());
+            ps.setLong(6, e.getValue()[0]);
+            ps.setLong(7, e.getValue()[1]);
+        });
+    }
+
+    // Rapport d'un utilisateur entre deux dates : lu dans les cumuls, le coût dépend du nombre de périodes
+    // et de tâches, pas du nombre d'entrées. La période contenant "debut" est incluse en entier.
+    public List<RapportLigne> rapport(Long userId, Granularite granularite, LocalDate debut, LocalDate fin, String par) {
+        if (fin.isBefore(debut)) {
+            throw new RuntimeException("La date de fin doit être postérieure à la date de début");
+        }
+        LocalDate depuis = granularite.debutPeriode(debut);
+        return switch (par == null ? "utilisateur" : par.toLowerCase()) {
+            case "utilisateur" -> timeRollupRepository.totalParPeriode(userId, granularite, depuis, fin);
+            case "projet" -> timeRollupRepository.totalParProjet(userId, granularite, depuis, fin);
+            case "tache" -> timeRollupRepository.totalParTache(userId, granularite, depuis, fin);
+            default -> throw new RuntimeException("Regroupement inconnu (utilisateur, projet ou tache): " + par);
+        };
+    }
+
+    // Recalcule les cumuls d'un utilisateur depuis ses entrées de temps. Le verrou de table bloque les upserts
+    // concurrents jusqu'à la fin : une ingestion en cours est soit comptée ici, soit ajoutée après.
+    public int reconstruire(Long userId) {
+        Integer lignes = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE time_rollup IN SHARE ROW EXCLUSIVE MODE");
+            jdbcTemplate.update("DELETE FROM time_rollup WHERE id_users = ?", userId);
+            return jdbcTemplate.update(RECONSTRUIRE_SQL, userId);
+        });
+        log.info("Cumuls de temps reconstruits pour l'utilisateur {} : {} lignes", userId, lignes);
+        return lignes;
+    }
+
+    // Recalcule les cumuls de tous les utilisateurs, une transaction par utilisateur
+    public int reconstruireTout() {
+        List<Long> utilisateurs = jdbcTemplate.queryForList(
+                "SELECT id_users FROM time_entry UNION SELECT id_users FROM time_rollup", Long.class);
+        int lignes = 0;
+        for (Long userId : utilisateurs) {
+            lignes += reconstruire(userId);
+        }
+        return lignes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruireSiDemande() {
+        if (reconstruireAuDemarrage) {
+            log.info("Reconstruction des cumuls de temps : {} lignes", reconstruireTout());
+        }
+    }
+}
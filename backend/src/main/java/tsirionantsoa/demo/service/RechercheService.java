@@ -0,0 +1,342 @@
+package tsirionantsoa.demo.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.dto.ResultatRecherche;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.ProjetEvent;
+import tsirionantsoa.demo.event.ProjetsEnMasseEvent;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.recherche.Tokeniseur;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+// Recherche plein texte et saisie semi-automatique sur les noms et descriptions de projets et les titres de tâches.
+// L'index (search_document, search_token) est tenu à jour dans la transaction de chaque écriture, par les
+// événements des services : seuls les mots ajoutés ou retirés sont écrits. Une requête ne lit que les mots
+// de l'utilisateur (premier champ de la clé), le dernier mot saisi étant cherché comme début de mot.
+@Service
+public class RechercheService {
+
+    private static final Logger log = LoggerFactory.getLogger(RechercheService.class);
+
+    private static final String PROJET = "projet";
+    private static final String TACHE = "tache";
+
+    private static final String UPSERT_DOCUMENT_SQL = "INSERT INTO search_document "
+            + "(entite, id_entite, id_users, id_projet, libelle) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (entite, id_entite) DO UPDATE SET id_users = EXCLUDED.id_users, "
+            + "id_projet = EXCLUDED.id_projet, libelle = EXCLUDED.libelle";
+    private static final String INSERT_TOKEN_SQL = "INSERT INTO search_token (id_users, token, entite, id_entite) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_TOKEN_SQL = "DELETE FROM search_token "
+            + "WHERE id_users = ? AND token = ? AND entite = ? AND id_entite = ?";
+
+    // Les projets masqués en attente de purge (supprime) et leurs tâches ne sont pas réindexés
+    private static final String PROJETS_UTILISATEUR_SQL = "SELECT id_projet, nom_projet, description_projet "
+            + "FROM projet WHERE id_users = ? AND NOT supprime";
+    private static final String TACHES_UTILISATEUR_SQL = "SELECT t.id_task, t.titre_task, t.id_projets "
+            + "FROM tache t JOIN projet p ON p.id_projet = t.id_projets WHERE p.id_users = ? AND NOT p.supprime";
+
+    // Nombre maximal de mots pris en compte dans une requête
+    private static final int TERMES_MAX = 8;
+    private static final int LIMITE_MAX = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // false : l'index n'est plus tenu à jour (contextes sans PostgreSQL)
+    @Value("${app.search.indexation:true}")
+    private boolean indexation;
+
+    // Longueur minimale du dernier mot pour une recherche par préfixe (en dessous : mot exact)
+    @Value("${app.search.prefixe-min:2}")
+    private int prefixeMin;
+
+    @Value("${app.search.limite:20}")
+    private int limiteDefaut;
+
+    @Value("${app.search.taille-lot:1000}")
+    private int tailleLot;
+
+    // Reconstruire tout l'index au démarrage (données chargées directement en base, index perdu)
+    @Value("${app.search.reconstruire-au-demarrage:false}")
+    private boolean reconstruireAuDemarrage;
+
+    // Projets et tâches d'un utilisateur dont le libellé (ou la description d'un projet) contient tous les mots
+    // de la requête, le dernier pouvant être incomplet ("rap" trouve "rapport") sauf si la requête finit
+    // par un espace. Projets d'abord, puis tâches, les plus récents en premier.
+    public List<ResultatRecherche> rechercher(Long userId, String requete, Integer limite) {
+        List<String> termes = Tokeniseur.termes(requete);
+        if (termes.isEmpty()) {
+            return List.of();
+        }
+        if (termes.size() > TERMES_MAX) {
+            throw new RuntimeException("Trop de mots dans la recherche (" + TERMES_MAX + " max)");
+        }
+        int taille = limite == null ? limiteDefaut : limite;
+        if (taille < 1 || taille > LIMITE_MAX) {
+            throw new RuntimeException("La limite doit être comprise entre 1 et " + LIMITE_MAX);
+        }
+        String dernier = termes.get(termes.size() - 1);
+        boolean prefixe = !Character.isWhitespace(requete.charAt(requete.length() - 1))
+                && dernier.length() >= prefixeMin && dernier.charAt(dernier.length() - 1) != Character.MAX_VALUE;
+
+        // Un parcours de clé par mot, intersectés : le préfixe est un intervalle [dernier, dernier + 1)
+        List<String> parcours = new ArrayList<>();
+        List<Object> parametres = new ArrayList<>();
+        for (int i = 0; i < termes.size(); i++) {
+            String terme = termes.get(i);
+            if (prefixe && i == termes.size() - 1) {
+                parcours.add("SELECT entite, id_entite FROM search_token WHERE id_users = ? AND token >= ? AND token < ?");
+                parametres.addAll(List.of(userId, terme, Tokeniseur.borneSuperieure(terme)));
+            } else {
+                parcours.add("SELECT entite, id_entite FROM search_token WHERE id_users = ? AND token = ?");
+                parametres.addAll(List.of(userId, terme));
+            }
+        }
+        parametres.add(taille);
+        String sql = "SELECT d.entite, d.id_entite, d.id_projet, d.libelle FROM search_document d JOIN ("
+                + String.join(" INTERSECT ", parcours) + ") m ON m.entite = d.entite AND m.id_entite = d.id_entite "
+                + "ORDER BY d.entite, d.id_entite DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, i) -> new ResultatRecherche(rs.getString("entite"),
+                rs.getLong("id_entite"), rs.getLong("id_projet"), rs.getString("libelle")), parametres.toArray());
+    }
+
+    // Écritures unitaires : l'index est modifié avant le commit, dans la transaction de l'écriture
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProjetEvent(ProjetEvent event) {
+        if (!indexation) {
+            return;
+        }
+        ProjetView avant = event.avant();
+        ProjetView apres = event.apres();
+        Set<String> anciens = avant == null ? Set.of() : Tokeniseur.tokens(avant.nom(), avant.description());
+        if (apres == null) {
+            supprimerTachesDuProjet(avant.id());
+            supprimer(PROJET, avant.id(), event.utilisateurId(), anciens);
+            return;
+        }
+        if (avant != null && Objects.equals(avant.nom(), apres.nom())
+                && Objects.equals(avant.description(), apres.description())) {
+            return;
+        }
+        indexer(PROJET, apres.id(), event.utilisateurId(), apres.id(), apres.nom(),
+                anciens, Tokeniseur.tokens(apres.nom(), apres.description()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTacheEvent(TacheEvent event) {
+        if (!indexation) {
+            return;
+        }
+        TacheView avant = event.avant();
+        TacheView apres = event.apres();
+        Set<String> anciens = avant == null ? Set.of() : Tokeniseur.tokens(avant.titre());
+        if (apres == null) {
+            supprimer(TACHE, avant.id(), event.utilisateurId(), anciens);
+            return;
+        }
+        if (avant != null && Objects.equals(avant.titre(), apres.titre())) {
+            return;
+        }
+        indexer(TACHE, apres.id(), event.utilisateurId(), apres.projetId(), apres.titre(),
+                anciens, Tokeniseur.tokens(apres.titre()));
+    }
+
+    // Lots de tâches : les tâches citées sont réindexées depuis la base (les supprimées disparaissent) ;
+    // sans liste (import), toutes les tâches des utilisateurs concernés
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTachesEnMasse(TachesEnMasseEvent event) {
+        if (!indexation) {
+            return;
+        }
+        if (event.tacheIds().isEmpty()) {
+            event.utilisateurIds().forEach(userId -> reindexer(userId, TACHE));
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Les écritures JPA du lot ne sont pas encore envoyées à la base
+            entityManager.flush();
+            List<Long> ids = new ArrayList<>(event.tacheIds());
+            for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+                reindexerTaches(ids.subList(debut, Math.min(debut + tailleLot, ids.size())));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProjetsEnMasse(ProjetsEnMasseEvent event) {
+        if (indexation) {
+            event.utilisateurIds().forEach(userId -> reindexer(userId, PROJET));
+        }
+    }
+
+    // Reconstruit l'index (projets et tâches) d'un utilisateur ; retourne le nombre de documents
+    public int reconstruire(Long userId) {
+        int documents = reindexer(userId, PROJET) + reindexer(userId, TACHE);
+        log.info("Index de recherche reconstruit pour l'utilisateur {} : {} documents", userId, documents);
+        return documents;
+    }
+
+    // Reconstruit l'index de tous les utilisateurs, une transaction par utilisateur et par type
+    public int reconstruireTout() {
+        List<Long> utilisateurs = jdbcTemplate.queryForList(
+                "SELECT id_users FROM utilisateur UNION SELECT id_users FROM search_document", Long.class);
+        int documents = 0;
+        for (Long userId : utilisateurs) {
+            documents += reconstruire(userId);
+        }
+        return documents;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruireSiDemande() {
+        if (reconstruireAuDemarrage) {
+            log.info("Reconstruction de l'index de recherche : {} documents", reconstruireTout());
+        }
+    }
+
+    private void indexer(String entite, Long id, Long userId, Long projetId, String libelle,
+                         Set<String> anciens, Set<String> nouveaux) {
+        jdbcTemplate.update(UPSERT_DOCUMENT_SQL, entite, id, userId, projetId, libelle);
+        Set<String> retires = new HashSet<>(anciens);
+        retires.removeAll(nouveaux);
+        Set<String> ajoutes = new LinkedHashSet<>(nouveaux);
+        ajoutes.removeAll(anciens);
+        ecrireTokens(DELETE_TOKEN_SQL, userId, entite, id, retires);
+        ecrireTokens(INSERT_TOKEN_SQL, userId, entite, id, ajoutes);
+    }
+
+    private void supprimer(String entite, Long id, Long userId, Set<String> tokens) {
+        ecrireTokens(DELETE_TOKEN_SQL, userId, entite, id, tokens);
+        jdbcTemplate.update("DELETE FROM search_document WHERE entite = ? AND id_entite = ?", entite, id);
+    }
+
+    private void ecrireTokens(String sql, Long userId, String entite, Long id, Collection<String> tokens) {
+        if (!tokens.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, tokens.stream()
+                    .map(token -> new Object[]{userId, token, entite, id}).toList());
+        }
+    }
+
+    // Le titre d'une tâche indexée est conservé dans son document : ses mots se retrouvent sans relire la tâche
+    private void supprimerTachesDuProjet(Long projetId) {
+        List<Object[]> tokens = new ArrayList<>();
+        jdbcTemplate.query("SELECT id_entite, id_users, libelle FROM search_document WHERE id_projet = ? AND entite = ?",
+                rs -> {
+                    for (String token : Tokeniseur.tokens(rs.getString("libelle"))) {
+                        tokens.add(new Object[]{rs.getLong("id_users"), token, TACHE, rs.getLong("id_entite")});
+                    }
+                }, projetId, TACHE);
+        if (!tokens.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_TOKEN_SQL, tokens);
+            jdbcTemplate.update("DELETE FROM search_document WHERE id_projet = ? AND entite = ?", projetId, TACHE);
+        }
+    }
+
+    private void reindexerTaches(List<Long> ids) {
+        String liste = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametres = ids.toArray();
+        List<Object[]> anciens = new ArrayList<>();
+        jdbcTemplate.query("SELECT id_entite, id_users, libelle FROM search_document WHERE entite = '" + TACHE
+                + "' AND id_entite IN (" + liste + ")", rs -> {
+                    for (String token : Tokeniseur.tokens(rs.getString("libelle"))) {
+                        anciens.add(new Object[]{rs.getLong("id_users"), token, TACHE, rs.getLong("id_entite")});
+                    }
+                }, parametres);
+        if (!anciens.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_TOKEN_SQL, anciens);
+        }
+        jdbcTemplate.update("DELETE FROM search_document WHERE entite = '" + TACHE + "' AND id_entite IN (" + liste + ")",
+                parametres);
+        Lot lot = new Lot();
+        jdbcTemplate.query("SELECT t.id_task, t.titre_task, t.id_projets, p.id_users FROM tache t "
+                + "JOIN projet p ON p.id_projet = t.id_projets WHERE t.id_task IN (" + liste + ") AND NOT p.supprime", rs -> {
+                    lot.ajouter(TACHE, rs.getLong("id_task"), rs.getLong("id_users"), rs.getLong("id_projets"),
+                            rs.getString("titre_task"), Tokeniseur.tokens(rs.getString("titre_task")));
+                }, parametres);
+        lot.ecrire();
+    }
+
+    // Réindexe tous les projets ou toutes les tâches d'un utilisateur : suppression puis réinsertion en lots
+    private int reindexer(Long userId, String entite) {
+        Integer documents = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("DELETE FROM search_token WHERE id_users = ? AND entite = ?", userId, entite);
+            jdbcTemplate.update("DELETE FROM search_document WHERE id_users = ? AND entite = ?", userId, entite);
+            Lot lot = new Lot();
+            if (PROJET.equals(entite)) {
+                jdbcTemplate.query(PROJETS_UTILISATEUR_SQL, rs -> {
+                    long id = rs.getLong("id_projet");
+                    String nom = rs.getString("nom_projet");
+                    lot.ajouter(PROJET, id, userId, id, nom, Tokeniseur.tokens(nom, rs.getString("description_projet")));
+                }, userId);
+            } else {
+                jdbcTemplate.query(TACHES_UTILISATEUR_SQL, rs -> {
+                    String titre = rs.getString("titre_task");
+                    lot.ajouter(TACHE, rs.getLong("id_task"), userId, rs.getLong("id_projets"), titre,
+                            Tokeniseur.tokens(titre));
+                }, userId);
+            }
+            lot.ecrire();
+            return lot.total;
+        });
+        return documents == null ? 0 : documents;
+    }
+
+    // Documents et mots à insérer, envoyés en lots JDBC par paquets de tailleLot documents
+    private final class Lot {
+        private final List<Object[]> documents = new ArrayList<>();
+        private final List<Object[]> tokens = new ArrayList<>();
+        private int total;
+
+        void ajouter(String entite, long id, long userId, long projetId, String libelle, Set<String> mots) {
+            documents.add(new Object[]{entite, id, userId, projetId, libelle});
+            for (String mot : mots) {
+                tokens.add(new Object[]{userId, mot, entite, id});
+            }
+            total++;
+            if (documents.size() >= tailleLot) {
+                ecrire();
+            }
+        }
+
+        void ecrire() {
+            if (!documents.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_DOCUMENT_SQL, documents);
+                documents.clear();
+            }
+            if (!tokens.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TOKEN_SQL, tokens);
+                tokens.clear();
+            }
+        }
+    }
+}
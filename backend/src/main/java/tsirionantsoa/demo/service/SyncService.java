@@ -0,0 +1,75 @@
+package tsirionantsoa.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import tsirionantsoa.demo.dto.SyncResponse;
+import tsirionantsoa.demo.repository.ProjetRepository;
+import tsirionantsoa.demo.repository.SuppressionRepository;
+import tsirionantsoa.demo.repository.TacheRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Synchronisation incrémentale : projets et tâches écrits, et suppressions, depuis le dernier appel.
+// L'horodatage d'une écriture est pris avant son commit : une transaction encore ouverte peut valider
+// plus tard une ligne d'horodatage antérieur. Les réponses s'arrêtent donc à "maintenant - délai" ;
+// ce qui est plus récent sera renvoyé à l'appel suivant, rien n'est manqué.
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private SuppressionRepository suppressionRepository;
+
+    // Marge couvrant la durée d'une transaction d'écriture (et l'écart d'horloge entre instances)
+    @Value("${app.sync.delai-ms:5000}")
+    private long delaiMs;
+
+    // Conservation des traces de suppression ; un curseur plus ancien impose une synchronisation complète
+    @Value("${app.sync.retention-jours:30}")
+    private long retentionJours;
+
+    // Lectures dans un même instantané (REPEATABLE READ) : projets, tâches et suppressions sont cohérents
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse synchroniser(Long userId, Instant depuis) {
+        Instant maintenant = Instant.now();
+        Instant jusqua = maintenant.minusMillis(delaiMs);
+        boolean complet = depuis == null || depuis.isBefore(maintenant.minus(Duration.ofDays(retentionJours)));
+        if (complet) {
+            return new SyncResponse(jusqua, true,
+                    projetRepository.findViewsModifiees(userId, Instant.EPOCH, jusqua),
+                    tacheRepository.findViewsModifiees(userId, Instant.EPOCH, jusqua),
+                    List.of());
+        }
+        if (!depuis.isBefore(jusqua)) {
+            // Appel trop rapproché : rien de sûr à renvoyer, le curseur ne recule pas
+            return new SyncResponse(depuis, false, List.of(), List.of(), List.of());
+        }
+        return new SyncResponse(jusqua, false,
+                projetRepository.findViewsModifiees(userId, depuis, jusqua),
+                tacheRepository.findViewsModifiees(userId, depuis, jusqua),
+                suppressionRepository.findViewsByUtilisateur(userId, depuis, jusqua));
+    }
+
+    // Purge quotidienne des traces de suppression au-delà de la rétention
+    @Scheduled(cron = "${app.sync.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purger() {
+        int supprimees = suppressionRepository.purger(Instant.now().minus(Duration.ofDays(retentionJours)));
+        log.info("{} traces de suppression purgées", supprimees);
+    }
+}
@@ -1,26 +1,90 @@
 package tsirionantsoa.demo.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tsirionantsoa.demo.cache.EntityCaches;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.MergePatch;
+import tsirionantsoa.demo.dto.ProprietaireProjet;
+import tsirionantsoa.demo.dto.TacheBatchDTO;
 import tsirionantsoa.demo.dto.TacheDTO;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+import tsirionantsoa.demo.model.PrioriteTache;
 import tsirionantsoa.demo.model.Projet;
+import tsirionantsoa.demo.model.StatutTache;
 import tsirionantsoa.demo.model.Tache;
 import tsirionantsoa.demo.repository.ProjetRepository;
+import tsirionantsoa.demo.repository.SuppressionRepository;
 import tsirionantsoa.demo.repository.TacheRepository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class TacheService {
 
+    // Champs modifiables par PATCH
+    private static final Set<String> CHAMPS_PATCH = Set.of("titre", "priorite", "echeance", "status");
+
+    // Lignes rattachées à une tâche (id_task) et supprimées avec elle : sauvegardes de chronomètres, échéances
+    private static final List<String> TABLES_ANNEXES = List.of("active_timer", "deadline_outbox");
+
+    // Temps enregistré (entrées et cumuls des rapports) : une tâche qui en porte ne se supprime pas,
+    // seule la purge de son projet ou de son compte l'efface
+    private static final List<String> TABLES_TEMPS = List.of("time_entry", "time_rollup");
+
     @Autowired
     private TacheRepository tacheRepository;
 
     @Autowired
     private ProjetRepository projetRepository;
 
+    @Autowired
+    private SuppressionRepository suppressionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityCaches entityCaches;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Même valeur que hibernate.jdbc.batch_size : on vide le contexte de persistance à chaque lot
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Nombre maximal de tâches par requête groupée
+    @Value("${app.taches.batch-max:5000}")
+    private int batchMax;
+
     // Ajouter tache
     public Tache createTache(TacheDTO tacheDTO, Long projetId) {
 
@@ -33,29 +97,53 @@ public class TacheService {
         tache.setTitre(tacheDTO.getTitre());
         tache.setPriorite(tacheDTO.getPriorite());
         tache.setEcheance(tacheDTO.getEcheance());
-        tache.setStatus(tacheDTO.getStatus());
+        tache.setStatus(StatutTache.ouDefaut(tacheDTO.getStatus()));
 
         tache.setProjet(projetOpt.get());
         tache.setDateCreation(LocalDate.now());
         tache.setDateModification(LocalDate.now());
 
-        return tacheRepository.save(tache);
+        Tache savedTache = tacheRepository.save(tache);
+        eventPublisher.publishEvent(TacheEvent.creation(projetOpt.get().getUtilisateur().getId(), TacheView.from(savedTache)));
+        return savedTache;
     }
 
     // Détails sur un tache
-    public Optional<Tache> findTacheById(Long id) {
-        return tacheRepository.findById(id);
+    public Optional<TacheView> findTacheById(Long id) {
+        return Optional.ofNullable(entityCaches.taches().get(id, k -> tacheRepository.findViewById(k).orElse(null)));
     }
 
     // Liste des taches par projet
-    public List<Tache> findTachesByProjet(Long projetId) {
-        return tacheRepository.findByProjetId(projetId);
+    public List<TacheView> findTachesByProjet(Long projetId) {
+        return tacheRepository.findViewsByProjetId(projetId);
+    }
+
+    // Page de tâches d'un projet (pagination par curseur sur l'ID)
+    public CursorPage<TacheView> pageTachesByProjet(Long projetId, String cursor, Integer size) {
+        int taille = CursorPage.taille(size);
+        List<TacheView> lignes = tacheRepository.findPageViewsByProjetId(
+                projetId, CursorPage.decode(cursor), PageRequest.of(0, taille + 1));
+        return CursorPage.of(lignes, taille, TacheView::id);
     }
 
-    // Mettre à jour une tâche
-    public Tache updateTache(Long id, Tache tacheDetails) {
-        return tacheRepository.findById(id)
+    // Version composée (tâche + projet) pour l'ETag : lue dans le cache, sinon seule en base
+    public Optional<Long> findVersionById(Long id) {
+        TacheView vue = entityCaches.taches().getIfPresent(id);
+        return vue != null ? Optional.of(vue.versionComposee()) : tacheRepository.findVersionById(id);
+    }
+
+    // Empreinte de la liste des tâches d'un projet pour l'ETag (un seul agrégat SQL)
+    public Empreinte empreinteTachesByProjet(Long projetId) {
+        return tacheRepository.empreinteByProjetId(projetId);
+    }
+
+    // Mettre à jour une tâche. versionAttendue (If-Match, facultative) : version composée lue par le client,
+    // refus si la tâche ou son projet a changé depuis ; @Version couvre une modification concurrente
+    public Tache updateTache(Long id, Tache tacheDetails, Long versionAttendue) {
+        return tacheRepository.findWithProjetById(id)
                 .map(tache -> {
+                    TacheView avant = TacheView.from(tache);
+                    verifierVersion(avant, versionAttendue);
                     tache.setTitre(tacheDetails.getTitre());
                     tache.setPriorite(tacheDetails.getPriorite());
                     tache.setEcheance(tacheDetails.getEcheance());
@@ -64,28 +152,228 @@ public class TacheService {
                     // Si vous voulez changer le projet ou l'utilisateur assigné,
                     // vous devez gérer la recherche et l'assignation ici.
 
-                    return tacheRepository.save(tache);
+                    Tache savedTache = tacheRepository.save(tache);
+                    eventPublisher.publishEvent(TacheEvent.modification(
+                            tache.getProjet().getUtilisateur().getId(), avant, TacheView.from(savedTache)));
+                    return savedTache;
                 })
                 .orElseThrow(() -> new RuntimeException("Tâche non trouvée avec l'ID: " + id));
     }
 
-    // DELETE (Supprimer une tâche)
+    // Modification partielle (JSON Merge Patch) : seuls les champs présents changent, null efface la valeur
+    // (sauf le titre, obligatoire). Avec @DynamicUpdate, l'UPDATE n'écrit que les colonnes modifiées ;
+    // un patch sans effet n'écrit rien et ne touche pas la date de modification.
+    @Transactional
+    public TacheView patchTache(Long id, JsonNode corps, Long versionAttendue) {
+        MergePatch patch = MergePatch.of(corps, CHAMPS_PATCH);
+        Tache tache = tacheRepository.findWithProjetById(id)
+                .orElseThrow(() -> new RuntimeException("Tâche non trouvée avec l'ID: " + id));
+        TacheView avant = TacheView.from(tache);
+        verifierVersion(avant, versionAttendue);
+        if (patch.contient("titre")) {
+            tache.setTitre(patch.texteRequis("titre", "Le titre de la tâche est requis"));
+        }
+        if (patch.contient("priorite")) {
+            tache.setPriorite(PrioriteTache.parse(patch.texte("priorite")));
+        }
+        if (patch.contient("echeance")) {
+            tache.setEcheance(patch.date("echeance"));
+        }
+        if (patch.contient("status")) {
+            tache.setStatus(StatutTache.parse(patch.texte("status")));
+        }
+        if (TacheView.from(tache).equals(avant)) {
+            return avant;
+        }
+        tache.setDateModification(LocalDate.now());
+        // Écriture immédiate : la vue renvoyée porte la nouvelle version
+        tacheRepository.flush();
+        TacheView apres = TacheView.from(tache);
+        eventPublisher.publishEvent(TacheEvent.modification(tache.getProjet().getUtilisateur().getId(), avant, apres));
+        return apres;
+    }
+
+    // If-Match : version composée (tâche + projet) lue par le client
+    private void verifierVersion(TacheView tache, Long versionAttendue) {
+        if (versionAttendue != null && versionAttendue != tache.versionComposee()) {
+            throw new OptimisticLockingFailureException("La tâche " + tache.id()
+                    + " a été modifiée entre-temps (version " + tache.versionComposee() + ")");
+        }
+    }
+
+    // DELETE (Supprimer une tâche), avec sa trace pour la synchronisation. Refusée si du temps y est enregistré.
+    @Transactional
     public void deleteTache(Long id) {
-        if (!tacheRepository.existsById(id)) {
-            throw new RuntimeException("Tâche non trouvée avec l'ID: " + id);
+        Tache tache = tacheRepository.findWithProjetById(id)
+                .orElseThrow(() -> new RuntimeException("Tâche non trouvée avec l'ID: " + id));
+        TacheView avant = TacheView.from(tache);
+        verifierSansTemps(List.of(id));
+        suppressionRepository.enregistrerTaches(List.of(id), Instant.now());
+        supprimer(TABLES_ANNEXES, List.of(id));
+        tacheRepository.delete(tache);
+        eventPublisher.publishEvent(TacheEvent.suppression(tache.getProjet().getUtilisateur().getId(), avant));
+    }
+
+    // Créer des tâches en lot : une requête pour valider les projets, puis INSERT en lots JDBC
+    @Transactional
+    public List<Long> createTaches(List<TacheBatchDTO> tachesDTO) {
+        verifierTailleLot(tachesDTO);
+
+        Set<Long> projetIds = new HashSet<>();
+        for (TacheBatchDTO dto : tachesDTO) {
+            if (dto.getProjetId() == null) {
+                throw new RuntimeException("L'ID du projet est requis pour chaque tâche");
+            }
+            projetIds.add(dto.getProjetId());
+        }
+        Set<Long> existants = new HashSet<>();
+        Set<Long> utilisateurIds = new HashSet<>();
+        for (ProprietaireProjet p : projetRepository.findProprietaires(projetIds)) {
+            existants.add(p.projetId());
+            utilisateurIds.add(p.utilisateurId());
+        }
+        for (Long projetId : projetIds) {
+            if (!existants.contains(projetId)) {
+                throw new RuntimeException("Projet non trouvé avec l'ID: " + projetId);
+            }
+        }
+
+        LocalDate aujourdHui = LocalDate.now();
+        List<Long> ids = new ArrayList<>(tachesDTO.size());
+        Map<Long, Projet> references = new HashMap<>();
+        for (int i = 0; i < tachesDTO.size(); i++) {
+            TacheBatchDTO dto = tachesDTO.get(i);
+            Tache tache = new Tache();
+            tache.setTitre(dto.getTitre());
+            tache.setPriorite(dto.getPriorite());
+            tache.setEcheance(dto.getEcheance());
+            tache.setStatus(StatutTache.ouDefaut(dto.getStatus()));
+            // Référence seule : pas de SELECT sur le projet
+            tache.setProjet(references.computeIfAbsent(dto.getProjetId(), projetRepository::getReferenceById));
+            tache.setDateCreation(aujourdHui);
+            tache.setDateModification(aujourdHui);
+            entityManager.persist(tache);
+            ids.add(tache.getId());
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                references.clear();
+            }
+        }
+        eventPublisher.publishEvent(new TachesEnMasseEvent(utilisateurIds, new HashSet<>(ids)));
+        return ids;
+    }
+
+    // Modifier des tâches en lot : un seul SELECT ... IN, puis UPDATE en lots JDBC.
+    // Seuls les champs fournis (non nuls) sont modifiés.
+    @Transactional
+    public int updateTaches(List<TacheBatchDTO> tachesDTO) {
+        verifierTailleLot(tachesDTO);
+
+        Map<Long, TacheBatchDTO> parId = new HashMap<>();
+        for (TacheBatchDTO dto : tachesDTO) {
+            if (dto.getId() == null) {
+                throw new RuntimeException("L'ID est requis pour chaque tâche à modifier");
+            }
+            parId.put(dto.getId(), dto);
+        }
+        List<Tache> taches = tacheRepository.findAllById(parId.keySet());
+        if (taches.size() != parId.size()) {
+            throw new RuntimeException("Tâches non trouvées: " + (parId.size() - taches.size()));
+        }
+
+        LocalDate aujourdHui = LocalDate.now();
+        for (Tache tache : taches) {
+            TacheBatchDTO dto = parId.get(tache.getId());
+            if (dto.getTitre() != null) {
+                tache.setTitre(dto.getTitre());
+            }
+            if (dto.getPriorite() != null) {
+                tache.setPriorite(dto.getPriorite());
+            }
+            if (dto.getEcheance() != null) {
+                tache.setEcheance(dto.getEcheance());
+            }
+            if (dto.getStatus() != null) {
+                tache.setStatus(dto.getStatus());
+            }
+            tache.setDateModification(aujourdHui);
+        }
+        // Les UPDATE partent en lots au flush (hibernate.order_updates)
+        eventPublisher.publishEvent(new TachesEnMasseEvent(
+                new HashSet<>(tacheRepository.findUtilisateurIdsByTacheIds(parId.keySet())), parId.keySet()));
+        return taches.size();
+    }
+
+    // Supprimer des tâches en lot : un seul DELETE ... WHERE id IN (...), précédé d'un seul INSERT des traces.
+    // Refusée en entier si du temps est enregistré sur l'une des tâches.
+    @Transactional
+    public int deleteTaches(List<Long> ids) {
+        verifierTailleLot(ids);
+        Set<Long> distincts = new HashSet<>(ids);
+        verifierSansTemps(distincts);
+        Set<Long> utilisateurIds = new HashSet<>(tacheRepository.findUtilisateurIdsByTacheIds(distincts));
+        suppressionRepository.enregistrerTaches(distincts, Instant.now());
+        supprimer(TABLES_ANNEXES, distincts);
+        tacheRepository.deleteAllByIdInBatch(distincts);
+        eventPublisher.publishEvent(new TachesEnMasseEvent(utilisateurIds, distincts));
+        return distincts.size();
+    }
+
+    // Purge d'un projet ou d'un compte (voir PurgeService) : entrées de temps, cumuls, sauvegardes de chronomètres
+    // et échéances des tâches, dans la transaction de l'appelant, avant le DELETE des tâches elles-mêmes.
+    // Les chronomètres en mémoire ne s'arrêtent qu'après validation (ChronoService.onTachesEnMasse).
+    // Retourne le nombre de lignes supprimées.
+    public long supprimerDependances(Collection<Long> ids) {
+        return supprimer(TABLES_TEMPS, ids) + supprimer(TABLES_ANNEXES, ids);
+    }
+
+    private long supprimer(List<String> tables, Collection<Long> ids) {
+        String liste = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametres = ids.toArray();
+        long lignes = 0;
+        for (String table : tables) {
+            lignes += jdbcTemplate.update("DELETE FROM " + table + " WHERE id_task IN (" + liste + ")", parametres);
+        }
+        return lignes;
+    }
+
+    // Le temps enregistré sert aux rapports et à la facturation : il n'est jamais effacé par une suppression
+    // ordinaire (fk_time_entry_tache refuserait de toute façon le DELETE de la tâche)
+    private void verifierSansTemps(Collection<Long> ids) {
+        String liste = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Long> avecTemps = jdbcTemplate.queryForList("SELECT id_task FROM time_entry WHERE id_task IN ("
+                + liste + ") UNION SELECT id_task FROM time_rollup WHERE id_task IN (" + liste + ") "
+                + "ORDER BY 1", Long.class, Stream.concat(ids.stream(), ids.stream()).toArray());
+        if (!avecTemps.isEmpty()) {
+            throw new DataIntegrityViolationException("Suppression impossible : du temps est enregistré sur les tâches "
+                    + avecTemps);
+        }
+    }
+
+    private void verifierTailleLot(List<?> lot) {
+        if (lot == null || lot.isEmpty()) {
+            throw new RuntimeException("La liste des tâches est vide");
+        }
+        if (lot.size() > batchMax) {
+            throw new RuntimeException("Trop de tâches dans le lot (maximum " + batchMax + ")");
         }
-        tacheRepository.deleteById(id);
     }
 
     // Affiche le nombre de tâches terminées.
     public long nbTachesTermineesParUtilisateur(Long utilisateurId) {
-        // Remplacez "TERMINÉ" par la valeur exacte de votre statut.
-        return tacheRepository.countByProjetUtilisateurIdAndStatus(utilisateurId, "TERMINÉ");
+        return tacheRepository.countByProjetUtilisateurIdAndStatus(utilisateurId, StatutTache.TERMINE);
     }
 
     // Affiche le nombre de tâches en cours.
     public long nbTachesEnCoursParUtilisateur(Long utilisateurId) {
-        // Remplacez "EN_COURS" par la valeur exacte de votre statut.
-        return tacheRepository.countByProjetUtilisateurIdAndStatus(utilisateurId, "EN_COURS");
+        return tacheRepository.countByProjetUtilisateurIdAndStatus(utilisateurId, StatutTache.EN_COURS);
+    }
+
+    // Tâches non terminées d'un utilisateur, par échéance (sans échéance à la fin) :
+    // lues dans l'index partiel des tâches ouvertes, les tâches terminées ne sont pas parcourues
+    public List<TacheView> findTachesOuvertesByUtilisateur(Long utilisateurId) {
+        return tacheRepository.findOuvertesByUtilisateurId(utilisateurId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package tsirionantsoa.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tsirionantsoa.demo.dto.TacheProjet;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.dto.TimeEntryView;
+import tsirionantsoa.demo.repository.TacheRepository;
+import tsirionantsoa.demo.repository.TimeEntryRepository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class TimeEntryService {
+
+    private static final String INSERT_SQL = "INSERT INTO time_entry "
+            + "(debut_entry, fin_entry, duree_entry, description_entry, datecreation_entry, id_task, id_users) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private RapportService rapportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Taille des lots JDBC (avec reWriteBatchedInserts, un lot = un INSERT multi-lignes)
+    @Value("${app.time-entries.batch-size:500}")
+    private int batchSize;
+
+    // Enregistrer des entrées de temps (ajout seul, par lots JDBC) et mettre à jour les cumuls des rapports
+    @Transactional
+    public int ingest(List<TimeEntryDTO> entries, Long userId) {
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> tacheIds = new HashSet<>();
+        for (TimeEntryDTO entry : entries) {
+            normaliser(entry);
+            tacheIds.add(entry.getTacheId());
+        }
+
+        // Une seule requête pour vérifier que toutes les tâches appartiennent à l'utilisateur (et lire leur projet)
+        Map<Long, Long> projetParTache = new HashMap<>();
+        for (TacheProjet tp : tacheRepository.findTacheProjetsByUtilisateur(tacheIds, userId)) {
+            projetParTache.put(tp.tacheId(), tp.projetId());
+        }
+        for (Long tacheId : tacheIds) {
+            if (!projetParTache.containsKey(tacheId)) {
+                throw new RuntimeException("Tâche non trouvée pour l'utilisateur " + userId + " avec l'ID: " + tacheId);
+            }
+        }
+
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        java.sql.Date aujourdHui = java.sql.Date.valueOf(maintenant.toLocalDateTime().toLocalDate());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.getDebut()));
+            ps.setTimestamp(2, Timestamp.valueOf(entry.getFin()));
+            ps.setLong(3, entry.getDureeSecondes());
+            if (entry.getDescription() != null) {
+                ps.setString(4, entry.getDescription());
+            } else {
+                ps.setNull(4, Types.VARCHAR);
+            }
+            ps.setDate(5, aujourdHui);
+            ps.setLong(6, entry.getTacheId());
+            ps.setLong(7, userId);
+        });
+        rapportService.cumuler(entries, projetParTache, userId);
+        return entries.size();
+    }
+
+    // Entrées d'un utilisateur entre deux dates (incluses)
+    public List<TimeEntryView> findByUtilisateur(Long userId, LocalDate debut, LocalDate fin) {
+        return timeEntryRepository.findViewsByUtilisateur(userId, debut.atStartOfDay(), fin.plusDays(1).atStartOfDay());
+    }
+
+    // Entrées d'une tâche, si elle appartient à un projet de l'utilisateur
+    public List<TimeEntryView> findByTache(Long tacheId, Long userId) {
+        return timeEntryRepository.findViewsByTacheAndUtilisateur(tacheId, userId);
+    }
+
+    // Vérifie une entrée et complète "fin" ou la durée à partir de l'autre
+    private void normaliser(TimeEntryDTO entry) {
+        if (entry.getTacheId() == null) {
+            throw new RuntimeException("L'ID de la tâche est requis");
+        }
+        if (entry.getDebut() == null) {
+            throw new RuntimeException("La date de début est requise");
+        }
+        if (entry.getFin() == null && entry.getDureeSecondes() == null) {
+            throw new RuntimeException("La fin ou la durée est requise");
+        }
+        if (entry.getFin() == null) {
+            entry.setFin(entry.getDebut().plusSeconds(entry.getDureeSecondes()));
+        } else if (entry.getDureeSecondes() == null) {
+            entry.setDureeSecondes(Duration.between(entry.getDebut(), entry.getFin()).getSeconds());
+        }
+        if (entry.getDureeSecondes() < 0 || entry.getFin().isBefore(entry.getDebut())) {
+            throw new RuntimeException("La fin doit être postérieure au début");
+        }
+        // Durée plus courte que l'intervalle admise (pauses d'un chronomètre), jamais plus longue
+        if (entry.getDureeSecondes() > Duration.between(entry.getDebut(), entry.getFin()).getSeconds()) {
+            throw new RuntimeException("La durée dépasse l'intervalle entre le début et la fin");
+        }
+    }
+}
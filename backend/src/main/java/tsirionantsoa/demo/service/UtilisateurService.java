@@ -1,17 +1,50 @@
 package tsirionantsoa.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import tsirionantsoa.demo.dto.CursorPage;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.FiltreUtilisateurs;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.dto.UtilisateurResume;
 import tsirionantsoa.demo.model.Utilisateur;
+import tsirionantsoa.demo.recherche.Tokeniseur;
 import tsirionantsoa.demo.repository.UtilisateurRepository;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UtilisateurService {
 
+    // Colonne de tri de la liste d'administration : même expression que l'index qui la sert (V6)
+    private enum Tri {
+        ID("u.id"),
+        EMAIL("lower(u.email) COLLATE \"C\""),
+        DATE_CREATION("u.date_creation");
+
+        private final String expression;
+
+        Tri(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    // Projets et tâches de chaque utilisateur d'une page, en une seule agrégation
+    private static final String COMPTEURS_SQL = "SELECT p.id_users, count(DISTINCT p.id_projet) AS nb_projets, "
+            + "count(t.id_task) AS nb_taches FROM projet p LEFT JOIN tache t ON t.id_projets = p.id_projet "
+            + "WHERE p.id_users IN (%s) AND NOT p.supprime GROUP BY p.id_users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
     
@@ -19,9 +52,15 @@ public class UtilisateurService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private PurgeService purgeService;
+
     // CREATE (Créer un nouvel utilisateur avec hachage) - Utilisé pour l'inscription
     public Utilisateur registerUtilisateur(Utilisateur utilisateur) {
-        if (utilisateurRepository.findByEmail(utilisateur.getEmail()).isPresent()) {
+        if (utilisateurRepository.countByEmailSupprimesCompris(utilisateur.getEmail()) > 0) {
             throw new RuntimeException("Email déjà utilisé: " + utilisateur.getEmail());
         }
 
@@ -35,7 +74,9 @@ public class UtilisateurService {
              utilisateur.setRole("USER"); // Rôle par défaut
         }
 
-        return utilisateurRepository.save(utilisateur);
+        Utilisateur savedUtilisateur = utilisateurRepository.save(utilisateur);
+        dashboardService.utilisateurAjoute();
+        return savedUtilisateur;
     }
 
     // LOGIN (Vérifier les identifiants)
@@ -57,11 +98,139 @@ public class UtilisateurService {
         return utilisateurRepository.findAll();
     }
 
+    // Liste d'administration : page keyset filtrée et triée, colonnes utiles seulement, puis compteurs de la page.
+    // Le curseur porte la colonne de tri, sa valeur et l'ID de la dernière ligne ("tri|valeur|id").
+    public CursorPage<UtilisateurResume> pageUtilisateurs(FiltreUtilisateurs filtre, String tri, String ordre,
+                                                          String cursor, Integer size) {
+        Tri colonne = tri(tri);
+        boolean desc = desc(ordre);
+        int taille = CursorPage.taille(size);
+
+        // Comptes masqués en attente de purge exclus, comme pour les lectures JPA
+        List<String> conditions = new ArrayList<>(List.of("NOT u.supprime"));
+        List<Object> parametres = new ArrayList<>();
+        if (filtre.role() != null && !filtre.role().isBlank()) {
+            conditions.add("u.role = ?");
+            parametres.add(filtre.role().trim().toUpperCase(Locale.ROOT));
+        }
+        if (filtre.email() != null && !filtre.email().isBlank()) {
+            // "commence par" en intervalle [préfixe, borne) : parcours de idx_utilisateur_email_prefixe
+            String prefixe = filtre.email().trim().toLowerCase(Locale.ROOT);
+            conditions.add(Tri.EMAIL.expression + " >= ? AND " + Tri.EMAIL.expression + " < ?");
+            parametres.add(prefixe);
+            parametres.add(Tokeniseur.borneSuperieure(prefixe));
+        }
+        if (filtre.creeDepuis() != null) {
+            conditions.add("u.date_creation >= ?");
+            parametres.add(filtre.creeDepuis());
+        }
+        if (filtre.creeAvant() != null) {
+            conditions.add("u.date_creation < ?");
+            parametres.add(filtre.creeAvant());
+        }
+        String cle = CursorPage.decodeCle(cursor);
+        if (cle != null) {
+            int debut = cle.indexOf('|');
+            int fin = cle.lastIndexOf('|');
+            if (debut < 0 || debut == fin || !cle.substring(0, debut).equals(colonne.name())) {
+                throw new RuntimeException("Curseur de pagination invalide pour ce tri: " + cursor);
+            }
+            conditions.add("(" + colonne.expression + ", u.id) " + (desc ? "<" : ">") + " (?, ?)");
+            try {
+                parametres.add(valeurCurseur(colonne, cle.substring(debut + 1, fin)));
+                parametres.add(Long.parseLong(cle.substring(fin + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Curseur de pagination invalide: " + cursor);
+            }
+        }
+        parametres.add(taille + 1);
+
+        String sens = desc ? " DESC" : " ASC";
+        String sql = "SELECT u.id, u.nom, u.email, u.role, u.date_creation FROM utilisateur u"
+                + " WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY " + colonne.expression + sens + ", u.id" + sens + " LIMIT ?";
+        List<UtilisateurResume> lignes = jdbcTemplate.query(sql, (rs, i) -> new UtilisateurResume(rs.getLong("id"),
+                rs.getString("nom"), rs.getString("email"), rs.getString("role"),
+                rs.getObject("date_creation", LocalDate.class), 0, 0), parametres.toArray());
+
+        CursorPage<UtilisateurResume> page = CursorPage.parCle(lignes, taille,
+                u -> colonne.name() + "|" + valeurTri(colonne, u) + "|" + u.id());
+        return new CursorPage<>(avecCompteurs(page.items()), page.nextCursor(), page.hasMore());
+    }
+
+    private List<UtilisateurResume> avecCompteurs(List<UtilisateurResume> utilisateurs) {
+        if (utilisateurs.isEmpty()) {
+            return utilisateurs;
+        }
+        Map<Long, long[]> compteurs = new HashMap<>();
+        jdbcTemplate.query(String.format(COMPTEURS_SQL, String.join(", ", Collections.nCopies(utilisateurs.size(), "?"))),
+                rs -> {
+                    compteurs.put(rs.getLong("id_users"), new long[]{rs.getLong("nb_projets"), rs.getLong("nb_taches")});
+                }, utilisateurs.stream().map(UtilisateurResume::id).toArray());
+        return utilisateurs.stream().map(u -> {
+            long[] nb = compteurs.getOrDefault(u.id(), new long[2]);
+            return u.avecCompteurs(nb[0], nb[1]);
+        }).toList();
+    }
+
+    private static Tri tri(String tri) {
+        if (tri == null || tri.isBlank()) {
+            return Tri.ID;
+        }
+        return switch (tri.trim()) {
+            case "id" -> Tri.ID;
+            case "email" -> Tri.EMAIL;
+            case "dateCreation" -> Tri.DATE_CREATION;
+            default -> throw new RuntimeException("Tri inconnu: " + tri + " (id, email ou dateCreation)");
+        };
+    }
+
+    private static boolean desc(String ordre) {
+        if (ordre == null || ordre.isBlank() || ordre.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (ordre.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new RuntimeException("Ordre inconnu: " + ordre + " (asc ou desc)");
+    }
+
+    private static String valeurTri(Tri colonne, UtilisateurResume u) {
+        return switch (colonne) {
+            case ID -> String.valueOf(u.id());
+            case EMAIL -> u.email().toLowerCase(Locale.ROOT);
+            case DATE_CREATION -> u.dateCreation().toString();
+        };
+    }
+
+    private static Object valeurCurseur(Tri colonne, String valeur) {
+        return switch (colonne) {
+            case ID -> Long.parseLong(valeur);
+            case EMAIL -> valeur;
+            case DATE_CREATION -> LocalDate.parse(valeur);
+        };
+    }
+
     // READ (Trouver un utilisateur par ID)
     public Optional<Utilisateur> findUtilisateurById(Long id) {
         return utilisateurRepository.findById(id);
     }
 
+    // Version d'un utilisateur pour l'ETag, sans le charger
+    public Optional<Long> findVersionById(Long id) {
+        return utilisateurRepository.findVersionById(id);
+    }
+
+    // Empreinte de la liste des utilisateurs pour l'ETag
+    public Empreinte empreinteUtilisateurs() {
+        return utilisateurRepository.empreinte();
+    }
+
+    // DELETE (Supprimer un utilisateur) : masqué aussitôt avec ses projets, purgé en arrière-plan par tranches
+    public PurgeProgress deleteUtilisateur(Long id) {
+        return purgeService.supprimerUtilisateur(id);
+    }
+
     //AFFICHER DASHBOARD
     public long nbUtilisateursTotal() {
         return utilisateurRepository.count();
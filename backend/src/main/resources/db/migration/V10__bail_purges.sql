@@ -0,0 +1,12 @@
+-- Une purge (voir PurgeService) n'est exécutée que par l'instance qui tient son bail, renouvelé entre deux
+-- tranches et à chaque passage de reprise. Une purge dont le bail a expiré (instance arrêtée) est reprise par
+-- une autre ; la ligne est effacée à la fin de la purge.
+CREATE TABLE purge_bail (
+    cible VARCHAR(16) NOT NULL,
+    id_cible BIGINT NOT NULL,
+    instance_purge VARCHAR(255) NOT NULL,
+    bail_purge TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (cible, id_cible)
+);
+
+CREATE INDEX idx_purge_bail_instance ON purge_bail (instance_purge);
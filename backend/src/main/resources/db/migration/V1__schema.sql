@@ -0,0 +1,95 @@
+-- Schéma initial : tables des entités JPA (vérifié au démarrage par spring.jpa.hibernate.ddl-auto=validate).
+-- Les séquences avancent de 50 comme allocationSize : Hibernate et l'import réservent des blocs d'IDs.
+
+CREATE SEQUENCE projet_id_projet_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tache_id_task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE utilisateur (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nom           VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    mot_de_passe  VARCHAR(255) NOT NULL,
+    date_creation DATE         NOT NULL,
+    role          VARCHAR(255) NOT NULL,
+    version       BIGINT       NOT NULL,
+    CONSTRAINT uk_utilisateur_email UNIQUE (email)
+);
+
+CREATE TABLE projet (
+    id_projet           BIGINT PRIMARY KEY,
+    nom_projet          VARCHAR(255)             NOT NULL,
+    description_projet  VARCHAR(255)             NOT NULL,
+    datedebut_projet    DATE,
+    datefin_projet      DATE,
+    datecreation_projet DATE,
+    id_users            BIGINT                   NOT NULL,
+    modifie_le          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version             BIGINT                   NOT NULL,
+    CONSTRAINT fk_projet_utilisateur FOREIGN KEY (id_users) REFERENCES utilisateur (id)
+);
+
+CREATE TABLE tache (
+    id_task               BIGINT PRIMARY KEY,
+    titre_task            VARCHAR(255)             NOT NULL,
+    priorite_task         VARCHAR(255),
+    echeance_task         DATE,
+    status                VARCHAR(255),
+    datecreation_task     DATE                     NOT NULL,
+    datemodification_task DATE,
+    id_projets            BIGINT                   NOT NULL,
+    modifie_le            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version               BIGINT                   NOT NULL,
+    CONSTRAINT fk_tache_projet FOREIGN KEY (id_projets) REFERENCES projet (id_projet)
+);
+
+CREATE TABLE time_entry (
+    id_time_entry      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    debut_entry        TIMESTAMP(6) NOT NULL,
+    fin_entry          TIMESTAMP(6) NOT NULL,
+    duree_entry        BIGINT       NOT NULL,
+    description_entry  VARCHAR(255),
+    datecreation_entry DATE         NOT NULL,
+    id_task            BIGINT       NOT NULL,
+    id_users           BIGINT       NOT NULL,
+    CONSTRAINT fk_time_entry_tache FOREIGN KEY (id_task) REFERENCES tache (id_task),
+    CONSTRAINT fk_time_entry_utilisateur FOREIGN KEY (id_users) REFERENCES utilisateur (id)
+);
+
+-- Cumuls de temps par période (voir RapportService)
+CREATE TABLE time_rollup (
+    id_rollup      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_users       BIGINT     NOT NULL,
+    granularite    VARCHAR(8) NOT NULL CHECK (granularite IN ('JOUR', 'SEMAINE', 'MOIS')),
+    debut_periode  DATE       NOT NULL,
+    id_projets     BIGINT     NOT NULL,
+    id_task        BIGINT     NOT NULL,
+    total_secondes BIGINT     NOT NULL,
+    nb_entries     BIGINT     NOT NULL,
+    CONSTRAINT uk_time_rollup_periode UNIQUE (id_users, granularite, debut_periode, id_task)
+);
+
+-- Sauvegarde des chronomètres en mémoire (voir ChronoService)
+CREATE TABLE active_timer (
+    id_timer         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_users         BIGINT       NOT NULL,
+    id_task          BIGINT       NOT NULL,
+    debut_timer      TIMESTAMP(6) NOT NULL,
+    cumul_secondes   BIGINT       NOT NULL,
+    en_cours         BOOLEAN      NOT NULL,
+    sauvegarde_timer TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_active_timer_tache UNIQUE (id_users, id_task)
+);
+
+-- Traces de suppression pour la synchronisation incrémentale (voir SyncService)
+CREATE TABLE suppression (
+    id_suppression BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entite         VARCHAR(16)              NOT NULL,
+    id_entite      BIGINT                   NOT NULL,
+    id_users       BIGINT                   NOT NULL,
+    supprime_le    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Curseurs de synchronisation (modifie_le par utilisateur / par projet)
+CREATE INDEX idx_projet_utilisateur_modifie ON projet (id_users, modifie_le);
+CREATE INDEX idx_tache_projet_modifie ON tache (id_projets, modifie_le);
+CREATE INDEX idx_suppression_utilisateur_date ON suppression (id_users, supprime_le);
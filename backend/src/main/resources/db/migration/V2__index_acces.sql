@@ -0,0 +1,16 @@
+-- Index des chemins d'accès des lectures. Les clés étrangères ne sont pas indexées automatiquement
+-- par PostgreSQL : chaque index ci-dessous commence par la colonne de jointure.
+
+-- Projets d'un utilisateur triés par ID (liste, pages keyset, empreinte de l'ETag, import)
+CREATE INDEX idx_projet_utilisateur_id ON projet (id_users, id_projet);
+
+-- Tâches d'un projet triées par ID (liste, pages keyset, empreinte de l'ETag) ;
+-- sert aussi la clé étrangère lors de la suppression d'un projet
+CREATE INDEX idx_tache_projet_id ON tache (id_projets, id_task);
+
+-- Compteurs par statut des tâches d'un utilisateur (jointure projet -> tâches d'un statut)
+CREATE INDEX idx_tache_projet_status ON tache (id_projets, status);
+
+-- Entrées de temps d'un utilisateur sur une période, et d'une tâche (clé étrangère comprise)
+CREATE INDEX idx_time_entry_utilisateur_debut ON time_entry (id_users, debut_entry);
+CREATE INDEX idx_time_entry_tache_debut ON time_entry (id_task, debut_entry);
@@ -0,0 +1,24 @@
+-- Index de recherche (GET /api/search) : un document par projet ou tâche, un mot normalisé (sans accents,
+-- en minuscules) par ligne de search_token. Tenu à jour par RechercheService dans la transaction d'écriture.
+
+CREATE TABLE search_document (
+    entite VARCHAR(16) NOT NULL,
+    id_entite BIGINT NOT NULL,
+    id_users BIGINT NOT NULL,
+    id_projet BIGINT NOT NULL,
+    libelle VARCHAR(255) NOT NULL,
+    PRIMARY KEY (entite, id_entite)
+);
+
+-- Reconstruction par utilisateur, et tâches d'un projet supprimé
+CREATE INDEX idx_search_document_utilisateur ON search_document (id_users, entite);
+CREATE INDEX idx_search_document_projet ON search_document (id_projet);
+
+-- Collation "C" : l'ordre est celui des octets, la recherche par préfixe est un simple intervalle de la clé
+CREATE TABLE search_token (
+    id_users BIGINT NOT NULL,
+    token VARCHAR(64) COLLATE "C" NOT NULL,
+    entite VARCHAR(16) NOT NULL,
+    id_entite BIGINT NOT NULL,
+    PRIMARY KEY (id_users, token, entite, id_entite)
+);
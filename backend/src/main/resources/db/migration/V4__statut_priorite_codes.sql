@@ -0,0 +1,51 @@
+-- Statut et priorité des tâches en codes smallint (voir StatutTache et PrioriteTache, codes figés) au lieu
+-- de texte libre. Les anciennes valeurs sont lues comme le fait l'API : sans accents, sans tenir compte de la
+-- casse, espaces et tirets valant "_". Un statut absent devient EN_ATTENTE (0), une priorité absente NULL.
+-- Comme l'API, la migration refuse les valeurs inconnues : elle échoue en les listant, sans rien convertir,
+-- plutôt que de les remplacer en silence. Les corriger en base puis relancer la migration.
+
+DO $$
+DECLARE
+    inconnus text;
+BEGIN
+    SELECT string_agg(format('%s %L (%s tâches)', colonne, valeur, n), ', ') INTO inconnus
+    FROM (SELECT 'statut' AS colonne, status AS valeur, count(*) AS n FROM tache
+          WHERE trim(status) <> ''
+            AND regexp_replace(upper(translate(trim(status), 'éèêëÉÈÊË', 'eeeeEEEE')), '[^A-Z0-9]+', '_', 'g')
+                NOT IN ('EN_ATTENTE', 'EN_COURS', 'TERMINE')
+          GROUP BY status
+          UNION ALL
+          SELECT 'priorité', priorite_task, count(*) FROM tache
+          WHERE trim(priorite_task) <> ''
+            AND regexp_replace(upper(translate(trim(priorite_task), 'éèêëÉÈÊË', 'eeeeEEEE')), '[^A-Z0-9]+', '_', 'g')
+                NOT IN ('BASSE', 'MOYENNE', 'HAUTE')
+          GROUP BY priorite_task) v;
+    IF inconnus IS NOT NULL THEN
+        RAISE EXCEPTION 'Valeurs de tâches inconnues, à corriger avant la migration : %', inconnus;
+    END IF;
+END
+$$;
+
+DROP INDEX idx_tache_projet_status;
+
+ALTER TABLE tache ALTER COLUMN status TYPE smallint USING
+    CASE regexp_replace(upper(translate(trim(status), 'éèêëÉÈÊË', 'eeeeEEEE')), '[^A-Z0-9]+', '_', 'g')
+        WHEN 'EN_COURS' THEN 1
+        WHEN 'TERMINE' THEN 2
+        ELSE 0
+    END;
+ALTER TABLE tache ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE tache ALTER COLUMN priorite_task TYPE smallint USING
+    CASE regexp_replace(upper(translate(trim(priorite_task), 'éèêëÉÈÊË', 'eeeeEEEE')), '[^A-Z0-9]+', '_', 'g')
+        WHEN 'BASSE' THEN 0
+        WHEN 'MOYENNE' THEN 1
+        WHEN 'HAUTE' THEN 2
+    END;
+
+-- Compteurs par statut des tâches d'un utilisateur : parcours d'index seul, sur des clés de 10 octets
+CREATE INDEX idx_tache_projet_status ON tache (id_projets, status);
+
+-- Tâches ouvertes (non terminées) d'un utilisateur par échéance : l'index ne contient que les lignes ouvertes.
+-- La requête doit reprendre la condition "status <> 2" telle quelle (voir TacheRepository)
+CREATE INDEX idx_tache_ouvertes ON tache (id_projets, echeance_task) WHERE status <> 2;
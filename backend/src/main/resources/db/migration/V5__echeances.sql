@@ -0,0 +1,19 @@
+-- Échéances des tâches (voir EcheanceService) : les rappels et retards déclenchés sont écrits dans une table
+-- d'envoi lue par les consommateurs (GET /api/echeances). Un déclenchement est unique par tâche, type et
+-- échéance : redémarrages, rechargements et instances multiples ne créent pas de doublon.
+
+CREATE TABLE deadline_outbox (
+    id_evenement BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    type_evenement VARCHAR(16) NOT NULL,
+    id_task BIGINT NOT NULL,
+    id_users BIGINT NOT NULL,
+    echeance DATE NOT NULL,
+    declenche_le TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_deadline_outbox UNIQUE (id_task, type_evenement, echeance)
+);
+
+-- Lecture des événements d'un utilisateur après un curseur
+CREATE INDEX idx_deadline_outbox_utilisateur ON deadline_outbox (id_users, id_evenement);
+
+-- Chargement d'une fenêtre d'échéances : seules les tâches ouvertes sont indexées
+CREATE INDEX idx_tache_echeance_ouvertes ON tache (echeance_task) WHERE status <> 2;
@@ -0,0 +1,8 @@
+-- Liste d'administration des utilisateurs (pages keyset filtrées et triées, cf. UtilisateurService.pageUtilisateurs)
+
+-- Tri et filtre par date de création, départagés par l'ID
+CREATE INDEX idx_utilisateur_date_creation ON utilisateur (date_creation, id);
+
+-- Filtre par début d'email et tri par email : expression identique à celle de la requête
+-- (minuscules, collation "C" pour que LIKE 'préfixe%' devienne un parcours d'intervalle)
+CREATE INDEX idx_utilisateur_email_prefixe ON utilisateur ((lower(email) COLLATE "C"), id);
@@ -0,0 +1,11 @@
+-- Suppression différée des projets et des utilisateurs (voir PurgeService) : la ligne est d'abord masquée
+-- (supprime = true, exclue des lectures JPA), puis ses données sont effacées en arrière-plan par tranches.
+ALTER TABLE utilisateur ADD COLUMN supprime BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE projet ADD COLUMN supprime BOOLEAN NOT NULL DEFAULT false;
+
+-- Purges à reprendre au démarrage : quelques lignes au plus
+CREATE INDEX idx_utilisateur_supprime ON utilisateur (id) WHERE supprime;
+CREATE INDEX idx_projet_supprime ON projet (id_projet) WHERE supprime;
+
+-- Cumuls de temps des tâches d'une tranche purgée (tous utilisateurs confondus)
+CREATE INDEX idx_time_rollup_tache ON time_rollup (id_task);
@@ -0,0 +1,5 @@
+-- Chaque chronomètre sauvegardé appartient à une instance (voir ChronoService) : seule celle-ci le restaure
+-- et le réécrit, tant que son bail est renouvelé à chaque sauvegarde. Une ligne dont le bail a expiré
+-- (instance arrêtée) peut être reprise par une autre. Les lignes existantes sont libres.
+ALTER TABLE active_timer ADD COLUMN instance_timer VARCHAR(255);
+ALTER TABLE active_timer ADD COLUMN bail_timer TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT '-infinity';
@@ -0,0 +1,9 @@
+-- Lecture des événements d'échéance dans l'ordre des commits (voir EcheanceService.evenements) : les IDs
+-- d'identité sont attribués à l'insertion, une transaction lente peut valider un ID inférieur après qu'un
+-- consommateur a lu un ID supérieur. Chaque ligne porte l'identifiant de la transaction qui l'a écrite ; seules
+-- les transactions terminées (antérieures au xmin de l'instantané) sont lues. Les lignes existantes reçoivent
+-- l'identifiant de la migration.
+ALTER TABLE deadline_outbox ADD COLUMN xid_evenement xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+DROP INDEX idx_deadline_outbox_utilisateur;
+CREATE INDEX idx_deadline_outbox_utilisateur ON deadline_outbox (id_users, xid_evenement, id_evenement);
@@ -0,0 +1,188 @@
+package tsirionantsoa.demo.bench;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import tsirionantsoa.demo.DemoApplication;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compare le débit et la latence p99 entre le pool de threads plateforme de Tomcat et les threads virtuels.
+ * Chaque requête garde sa connexion JDBC pendant une latence simulée (requête lente), avec un pool Tomcat
+ * volontairement petit en mode plateforme pour reproduire un nœud à court de threads.
+ * Lancement : mvn test -Pbenchmark (résultats dans target/benchmarks/thread-mode.json).
+ */
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+	private static final int LATENCE_JDBC_MS = 50;
+	private static final int THREADS_TOMCAT = 32;
+	private static final int POOL_JDBC = 64;
+	private static final int CONCURRENCE = 256;
+	private static final int REQUETES = 4000;
+
+	@Test
+	void comparerPlateformeEtVirtuel() throws Exception {
+		Resultat plateforme = mesurer(false);
+		Resultat virtuel = mesurer(true);
+
+		String json = "[" + plateforme.json() + "," + virtuel.json() + "]";
+		Path sortie = Path.of("target", "benchmarks", "thread-mode.json");
+		Files.createDirectories(sortie.getParent());
+		Files.writeString(sortie, json);
+		System.out.println(plateforme);
+		System.out.println(virtuel);
+	}
+
+	private Resultat mesurer(boolean threadsVirtuels) throws Exception {
+		try (ConfigurableApplicationContext contexte = new SpringApplicationBuilder(DemoApplication.class)
+				.initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatenceJdbc()))
+				// Arguments de ligne de commande : ils priment sur application.properties
+				.run(
+						"--server.port=0",
+						"--spring.threads.virtual.enabled=" + threadsVirtuels,
+						"--server.tomcat.threads.max=" + THREADS_TOMCAT,
+						"--spring.datasource.hikari.maximum-pool-size=" + POOL_JDBC,
+						"--spring.datasource.hikari.minimum-idle=" + POOL_JDBC,
+						"--spring.jpa.show-sql=false")) {
+			int port = ((WebServerApplicationContext) contexte).getWebServer().getPort();
+			String base = "http://localhost:" + port;
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+			Long projetId = preparerDonnees(client, base);
+			URI liste = URI.create(base + "/api/taches/projet/" + projetId);
+
+			// Préchauffage
+			executer(client, liste, 200);
+			return executer(client, liste, REQUETES).avecMode(threadsVirtuels ? "virtuel" : "plateforme");
+		}
+	}
+
+	private Resultat executer(HttpClient client, URI uri, int nombre) throws Exception {
+		long[] latences = new long[nombre];
+		AtomicInteger erreurs = new AtomicInteger();
+		Semaphore enVol = new Semaphore(CONCURRENCE);
+		List<Future<?>> futures = new ArrayList<>(nombre);
+		long debut = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < nombre; i++) {
+				int index = i;
+				enVol.acquire();
+				futures.add(executor.submit(() -> {
+					long t0 = System.nanoTime();
+					try {
+						HttpResponse<Void> reponse = client.send(HttpRequest.newBuilder(uri).GET().build(),
+								HttpResponse.BodyHandlers.discarding());
+						if (reponse.statusCode() != 200) {
+							erreurs.incrementAndGet();
+						}
+					} catch (IOException | InterruptedException e) {
+						erreurs.incrementAndGet();
+					} finally {
+						latences[index] = System.nanoTime() - t0;
+						enVol.release();
+					}
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		}
+		double secondes = (System.nanoTime() - debut) / 1e9;
+		Arrays.sort(latences);
+		return new Resultat("", nombre / secondes, latences[(int) (nombre * 0.50)] / 1e6,
+				latences[(int) (nombre * 0.99)] / 1e6, erreurs.get());
+	}
+
+	private Long preparerDonnees(HttpClient client, String base) throws Exception {
+		String email = "bench-" + System.nanoTime() + "@bench";
+		String utilisateur = post(client, base + "/api/auth/register",
+				"{\"nom\":\"bench\",\"email\":\"" + email + "\",\"motDePasse\":\"bench\"}");
+		String userId = champ(utilisateur, "id");
+		String projet = post(client, base + "/api/projets?userId=" + userId,
+				"{\"nom\":\"bench\",\"description\":\"bench\"}");
+		String projetId = champ(projet, "id");
+		StringBuilder lot = new StringBuilder("[");
+		for (int i = 0; i < 50; i++) {
+			lot.append(i == 0 ? "" : ",").append("{\"titre\":\"t").append(i)
+					.append("\",\"status\":\"EN_COURS\",\"projetId\":").append(projetId).append('}');
+		}
+		post(client, base + "/api/taches/batch", lot.append(']').toString());
+		return Long.valueOf(projetId);
+	}
+
+	private String post(HttpClient client, String url, String json) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString()).body();
+	}
+
+	// Extraction minimale d'un champ numérique d'une réponse JSON
+	private String champ(String json, String nom) {
+		int i = json.indexOf("\"" + nom + "\":") + nom.length() + 3;
+		int fin = i;
+		while (fin < json.length() && Character.isDigit(json.charAt(fin))) {
+			fin++;
+		}
+		return json.substring(i, fin);
+	}
+
+	// Simule une base distante : chaque connexion obtenue est gardée LATENCE_JDBC_MS de plus
+	static class LatenceJdbc implements BeanPostProcessor {
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String nom) {
+			if (bean instanceof DataSource source && !(bean instanceof DelegatingDataSource)) {
+				return new DelegatingDataSource(source) {
+					@Override
+					public Connection getConnection() throws SQLException {
+						Connection connexion = super.getConnection();
+						try {
+							Thread.sleep(LATENCE_JDBC_MS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return connexion;
+					}
+				};
+			}
+			return bean;
+		}
+	}
+
+	record Resultat(String mode, double debitParSeconde, double p50Ms, double p99Ms, int erreurs) {
+
+		Resultat avecMode(String mode) {
+			return new Resultat(mode, debitParSeconde, p50Ms, p99Ms, erreurs);
+		}
+
+		String json() {
+			return String.format(java.util.Locale.ROOT,
+					"{\"mode\":\"%s\",\"debitParSeconde\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"erreurs\":%d}",
+					mode, debitParSeconde, p50Ms, p99Ms, erreurs);
+		}
+	}
+
+}
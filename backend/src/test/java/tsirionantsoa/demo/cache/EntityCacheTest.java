@@ -0,0 +1,110 @@
+package tsirionantsoa.demo.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCacheTest {
+
+	private final AtomicLong maintenant = new AtomicLong();
+
+	private EntityCache<Long, String> cache(int tailleMax) {
+		return new EntityCache<>("test", tailleMax, 1000, maintenant::get);
+	}
+
+	@Test
+	void chargeUneSeuleFois() {
+		EntityCache<Long, String> cache = cache(10);
+		AtomicInteger chargements = new AtomicInteger();
+
+		cache.get(1L, k -> "v" + chargements.incrementAndGet());
+		String valeur = cache.get(1L, k -> "v" + chargements.incrementAndGet());
+
+		assertThat(valeur).isEqualTo("v1");
+		assertThat(cache.stats().hits()).isEqualTo(1);
+		assertThat(cache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	void introuvableNonMisEnCache() {
+		EntityCache<Long, String> cache = cache(10);
+
+		assertThat(cache.get(1L, k -> null)).isNull();
+		assertThat(cache.stats().taille()).isZero();
+	}
+
+	@Test
+	void evinceLaMoinsRecemmentLue() {
+		EntityCache<Long, String> cache = cache(2);
+		cache.get(1L, k -> "a");
+		cache.get(2L, k -> "b");
+		cache.get(1L, k -> "a");
+		cache.get(3L, k -> "c");
+
+		assertThat(cache.get(2L, k -> "b2")).isEqualTo("b2");
+		assertThat(cache.stats().evictionsTaille()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void expireApresTtl() {
+		EntityCache<Long, String> cache = cache(10);
+		cache.get(1L, k -> "ancien");
+
+		maintenant.addAndGet(2_000_000_000L);
+
+		assertThat(cache.get(1L, k -> "nouveau")).isEqualTo("nouveau");
+		assertThat(cache.stats().evictionsTtl()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidationEmpecheUnChargementPerime() {
+		EntityCache<Long, String> cache = cache(10);
+
+		// L'invalidation arrive pendant le chargement : la valeur lue ne doit pas être gardée
+		cache.get(1L, k -> {
+			cache.invalidate(1L);
+			return "perime";
+		});
+
+		assertThat(cache.get(1L, k -> "frais")).isEqualTo("frais");
+	}
+
+	@Test
+	void invalidationParPredicat() {
+		EntityCache<Long, String> cache = cache(10);
+		cache.get(1L, k -> "projet-1");
+		cache.get(2L, k -> "projet-2");
+
+		cache.invalidateIf(v -> v.endsWith("1"));
+
+		assertThat(cache.stats().taille()).isEqualTo(1);
+		assertThat(cache.stats().invalidations()).isEqualTo(1);
+	}
+
+
+	@Test
+	void metriquesMicrometerParCache() {
+		EntityCache<Long, String> cache = cache(1);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.enregistrerMetriques(registry);
+
+		cache.get(1L, k -> "a");
+		cache.get(1L, k -> "a");
+		cache.get(2L, k -> "b");
+		cache.invalidate(2L);
+
+		assertThat(registry.get("app.cache.gets").tags("cache", "test", "result", "hit").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("app.cache.gets").tags("cache", "test", "result", "miss").functionCounter().count())
+				.isEqualTo(2);
+		assertThat(registry.get("app.cache.evictions").tags("cache", "test", "cause", "taille").functionCounter()
+				.count()).isEqualTo(1);
+		assertThat(registry.get("app.cache.invalidations").tag("cache", "test").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("app.cache.size").tag("cache", "test").gauge().value()).isZero();
+		assertThat(registry.get("app.cache.max").tag("cache", "test").gauge().value()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,62 @@
+package tsirionantsoa.demo.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Deux bus sur la même base, comme deux instances du backend. Connexions sans autocommit : après le commit,
+// celle encore liée au thread n'est plus en autocommit et un NOTIFY envoyé dessus ne partirait jamais.
+@SpringBootTest(properties = {
+		"app.cache.bus=postgres",
+		"spring.datasource.hikari.auto-commit=false",
+		"spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"
+})
+class PostgresInvalidationBusTest {
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private PostgresInvalidationBus autreInstance;
+
+	@AfterEach
+	void arreter() {
+		if (autreInstance != null) {
+			autreInstance.arreter();
+		}
+	}
+
+	@Test
+	void invalidationPublieeApresCommitRecueParLAutreInstance() throws InterruptedException {
+		autreInstance = beanFactory.createBean(PostgresInvalidationBus.class);
+		BlockingQueue<Invalidation> recues = new LinkedBlockingQueue<>();
+		autreInstance.subscribe(recues::add);
+		// Laisse le LISTEN de la seconde instance s'établir
+		Thread.sleep(500);
+
+		// EntityCaches publie sur le bus après le commit de cette transaction
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				eventPublisher.publishEvent(new TachesEnMasseEvent(Set.of(), Set.of(-1L))));
+
+		assertThat(recues.poll(5, TimeUnit.SECONDS))
+				.isEqualTo(new Invalidation(Invalidation.Type.TACHE, -1L));
+	}
+}
@@ -0,0 +1,85 @@
+package tsirionantsoa.demo.charge;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import tsirionantsoa.demo.DemoApplication;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Test de charge de bout en bout : démarre l'application (base configurée, PostgreSQL local par défaut),
+ * crée un jeu de données par l'API puis rejoue un mélange pondéré de scénarios à débit d'arrivée fixe.
+ * Rapport (débit, p50/p95/p99/p999, taux d'erreur par scénario et par requête) dans target/benchmarks/charge.json.
+ *
+ * Lancement : mvn test -Pbenchmark -Dtest=ChargeBenchmark, réglages par propriétés système :
+ * charge.debit (arrivées/s), charge.duree et charge.echauffement (s), charge.utilisateurs,
+ * charge.melange ("connexion=1,tableauDeBord=6,crudTaches=3"), charge.url (cible déjà démarrée, sinon
+ * l'application est lancée sur un port libre ; toute propriété spring.* passée en -D s'applique).
+ */
+@Tag("benchmark")
+class ChargeBenchmark {
+
+	private static final int MAX_EN_VOL = 2000;
+
+	@Test
+	void tirer() throws Exception {
+		double debit = Double.parseDouble(System.getProperty("charge.debit", "50"));
+		Duration duree = Duration.ofSeconds(Long.getLong("charge.duree", 30));
+		Duration echauffement = Duration.ofSeconds(Long.getLong("charge.echauffement", 5));
+		int utilisateurs = Integer.getInteger("charge.utilisateurs", 20);
+		String melange = System.getProperty("charge.melange", "connexion=1,tableauDeBord=6,crudTaches=3");
+		String url = System.getProperty("charge.url");
+
+		ConfigurableApplicationContext contexte = url == null ? demarrer() : null;
+		try {
+			String base = url != null ? url
+					: "http://localhost:" + ((WebServerApplicationContext) contexte).getWebServer().getPort();
+			GenerateurCharge generateur = new GenerateurCharge(GenerateurCharge.melange(melange), MAX_EN_VOL);
+			ClientApi api = new ClientApi(base, new Mesures());
+			DonneesCharge donnees = DonneesCharge.creer(api, utilisateurs, 3, 30);
+
+			generateur.tirer(api, donnees, debit, echauffement, new Mesures());
+
+			Mesures requetes = new Mesures();
+			Mesures scenarios = new Mesures();
+			api.mesurerDans(requetes);
+			double secondes = generateur.tirer(api, donnees, debit, duree, scenarios);
+
+			List<Mesures.Statistiques> parScenario = scenarios.statistiques(secondes);
+			List<Mesures.Statistiques> parRequete = requetes.statistiques(secondes);
+			String json = String.format(Locale.ROOT,
+					"{\"debitCible\":%.1f,\"dureeSecondes\":%.1f,\"melange\":\"%s\",\"scenarios\":[%s],\"requetes\":[%s]}",
+					debit, secondes, melange, json(parScenario), json(parRequete));
+			Path sortie = Path.of("target", "benchmarks", "charge.json");
+			Files.createDirectories(sortie.getParent());
+			Files.writeString(sortie, json);
+
+			System.out.println("Scénarios (" + melange + ", " + debit + " arrivées/s) :");
+			parScenario.forEach(System.out::println);
+			System.out.println("Requêtes :");
+			parRequete.forEach(System.out::println);
+		} finally {
+			if (contexte != null) {
+				contexte.close();
+			}
+		}
+	}
+
+	private ConfigurableApplicationContext demarrer() {
+		// Arguments de ligne de commande : ils priment sur application.properties
+		return new SpringApplicationBuilder(DemoApplication.class)
+				.run("--server.port=0", "--spring.jpa.show-sql=false");
+	}
+
+	private static String json(List<Mesures.Statistiques> statistiques) {
+		return statistiques.stream().map(Mesures.Statistiques::json).collect(Collectors.joining(","));
+	}
+}
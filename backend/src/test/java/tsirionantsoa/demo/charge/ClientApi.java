@@ -0,0 +1,89 @@
+package tsirionantsoa.demo.charge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Client HTTP de l'API utilisé par les scénarios : chaque appel est chronométré et enregistré
+ * sous son libellé ; une réponse hors 2xx lève {@link EchecRequete} et interrompt le scénario.
+ */
+class ClientApi {
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(5))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final String base;
+	private volatile Mesures mesures;
+
+	ClientApi(String base, Mesures mesures) {
+		this.base = base;
+		this.mesures = mesures;
+	}
+
+	void mesurerDans(Mesures mesures) {
+		this.mesures = mesures;
+	}
+
+	JsonNode get(String libelle, String chemin, String jeton) {
+		return appeler(libelle, "GET", chemin, null, jeton);
+	}
+
+	JsonNode post(String libelle, String chemin, Object corps, String jeton) {
+		return appeler(libelle, "POST", chemin, corps, jeton);
+	}
+
+	JsonNode put(String libelle, String chemin, Object corps, String jeton) {
+		return appeler(libelle, "PUT", chemin, corps, jeton);
+	}
+
+	JsonNode delete(String libelle, String chemin, String jeton) {
+		return appeler(libelle, "DELETE", chemin, null, jeton);
+	}
+
+	private JsonNode appeler(String libelle, String methode, String chemin, Object corps, String jeton) {
+		HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(base + chemin))
+				.timeout(Duration.ofSeconds(30));
+		if (jeton != null) {
+			requete.header("Authorization", "Bearer " + jeton);
+		}
+		long debut = System.nanoTime();
+		try {
+			if (corps != null) {
+				requete.header("Content-Type", "application/json")
+						.method(methode, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(corps)));
+			} else {
+				requete.method(methode, HttpRequest.BodyPublishers.noBody());
+			}
+			HttpResponse<byte[]> reponse = http.send(requete.build(), HttpResponse.BodyHandlers.ofByteArray());
+			boolean succes = reponse.statusCode() / 100 == 2;
+			mesures.enregistrer(libelle, System.nanoTime() - debut, succes);
+			if (!succes) {
+				throw new EchecRequete(libelle + " -> HTTP " + reponse.statusCode());
+			}
+			return reponse.body().length == 0 ? null : mapper.readTree(reponse.body());
+		} catch (IOException e) {
+			mesures.enregistrer(libelle, System.nanoTime() - debut, false);
+			throw new EchecRequete(libelle + " -> " + e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new EchecRequete(libelle + " interrompue");
+		}
+	}
+
+	static class EchecRequete extends RuntimeException {
+
+		EchecRequete(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package tsirionantsoa.demo.charge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Jeu de données créé par l'API avant le tir : des comptes connectés (jeton), chacun avec
+ * quelques projets remplis de tâches.
+ */
+class DonneesCharge {
+
+	static final String MOT_DE_PASSE = "charge";
+
+	private final List<UtilisateurCharge> utilisateurs;
+
+	private DonneesCharge(List<UtilisateurCharge> utilisateurs) {
+		this.utilisateurs = utilisateurs;
+	}
+
+	static DonneesCharge creer(ClientApi api, int nbUtilisateurs, int projetsParUtilisateur, int tachesParProjet) {
+		String prefixe = "charge-" + System.currentTimeMillis() + "-";
+		List<UtilisateurCharge> utilisateurs = new ArrayList<>();
+		for (int u = 0; u < nbUtilisateurs; u++) {
+			String email = prefixe + u + "@charge";
+			JsonNode compte = api.post("préparation", "/api/auth/register",
+					Map.of("nom", "Charge " + u, "email", email, "motDePasse", MOT_DE_PASSE), null);
+			long id = compte.get("id").asLong();
+			String jeton = compte.get("token").asText();
+
+			List<Long> projetIds = new ArrayList<>();
+			for (int p = 0; p < projetsParUtilisateur; p++) {
+				JsonNode projet = api.post("préparation", "/api/projets",
+						Map.of("nom", "Projet " + p, "description", "Projet de test de charge"), jeton);
+				projetIds.add(projet.get("id").asLong());
+			}
+
+			List<Map<String, Object>> lot = new ArrayList<>();
+			for (Long projetId : projetIds) {
+				for (int t = 0; t < tachesParProjet; t++) {
+					Map<String, Object> tache = new HashMap<>();
+					tache.put("projetId", projetId);
+					tache.put("titre", "Tâche " + t);
+					tache.put("status", t % 3 == 0 ? "TERMINE" : "EN_COURS");
+					tache.put("priorite", t % 2 == 0 ? "HAUTE" : "BASSE");
+					lot.add(tache);
+				}
+			}
+			if (!lot.isEmpty()) {
+				api.post("préparation", "/api/taches/batch", lot, jeton);
+			}
+			utilisateurs.add(new UtilisateurCharge(id, email, jeton, projetIds));
+		}
+		return new DonneesCharge(utilisateurs);
+	}
+
+	UtilisateurCharge utilisateurAuHasard() {
+		return utilisateurs.get(ThreadLocalRandom.current().nextInt(utilisateurs.size()));
+	}
+
+	record UtilisateurCharge(long id, String email, String jeton, List<Long> projetIds) {
+
+		long projetAuHasard() {
+			return projetIds.get(ThreadLocalRandom.current().nextInt(projetIds.size()));
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package tsirionantsoa.demo.charge;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur en modèle ouvert : les arrivées suivent un processus de Poisson au débit demandé,
+ * indépendamment des réponses (un serveur lent ne ralentit pas la charge). La latence d'un scénario
+ * est comptée depuis son heure d'arrivée prévue, ce qui inclut l'attente côté client
+ * (pas d'omission coordonnée). Au-delà de maxEnVol parcours simultanés, l'arrivée est comptée en erreur.
+ */
+class GenerateurCharge {
+
+	private final Map<Scenario, Integer> melange;
+	private final int poidsTotal;
+	private final int maxEnVol;
+
+	GenerateurCharge(Map<Scenario, Integer> melange, int maxEnVol) {
+		this.melange = new LinkedHashMap<>(melange);
+		this.poidsTotal = melange.values().stream().mapToInt(Integer::intValue).sum();
+		this.maxEnVol = maxEnVol;
+		if (poidsTotal <= 0) {
+			throw new IllegalArgumentException("Le mélange de scénarios est vide");
+		}
+	}
+
+	// Format "connexion=1,tableauDeBord=6,crudTaches=3"
+	static Map<Scenario, Integer> melange(String description) {
+		Map<Scenario, Integer> melange = new LinkedHashMap<>();
+		for (String element : description.split(",")) {
+			String[] parties = element.trim().split("=");
+			melange.put(Scenario.parNom(parties[0].trim()), Integer.parseInt(parties[1].trim()));
+		}
+		return melange;
+	}
+
+	// Retourne la durée réelle du tir en secondes, fin des parcours en vol comprise
+	double tirer(ClientApi api, DonneesCharge donnees, double debitParSeconde, Duration duree, Mesures scenarios) {
+		Semaphore enVol = new Semaphore(maxEnVol);
+		long debut = System.nanoTime();
+		long fin = debut + duree.toNanos();
+		long prochaine = debut;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			while (true) {
+				prochaine += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / debitParSeconde * 1e9);
+				if (prochaine >= fin) {
+					break;
+				}
+				attendreJusqua(prochaine);
+				Scenario scenario = choisir();
+				long prevue = prochaine;
+				if (!enVol.tryAcquire()) {
+					scenarios.enregistrer(scenario.nom(), System.nanoTime() - prevue, false);
+					continue;
+				}
+				executor.submit(() -> {
+					boolean succes = false;
+					try {
+						scenario.executer(api, donnees);
+						succes = true;
+					} catch (RuntimeException e) {
+						// Déjà compté dans la série de la requête en échec
+					} finally {
+						scenarios.enregistrer(scenario.nom(), System.nanoTime() - prevue, succes);
+						enVol.release();
+					}
+				});
+			}
+		}
+		return (System.nanoTime() - debut) / 1e9;
+	}
+
+	private Scenario choisir() {
+		int tirage = ThreadLocalRandom.current().nextInt(poidsTotal);
+		for (Map.Entry<Scenario, Integer> entree : melange.entrySet()) {
+			tirage -= entree.getValue();
+			if (tirage < 0) {
+				return entree.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private static void attendreJusqua(long instant) {
+		long reste;
+		while ((reste = instant - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(reste);
+		}
+	}
+}
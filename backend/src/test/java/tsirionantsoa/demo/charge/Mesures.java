@@ -0,0 +1,82 @@
+package tsirionantsoa.demo.charge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latences et erreurs collectées pendant un tir, regroupées par nom de série
+ * (un scénario ou une requête HTTP, ex. "GET /api/taches/{id}").
+ */
+class Mesures {
+
+	private final Map<String, Serie> series = new ConcurrentHashMap<>();
+
+	void enregistrer(String nom, long latenceNanos, boolean succes) {
+		series.computeIfAbsent(nom, n -> new Serie()).ajouter(latenceNanos, succes);
+	}
+
+	List<Statistiques> statistiques(double dureeSecondes) {
+		List<Statistiques> resultat = new ArrayList<>();
+		new TreeMap<>(series).forEach((nom, serie) -> resultat.add(serie.statistiques(nom, dureeSecondes)));
+		return resultat;
+	}
+
+	private static final class Serie {
+
+		private long[] latences = new long[1024];
+		private int taille;
+		private int erreurs;
+
+		synchronized void ajouter(long latenceNanos, boolean succes) {
+			if (taille == latences.length) {
+				latences = Arrays.copyOf(latences, taille * 2);
+			}
+			latences[taille++] = latenceNanos;
+			if (!succes) {
+				erreurs++;
+			}
+		}
+
+		synchronized Statistiques statistiques(String nom, double dureeSecondes) {
+			long[] triees = Arrays.copyOf(latences, taille);
+			Arrays.sort(triees);
+			return new Statistiques(nom, taille, erreurs, taille / dureeSecondes,
+					centile(triees, 0.50), centile(triees, 0.95), centile(triees, 0.99), centile(triees, 0.999),
+					taille == 0 ? 0 : triees[taille - 1] / 1e6);
+		}
+
+		private static double centile(long[] triees, double rang) {
+			if (triees.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(rang * triees.length) - 1;
+			return triees[Math.max(index, 0)] / 1e6;
+		}
+	}
+
+	record Statistiques(String nom, int requetes, int erreurs, double debitParSeconde,
+			double p50Ms, double p95Ms, double p99Ms, double p999Ms, double maxMs) {
+
+		double tauxErreur() {
+			return requetes == 0 ? 0 : (double) erreurs / requetes;
+		}
+
+		String json() {
+			return String.format(Locale.ROOT,
+					"{\"nom\":\"%s\",\"requetes\":%d,\"erreurs\":%d,\"tauxErreur\":%.4f,\"debitParSeconde\":%.1f,"
+							+ "\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+					nom, requetes, erreurs, tauxErreur(), debitParSeconde, p50Ms, p95Ms, p99Ms, p999Ms, maxMs);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-34s %7d req %6.1f/s  err %5.2f%%  p50 %8.2f  p95 %8.2f  p99 %8.2f  p999 %8.2f ms",
+					nom, requetes, debitParSeconde, tauxErreur() * 100, p50Ms, p95Ms, p99Ms, p999Ms);
+		}
+	}
+}
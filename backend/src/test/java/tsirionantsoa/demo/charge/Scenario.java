@@ -0,0 +1,75 @@
+package tsirionantsoa.demo.charge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Parcours utilisateurs rejoués par le générateur de charge. Chaque exécution enchaîne les appels
+ * d'un utilisateur tiré au hasard ; le premier échec interrompt le parcours.
+ */
+enum Scenario {
+
+	// Rafale de connexions : coût BCrypt + émission du jeton
+	CONNEXION("connexion") {
+		@Override
+		void executer(ClientApi api, DonneesCharge donnees) {
+			DonneesCharge.UtilisateurCharge u = donnees.utilisateurAuHasard();
+			api.post("POST /api/auth/login", "/api/auth/login",
+					Map.of("email", u.email(), "motDePasse", DonneesCharge.MOT_DE_PASSE), null);
+		}
+	},
+
+	// Rafraîchissement de l'écran d'accueil : compteurs, projets, première page de tâches, profil
+	TABLEAU_DE_BORD("tableauDeBord") {
+		@Override
+		void executer(ClientApi api, DonneesCharge donnees) {
+			DonneesCharge.UtilisateurCharge u = donnees.utilisateurAuHasard();
+			api.get("GET /api/dashboard/{id}", "/api/dashboard/" + u.id(), u.jeton());
+			api.get("GET /api/projets", "/api/projets?size=20", u.jeton());
+			api.get("GET /api/taches/projet/{id}/page", "/api/taches/projet/" + u.projetAuHasard() + "/page?size=20", u.jeton());
+			api.get("GET /api/taches/count/encours/...", "/api/taches/count/encours/utilisateur/" + u.id(), u.jeton());
+			api.get("GET /api/utilisateurs/{id}", "/api/utilisateurs/" + u.id(), u.jeton());
+		}
+	},
+
+	// Cycle de vie complet d'une tâche : création, lecture, modification, suppression
+	CRUD_TACHES("crudTaches") {
+		@Override
+		void executer(ClientApi api, DonneesCharge donnees) {
+			DonneesCharge.UtilisateurCharge u = donnees.utilisateurAuHasard();
+			String echeance = LocalDate.now().plusDays(7).toString();
+			JsonNode tache = api.post("POST /api/taches", "/api/taches?projetId=" + u.projetAuHasard(),
+					Map.of("titre", "Tâche de charge", "status", "EN_ATTENTE", "priorite", "MOYENNE", "echeance", echeance),
+					u.jeton());
+			long id = tache.get("id").asLong();
+			api.get("GET /api/taches/{id}", "/api/taches/" + id, u.jeton());
+			api.put("PUT /api/taches/{id}", "/api/taches/" + id,
+					Map.of("titre", "Tâche de charge (modifiée)", "status", "TERMINE", "priorite", "HAUTE", "echeance", echeance),
+					u.jeton());
+			api.delete("DELETE /api/taches/{id}", "/api/taches/" + id, u.jeton());
+		}
+	};
+
+	private final String nom;
+
+	Scenario(String nom) {
+		this.nom = nom;
+	}
+
+	String nom() {
+		return nom;
+	}
+
+	abstract void executer(ClientApi api, DonneesCharge donnees);
+
+	static Scenario parNom(String nom) {
+		for (Scenario scenario : values()) {
+			if (scenario.nom.equals(nom)) {
+				return scenario;
+			}
+		}
+		throw new IllegalArgumentException("Scénario inconnu: " + nom);
+	}
+}
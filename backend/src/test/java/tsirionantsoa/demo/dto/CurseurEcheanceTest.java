@@ -0,0 +1,37 @@
+package tsirionantsoa.demo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurseurEcheanceTest {
+
+	private static String brut(String valeur) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void curseurAllerRetour() {
+		CurseurEcheance curseur = new CurseurEcheance(4358, 12);
+
+		assertThat(CurseurEcheance.decode(curseur.encode())).isEqualTo(curseur);
+	}
+
+	@Test
+	void sansCurseurDepuisLeDebut() {
+		assertThat(CurseurEcheance.decode(null)).isEqualTo(CurseurEcheance.DEBUT);
+		assertThat(CurseurEcheance.decode(" ")).isEqualTo(CurseurEcheance.DEBUT);
+	}
+
+	@Test
+	void curseurInvalideRefuse() {
+		for (String invalide : new String[]{"12", brut("id:12"), brut("ech:12"), brut("ech:1:2:3"), brut("ech:-1:2")}) {
+			assertThatThrownBy(() -> CurseurEcheance.decode(invalide))
+					.hasMessage("Curseur d'échéances invalide: " + invalide);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package tsirionantsoa.demo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+	@Test
+	void curseurAllerRetour() {
+		assertThat(CursorPage.decode(CursorPage.encode(42L))).isEqualTo(42L);
+	}
+
+	@Test
+	void sansCurseurPremierePage() {
+		assertThat(CursorPage.decode(null)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void curseurInvalideRefuse() {
+		assertThatThrownBy(() -> CursorPage.decode("pas-un-curseur"))
+				.isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	void ligneEnTropDonneLaSuite() {
+		CursorPage<Long> page = CursorPage.of(List.of(9L, 8L, 7L), 2, Function.identity());
+
+		assertThat(page.items()).containsExactly(9L, 8L);
+		assertThat(page.hasMore()).isTrue();
+		assertThat(CursorPage.decode(page.nextCursor())).isEqualTo(8L);
+	}
+
+	@Test
+	void dernierePageSansCurseur() {
+		CursorPage<Long> page = CursorPage.of(List.of(3L), 2, Function.identity());
+
+		assertThat(page.hasMore()).isFalse();
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void curseurParCle() {
+		CursorPage<String> page = CursorPage.parCle(List.of("a|1", "b|2", "c|3"), 2, Function.identity());
+
+		assertThat(page.hasMore()).isTrue();
+		assertThat(CursorPage.decodeCle(page.nextCursor())).isEqualTo("b|2");
+		assertThat(CursorPage.decodeCle(null)).isNull();
+		assertThatThrownBy(() -> CursorPage.decodeCle(CursorPage.encode(2L)))
+				.isInstanceOf(RuntimeException.class);
+	}
+
+}
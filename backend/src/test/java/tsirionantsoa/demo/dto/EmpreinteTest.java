@@ -0,0 +1,50 @@
+package tsirionantsoa.demo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmpreinteTest {
+
+	private record Ligne(long id, long version) {
+	}
+
+	private static Empreinte empreinte(Ligne... lignes) {
+		return Empreinte.of(List.of(lignes), Ligne::id, Ligne::version);
+	}
+
+	@Test
+	void independanteDeLOrdre() {
+		assertThat(empreinte(new Ligne(3, 1), new Ligne(8, 0), new Ligne(5, 2)))
+				.isEqualTo(empreinte(new Ligne(5, 2), new Ligne(3, 1), new Ligne(8, 0)));
+	}
+
+	@Test
+	void suppressionPuisAjoutSousLePlusGrandId() {
+		// Même nombre, même somme des versions, même plus grand ID : l'ancienne empreinte était identique
+		Empreinte avant = empreinte(new Ligne(10, 0), new Ligne(100, 0));
+		Empreinte apres = empreinte(new Ligne(5, 0), new Ligne(100, 0));
+
+		assertThat(apres.nombre()).isEqualTo(avant.nombre());
+		assertThat(apres.sommeVersions()).isEqualTo(avant.sommeVersions());
+		assertThat(apres).isNotEqualTo(avant);
+	}
+
+	@Test
+	void versionsEchangeesEntreDeuxLignes() {
+		// Une ligne modifiée deux fois, une autre supprimée puis recréée : même nombre et même somme
+		Empreinte avant = empreinte(new Ligne(1, 2), new Ligne(2, 0));
+		Empreinte apres = empreinte(new Ligne(1, 0), new Ligne(2, 2));
+
+		assertThat(apres).isNotEqualTo(avant);
+	}
+
+	@Test
+	void hachageToujoursPositifEtBorne() {
+		for (long id : new long[]{1, Empreinte.MODULE - 1, Empreinte.MODULE, Long.MAX_VALUE}) {
+			assertThat(Empreinte.hachage(id, Integer.MAX_VALUE)).isBetween(0L, Empreinte.MODULE - 1);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package tsirionantsoa.demo.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergePatchTest {
+
+	private static final Set<String> CHAMPS = Set.of("titre", "echeance");
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private MergePatch patch(String json) throws Exception {
+		return MergePatch.of(mapper.readTree(json), CHAMPS);
+	}
+
+	@Test
+	void champAbsentNonContenu() throws Exception {
+		MergePatch patch = patch("{\"titre\": \"Nouveau\"}");
+
+		assertThat(patch.contient("echeance")).isFalse();
+		assertThat(patch.date("echeance")).isNull();
+	}
+
+	@Test
+	void champNullContenuEtEfface() throws Exception {
+		MergePatch patch = patch("{\"echeance\": null}");
+
+		assertThat(patch.contient("echeance")).isTrue();
+		assertThat(patch.date("echeance")).isNull();
+	}
+
+	@Test
+	void valeurRemplace() throws Exception {
+		MergePatch patch = patch("{\"titre\": \"Nouveau\", \"echeance\": \"2026-03-01\"}");
+
+		assertThat(patch.texte("titre")).isEqualTo("Nouveau");
+		assertThat(patch.date("echeance")).isEqualTo(LocalDate.of(2026, 3, 1));
+	}
+
+	@Test
+	void champRequisANullRefuse() throws Exception {
+		MergePatch patch = patch("{\"titre\": null}");
+
+		assertThat(patch.contient("titre")).isTrue();
+		assertThatThrownBy(() -> patch.texteRequis("titre", "Le titre est requis"))
+				.hasMessage("Le titre est requis");
+	}
+
+	@Test
+	void corpsInvalideRefuse() {
+		assertThatThrownBy(() -> patch("[]")).hasMessageContaining("objet JSON");
+		assertThatThrownBy(() -> patch("{\"version\": 3}")).hasMessage("Champ non modifiable: version");
+		assertThatThrownBy(() -> patch("{\"titre\": 3}").texte("titre")).hasMessage("Texte attendu pour titre");
+	}
+}
@@ -0,0 +1,44 @@
+package tsirionantsoa.demo.importation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LecteurCsvTest {
+
+	@Test
+	void champsSimplesEtVides() throws IOException {
+		LecteurCsv csv = new LecteurCsv(new StringReader("a,,c\r\nd,e,f\n"));
+
+		assertThat(csv.lire()).containsExactly("a", "", "c");
+		assertThat(csv.lire()).containsExactly("d", "e", "f");
+		assertThat(csv.lire()).isNull();
+	}
+
+	@Test
+	void guillemetsVirgulesEtSautsDeLigne() throws IOException {
+		LecteurCsv csv = new LecteurCsv(new StringReader("1,\"il a dit \"\"oui\"\", puis\nnon\",x\n"));
+
+		assertThat(csv.lire()).containsExactly("1", "il a dit \"oui\", puis\nnon", "x");
+		assertThat(csv.brut()).isEqualTo("1,\"il a dit \"\"oui\"\", puis\nnon\",x");
+	}
+
+	@Test
+	void derniereLigneSansFinDeLigne() throws IOException {
+		LecteurCsv csv = new LecteurCsv(new StringReader("a,b"));
+
+		assertThat(csv.lire()).containsExactly("a", "b");
+		assertThat(csv.lire()).isNull();
+	}
+
+	@Test
+	void guillemetNonFermeRefuse() {
+		LecteurCsv csv = new LecteurCsv(new StringReader("a,\"b\n"));
+
+		assertThatThrownBy(csv::lire).isInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,43 @@
+package tsirionantsoa.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GranulariteTest {
+
+	@Test
+	void jourCommenceAuJourMeme() {
+		assertThat(Granularite.JOUR.debutPeriode(LocalDate.of(2026, 3, 15))).isEqualTo(LocalDate.of(2026, 3, 15));
+	}
+
+	@Test
+	void semaineCommenceAuLundi() {
+		// Lundi 9 mars 2026
+		assertThat(Granularite.SEMAINE.debutPeriode(LocalDate.of(2026, 3, 9))).isEqualTo(LocalDate.of(2026, 3, 9));
+		assertThat(Granularite.SEMAINE.debutPeriode(LocalDate.of(2026, 3, 15))).isEqualTo(LocalDate.of(2026, 3, 9));
+		assertThat(Granularite.SEMAINE.debutPeriode(LocalDate.of(2026, 3, 16))).isEqualTo(LocalDate.of(2026, 3, 16));
+	}
+
+	@Test
+	void semaineAChevalSurDeuxAnnees() {
+		// Jeudi 1er janvier 2026 : la semaine ISO commence le lundi 29 décembre 2025
+		assertThat(Granularite.SEMAINE.debutPeriode(LocalDate.of(2026, 1, 1))).isEqualTo(LocalDate.of(2025, 12, 29));
+	}
+
+	@Test
+	void moisCommenceLePremier() {
+		assertThat(Granularite.MOIS.debutPeriode(LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 2, 1));
+		assertThat(Granularite.MOIS.debutPeriode(LocalDate.of(2026, 1, 1))).isEqualTo(LocalDate.of(2026, 1, 1));
+	}
+
+	@Test
+	void parseIgnoreLaCasse() {
+		assertThat(Granularite.parse(" Semaine ")).isEqualTo(Granularite.SEMAINE);
+		assertThat(Granularite.parse(null)).isEqualTo(Granularite.JOUR);
+		assertThatThrownBy(() -> Granularite.parse("annee")).hasMessageContaining("Granularité inconnue");
+	}
+}
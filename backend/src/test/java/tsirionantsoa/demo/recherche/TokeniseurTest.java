@@ -0,0 +1,32 @@
+package tsirionantsoa.demo.recherche;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokeniseurTest {
+
+	@Test
+	void accentsEtCasseIgnores() {
+		assertThat(Tokeniseur.tokens("Tâche TERMINÉE", "Ça marche")).containsExactly("tache", "terminee", "ca", "marche");
+	}
+
+	@Test
+	void separateursEtDoublons() {
+		assertThat(Tokeniseur.tokens("v2.1 -- rapport/rapport_final, (été)")).containsExactly("v2", "1", "rapport", "final", "ete");
+		assertThat(Tokeniseur.tokens(null, "  ", "")).isEmpty();
+	}
+
+	@Test
+	void motsTropLongsTronques() {
+		String mot = "a".repeat(100);
+
+		assertThat(Tokeniseur.tokens(mot)).containsExactly("a".repeat(Tokeniseur.LONGUEUR_MAX));
+	}
+
+	@Test
+	void termesDansLOrdreDeSaisie() {
+		assertThat(Tokeniseur.termes("Réunion  budget réu")).containsExactly("reunion", "budget", "reu");
+		assertThat(Tokeniseur.termes(null)).isEmpty();
+	}
+}
@@ -0,0 +1,96 @@
+package tsirionantsoa.demo.security;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tsirionantsoa.demo.cache.Invalidation;
+import tsirionantsoa.demo.cache.LocalInvalidationBus;
+import tsirionantsoa.demo.model.Utilisateur;
+import tsirionantsoa.demo.service.PurgeService;
+import tsirionantsoa.demo.service.UtilisateurService;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Jetons bien signés d'un compte supprimé : refusés, qu'ils soient déjà dans le cache du filtre ou non
+@SpringBootTest
+class TokenAuthenticationFilterTest {
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private ComptesActifs comptesActifs;
+
+	@Autowired
+	private UtilisateurService utilisateurService;
+
+	@Autowired
+	private PurgeService purgeService;
+
+	@Autowired
+	private LocalInvalidationBus bus;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Utilisateur utilisateur() {
+		Utilisateur utilisateur = new Utilisateur();
+		utilisateur.setNom("Test");
+		utilisateur.setEmail("jeton-" + UUID.randomUUID() + "@exemple.mg");
+		utilisateur.setMotDePasse("secret");
+		return utilisateurService.registerUtilisateur(utilisateur);
+	}
+
+	private TokenAuthenticationFilter filtre() {
+		return new TokenAuthenticationFilter(tokenService, comptesActifs, 100, 60_000);
+	}
+
+	private static int statut(TokenAuthenticationFilter filtre, String jeton) throws ServletException, IOException {
+		MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/api/projets");
+		requete.addHeader("Authorization", "Bearer " + jeton);
+		MockHttpServletResponse reponse = new MockHttpServletResponse();
+		try {
+			filtre.doFilter(requete, reponse, new MockFilterChain());
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+		return reponse.getStatus();
+	}
+
+	@Test
+	void jetonRefuseDesLaSuppressionDuCompte() throws Exception {
+		Utilisateur utilisateur = utilisateur();
+		String jeton = tokenService.emettre(utilisateur);
+		TokenAuthenticationFilter filtre = filtre();
+		assertThat(statut(filtre, jeton)).isEqualTo(200);
+
+		purgeService.supprimerUtilisateur(utilisateur.getId());
+
+		assertThat(statut(filtre, jeton)).isEqualTo(401);
+		assertThat(statut(filtre(), jeton)).isEqualTo(401);
+	}
+
+	@Test
+	void revocationRecueDUneAutreInstance() throws Exception {
+		Utilisateur utilisateur = utilisateur();
+		String jeton = tokenService.emettre(utilisateur);
+		TokenAuthenticationFilter filtre = filtre();
+		assertThat(statut(filtre, jeton)).isEqualTo(200);
+
+		// Compte masqué par une autre instance : le jeton reste en cache jusqu'au message de révocation
+		jdbcTemplate.update("UPDATE utilisateur SET supprime = true WHERE id = ?", utilisateur.getId());
+		assertThat(statut(filtre, jeton)).isEqualTo(200);
+		bus.recevoir(new Invalidation(Invalidation.Type.JETONS_UTILISATEUR, utilisateur.getId()));
+
+		assertThat(statut(filtre, jeton)).isEqualTo(401);
+	}
+}
@@ -0,0 +1,143 @@
+package tsirionantsoa.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tsirionantsoa.demo.dto.ChangementView;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.event.TacheEvent;
+import tsirionantsoa.demo.event.TachesEnMasseEvent;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangementServiceTest {
+
+	private static final Pattern NOM = Pattern.compile("event:(\\w+)");
+
+	private SimpleMeterRegistry registry;
+	private ChangementService service;
+
+	@BeforeEach
+	void init() {
+		registry = new SimpleMeterRegistry();
+		service = new ChangementService();
+		ReflectionTestUtils.setField(service, "meterRegistry", registry);
+		ReflectionTestUtils.setField(service, "tampon", 2);
+		ReflectionTestUtils.setField(service, "timeoutMs", 60000L);
+		ReflectionTestUtils.setField(service, "heartbeatMs", 60000L);
+		service.init();
+	}
+
+	// Émetteur qui note chaque envoi ("connecte", "resync", "tache:42"...) ; lent : l'envoi attend liberer()
+	private static final class Emetteur extends SseEmitter {
+		private final BlockingQueue<String> envois = new LinkedBlockingQueue<>();
+		private final CountDownLatch libre;
+
+		Emetteur(boolean lent) {
+			libre = new CountDownLatch(lent ? 1 : 0);
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			try {
+				libre.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			String nom = null;
+			for (var donnees : builder.build()) {
+				if (donnees.getData() instanceof ChangementView c) {
+					nom = c.entite() + ":" + c.id();
+					break;
+				}
+				Matcher m = NOM.matcher(donnees.getData().toString());
+				if (nom == null && m.find()) {
+					nom = m.group(1);
+				}
+			}
+			envois.add(nom);
+		}
+
+		void liberer() {
+			libre.countDown();
+		}
+
+		String suivant() throws InterruptedException {
+			return envois.poll(5, TimeUnit.SECONDS);
+		}
+
+		String aucun() throws InterruptedException {
+			return envois.poll(200, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private Emetteur abonner(Long utilisateurId, boolean lent) {
+		Emetteur emetteur = new Emetteur(lent);
+		service.abonner(utilisateurId, emetteur);
+		return emetteur;
+	}
+
+	private static TacheEvent suppression(Long utilisateurId, Long tacheId) {
+		return TacheEvent.suppression(utilisateurId,
+				new TacheView(tacheId, "Tâche", null, null, null, null, null, 0L, 1L, "Projet", 0L));
+	}
+
+	@Test
+	void changementDiffuseAuxSeulsAbonnesDeLUtilisateur() throws InterruptedException {
+		Emetteur premier = abonner(1L, false);
+		Emetteur second = abonner(1L, false);
+		Emetteur autre = abonner(2L, false);
+
+		service.onTacheEvent(suppression(1L, 42L));
+
+		assertThat(premier.suivant()).isEqualTo("connecte");
+		assertThat(premier.suivant()).isEqualTo("tache:42");
+		assertThat(second.suivant()).isEqualTo("connecte");
+		assertThat(second.suivant()).isEqualTo("tache:42");
+		assertThat(autre.suivant()).isEqualTo("connecte");
+		assertThat(autre.aucun()).isNull();
+	}
+
+	@Test
+	void operationEnMasseDemandeUneResynchronisation() throws InterruptedException {
+		Emetteur concerne = abonner(1L, false);
+		Emetteur autre = abonner(2L, false);
+
+		service.onTachesEnMasse(new TachesEnMasseEvent(Set.of(1L), Set.of(7L, 8L)));
+
+		assertThat(concerne.suivant()).isEqualTo("connecte");
+		assertThat(concerne.suivant()).isEqualTo("resync");
+		assertThat(autre.suivant()).isEqualTo("connecte");
+		assertThat(autre.aucun()).isNull();
+	}
+
+	@Test
+	void clientLentResynchroniseSansFreinerLesAutres() throws InterruptedException {
+		Emetteur lent = abonner(1L, true);
+		Emetteur rapide = abonner(1L, false);
+
+		// Le client rapide reçoit chaque changement ; la file du lent (2 places) déborde deux fois
+		assertThat(rapide.suivant()).isEqualTo("connecte");
+		for (long id = 1; id <= 5; id++) {
+			service.onTacheEvent(suppression(1L, id));
+			assertThat(rapide.suivant()).isEqualTo("tache:" + id);
+		}
+		lent.liberer();
+		assertThat(lent.suivant()).isEqualTo("connecte");
+		assertThat(lent.suivant()).isEqualTo("resync");
+		assertThat(lent.aucun()).isNull();
+		assertThat(registry.counter("app.changes.resync").count()).isEqualTo(2);
+	}
+}
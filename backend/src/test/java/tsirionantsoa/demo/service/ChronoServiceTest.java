@@ -0,0 +1,117 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import tsirionantsoa.demo.dto.ChronoView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plusieurs instances du service sur la même base, chacune avec son identifiant
+@SpringBootTest
+class ChronoServiceTest {
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<ChronoService> instances = new ArrayList<>();
+
+	private ChronoService instance(String id) {
+		ChronoService instance = beanFactory.createBean(ChronoService.class);
+		ReflectionTestUtils.setField(instance, "instanceId", id);
+		instances.add(instance);
+		return instance;
+	}
+
+	@AfterEach
+	void arreter() {
+		instances.forEach(beanFactory::destroyBean);
+	}
+
+	private List<String> proprietaires(Long tacheId) {
+		return jdbcTemplate.queryForList("SELECT instance_timer FROM active_timer WHERE id_task = ?", String.class,
+				tacheId);
+	}
+
+	private void expirerBail(Long tacheId) {
+		jdbcTemplate.update("UPDATE active_timer SET bail_timer = now() - interval '1 second' WHERE id_task = ?",
+				tacheId);
+	}
+
+	@Test
+	void arretPuisSauvegardeAilleursNeRessusciteRien() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		ChronoService a = instance("a-" + UUID.randomUUID());
+		ChronoService b = instance("b-" + UUID.randomUUID());
+		a.demarrer(userId, tacheId);
+		a.sauvegarder();
+
+		// Bail de A en cours : B ne restaure pas son chronomètre
+		b.restaurer();
+		assertThat(b.chronosUtilisateur(userId)).isEmpty();
+
+		a.arreter(userId, tacheId);
+		b.sauvegarder();
+		instance("c-" + UUID.randomUUID()).restaurer();
+
+		assertThat(proprietaires(tacheId)).isEmpty();
+	}
+
+	@Test
+	void copiePerimeeAbandonneeQuandUneAutreInstanceAReprisLaLigne() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		String idB = "b-" + UUID.randomUUID();
+		ChronoService a = instance("a-" + UUID.randomUUID());
+		ChronoService b = instance(idB);
+		a.demarrer(userId, tacheId);
+		a.sauvegarder();
+
+		// A ne renouvelle plus son bail (pause longue, réseau coupé) : B reprend la ligne
+		expirerBail(tacheId);
+		b.restaurer();
+		assertThat(b.chronosUtilisateur(userId)).extracting(ChronoView::tacheId).containsExactly(tacheId);
+
+		a.pause(userId, tacheId);
+		a.sauvegarder();
+
+		assertThat(a.chronosUtilisateur(userId)).isEmpty();
+		assertThat(proprietaires(tacheId)).containsExactly(idB);
+
+		b.arreter(userId, tacheId);
+		a.sauvegarder();
+		assertThat(proprietaires(tacheId)).isEmpty();
+	}
+
+	@Test
+	void memeInstanceRestaureSesChronometresSansAttendreLeBail() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		String id = "a-" + UUID.randomUUID();
+		ChronoService avant = instance(id);
+		avant.demarrer(userId, tacheId);
+		avant.sauvegarder();
+
+		ChronoService apres = instance(id);
+		apres.restaurer();
+
+		assertThat(apres.chronosUtilisateur(userId)).extracting(ChronoView::tacheId).containsExactly(tacheId);
+		apres.abandonner(userId, tacheId);
+		assertThat(proprietaires(tacheId)).isEmpty();
+	}
+}
@@ -0,0 +1,93 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tsirionantsoa.demo.dto.EvenementEcheance;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lecture de deadline_outbox dans l'ordre des commits, pas des IDs
+@SpringBootTest
+class EcheanceServiceTest {
+
+	private static final String INSERT_SQL = "INSERT INTO deadline_outbox "
+			+ "(type_evenement, id_task, id_users, echeance, declenche_le) VALUES ('RETARD', ?, ?, current_date, now())";
+
+	@Autowired
+	private EcheanceService echeanceService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private static void inserer(Connection connexion, Long userId, Long tacheId) throws SQLException {
+		try (PreparedStatement ps = connexion.prepareStatement(INSERT_SQL)) {
+			ps.setLong(1, tacheId);
+			ps.setLong(2, userId);
+			ps.executeUpdate();
+		}
+	}
+
+	private static String dernier(List<EvenementEcheance> lus) {
+		return lus.get(lus.size() - 1).curseur();
+	}
+
+	@Test
+	void idInferieurValideApresUnIdSuperieurNEstPasSaute() throws SQLException {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		Long lente = donnees.tache(projetId);
+		Long rapide = donnees.tache(projetId);
+
+		try (Connection connexion = dataSource.getConnection()) {
+			connexion.setAutoCommit(false);
+			try {
+				inserer(connexion, userId, lente);          // ID inférieur, transaction encore ouverte
+				jdbcTemplate.update(INSERT_SQL, rapide, userId);
+
+				// La ligne validée suit une transaction en cours : rien n'est livré pour l'instant
+				assertThat(echeanceService.evenements(userId, null, null)).isEmpty();
+
+				connexion.commit();
+			} finally {
+				connexion.rollback();
+				connexion.setAutoCommit(true);
+			}
+		}
+
+		List<EvenementEcheance> lus = echeanceService.evenements(userId, null, null);
+		assertThat(lus).extracting(EvenementEcheance::tacheId).containsExactly(lente, rapide);
+		assertThat(lus.get(0).id()).isLessThan(lus.get(1).id());
+		assertThat(echeanceService.evenements(userId, dernier(lus), null)).isEmpty();
+	}
+
+	@Test
+	void pagesSuccessivesSansDoublonNiTrou() {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		List<Long> taches = List.of(donnees.tache(projetId), donnees.tache(projetId), donnees.tache(projetId));
+		jdbcTemplate.update(INSERT_SQL, taches.get(0), userId);
+		jdbcTemplate.update(INSERT_SQL, taches.get(1), userId);
+		jdbcTemplate.update(INSERT_SQL, taches.get(2), userId);
+
+		List<EvenementEcheance> premiere = echeanceService.evenements(userId, null, 2);
+		List<EvenementEcheance> seconde = echeanceService.evenements(userId, dernier(premiere), 2);
+
+		assertThat(premiere).extracting(EvenementEcheance::tacheId).containsExactly(taches.get(0), taches.get(1));
+		assertThat(seconde).extracting(EvenementEcheance::tacheId).containsExactly(taches.get(2));
+		assertThat(echeanceService.evenements(userId, dernier(seconde), 2)).isEmpty();
+	}
+}
@@ -0,0 +1,50 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tsirionantsoa.demo.dto.FormatFichier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ImportServiceTest {
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	private static List<Path> fichiersImport() throws IOException {
+		try (Stream<Path> fichiers = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return fichiers.filter(f -> f.getFileName().toString().startsWith("import-")).toList();
+		}
+	}
+
+	@Test
+	void corpsInterrompuNeLaissePasDeFichierTemporaire() throws IOException {
+		Long userId = donnees.utilisateur();
+		List<Path> avant = fichiersImport();
+		InputStream interrompu = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connexion fermée");
+			}
+		};
+
+		assertThatThrownBy(() -> importService.demarrer(userId, FormatFichier.CSV, interrompu))
+				.isInstanceOf(UncheckedIOException.class);
+
+		assertThat(fichiersImport()).containsExactlyInAnyOrderElementsOf(avant);
+	}
+}
@@ -0,0 +1,68 @@
+package tsirionantsoa.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tsirionantsoa.demo.dto.ProjetDTO;
+import tsirionantsoa.demo.dto.TacheDTO;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.model.Utilisateur;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Données propres à chaque test, créées par les services sur la base de test (voir config/application.properties)
+@Component
+class JeuDeDonnees {
+
+	@Autowired
+	private UtilisateurService utilisateurService;
+
+	@Autowired
+	private ProjetService projetService;
+
+	@Autowired
+	private TacheService tacheService;
+
+	@Autowired
+	private TimeEntryService timeEntryService;
+
+	Long utilisateur() {
+		Utilisateur utilisateur = new Utilisateur();
+		utilisateur.setNom("Test");
+		utilisateur.setEmail("test-" + UUID.randomUUID() + "@exemple.mg");
+		utilisateur.setMotDePasse("secret");
+		return utilisateurService.registerUtilisateur(utilisateur).getId();
+	}
+
+	Long projet(Long userId) {
+		ProjetDTO dto = new ProjetDTO();
+		dto.setNom("Projet");
+		dto.setDescription("Projet de test");
+		return projetService.createProjet(dto, userId).getId();
+	}
+
+	void renommer(Long projetId, String nom) {
+		ProjetDTO dto = new ProjetDTO();
+		dto.setNom(nom);
+		projetService.updateProjet(projetId, dto, null);
+	}
+
+	Long tache(Long projetId) {
+		TacheDTO dto = new TacheDTO();
+		dto.setTitre("Tâche");
+		return tacheService.createTache(dto, projetId).getId();
+	}
+
+	void entree(Long userId, Long tacheId) {
+		entree(userId, tacheId, LocalDateTime.now().minusHours(1), 3600);
+	}
+
+	void entree(Long userId, Long tacheId, LocalDateTime debut, long secondes) {
+		TimeEntryDTO entree = new TimeEntryDTO();
+		entree.setTacheId(tacheId);
+		entree.setDebut(debut);
+		entree.setDureeSecondes(secondes);
+		timeEntryService.ingest(List.of(entree), userId);
+	}
+}
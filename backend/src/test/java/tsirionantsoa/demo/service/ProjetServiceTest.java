@@ -0,0 +1,36 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.ProjetView;
+import tsirionantsoa.demo.repository.ProjetRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProjetServiceTest {
+
+	@Autowired
+	private ProjetService projetService;
+
+	@Autowired
+	private ProjetRepository projetRepository;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Test
+	void empreinteSqlIdentiqueAuCalculSurLaListe() {
+		Long userId = donnees.utilisateur();
+		Long premier = donnees.projet(userId);
+		donnees.projet(userId);
+		donnees.renommer(premier, "Renommé");
+		donnees.renommer(premier, "Renommé deux fois");
+
+		// La liste en cache et l'agrégat SQL doivent donner le même ETag
+		assertThat(projetRepository.empreinteByUtilisateurId(userId)).isEqualTo(Empreinte.of(
+				projetService.listeProjetByUtilisateur(userId), ProjetView::id, ProjetView::version));
+	}
+}
@@ -0,0 +1,190 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tsirionantsoa.demo.dto.PurgeProgress;
+import tsirionantsoa.demo.model.Utilisateur;
+import tsirionantsoa.demo.repository.UtilisateurRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Purges par tranches de 2 lignes, sous le bail de l'instance "test-purge"
+@SpringBootTest(properties = {"app.purge.taille-tranche=2", "app.instance.id=test-purge"})
+class PurgeServiceTest {
+
+	@Autowired
+	private PurgeService purgeService;
+
+	@Autowired
+	private ProjetService projetService;
+
+	@Autowired
+	private UtilisateurRepository utilisateurRepository;
+
+	@Autowired
+	private UtilisateurService utilisateurService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long compter(String sql, Object... parametres) {
+		return jdbcTemplate.queryForObject(sql, Long.class, parametres);
+	}
+
+	private static void attendre(BooleanSupplier condition) throws InterruptedException {
+		long limite = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("délai d'attente dépassé").isLessThan(limite);
+			Thread.sleep(20);
+		}
+	}
+
+	private PurgeProgress fin(PurgeProgress lancee) throws InterruptedException {
+		attendre(() -> purgeService.findJob(lancee.jobId()).orElseThrow().getFin() != null);
+		return purgeService.findJob(lancee.jobId()).orElseThrow().progression();
+	}
+
+	private boolean projetEfface(Long projetId) {
+		return compter("SELECT count(*) FROM projet WHERE id_projet = ?", projetId) == 0;
+	}
+
+	private long baux(Long cibleId) {
+		return compter("SELECT count(*) FROM purge_bail WHERE id_cible = ?", cibleId);
+	}
+
+	@Test
+	void projetMasqueAussitotPuisPurgeParTranches() throws InterruptedException {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		for (int i = 0; i < 5; i++) {
+			donnees.entree(userId, donnees.tache(projetId));
+		}
+
+		PurgeProgress lancee = purgeService.supprimerProjet(projetId);
+
+		assertThat(projetService.findProjetById(projetId)).isEmpty();
+		PurgeProgress progression = fin(lancee);
+		assertThat(progression.statut()).isEqualTo("TERMINE");
+		assertThat(progression.tachesAPurger()).isEqualTo(5);
+		assertThat(progression.tachesSupprimees()).isEqualTo(5);
+		assertThat(projetEfface(projetId)).isTrue();
+		assertThat(compter("SELECT count(*) FROM time_entry WHERE id_users = ?", userId)).isZero();
+		assertThat(baux(projetId)).isZero();
+	}
+
+	@Test
+	void compteEffaceApresUnEchecDeCleEtrangere() throws InterruptedException {
+		Long userId = donnees.utilisateur();
+		for (int p = 0; p < 3; p++) {
+			Long projetId = donnees.projet(userId);
+			donnees.entree(userId, donnees.tache(projetId));
+			donnees.entree(userId, donnees.tache(projetId));
+		}
+		// Le premier DELETE final rencontre un projet écrit entre-temps (requête en vol au moment du masquage) et
+		// échoue sur la clé étrangère ; la séquence, elle, n'est pas annulée avec lui : un seul échec
+		String suffixe = Long.toString(userId);
+		jdbcTemplate.execute("CREATE SEQUENCE test_tardif_" + suffixe);
+		jdbcTemplate.execute("CREATE FUNCTION test_tardif_" + suffixe + "() RETURNS trigger AS $$ BEGIN "
+				+ "IF OLD.id = " + suffixe + " AND nextval('test_tardif_" + suffixe + "') = 1 THEN "
+				+ "INSERT INTO projet (id_projet, nom_projet, description_projet, id_users, modifie_le, version) "
+				+ "VALUES (-OLD.id, 'Tardif', 'Écrit pendant la purge', OLD.id, now(), 0); "
+				+ "END IF; RETURN OLD; END $$ LANGUAGE plpgsql");
+		jdbcTemplate.execute("CREATE TRIGGER test_tardif_" + suffixe + " BEFORE DELETE ON utilisateur "
+				+ "FOR EACH ROW EXECUTE FUNCTION test_tardif_" + suffixe + "()");
+		try {
+			PurgeProgress lancee = purgeService.supprimerUtilisateur(userId);
+
+			assertThat(utilisateurRepository.findById(userId)).isEmpty();
+			PurgeProgress progression = fin(lancee);
+			assertThat(progression.statut()).isEqualTo("TERMINE");
+			assertThat(progression.tachesSupprimees()).isEqualTo(6);
+			assertThat(progression.projetsSupprimes()).isEqualTo(3);
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER test_tardif_" + suffixe + " ON utilisateur");
+			jdbcTemplate.execute("DROP FUNCTION test_tardif_" + suffixe + "()");
+			jdbcTemplate.execute("DROP SEQUENCE test_tardif_" + suffixe);
+		}
+		assertThat(compter("SELECT count(*) FROM utilisateur WHERE id = ?", userId)).isZero();
+		assertThat(compter("SELECT count(*) FROM projet WHERE id_users = ?", userId)).isZero();
+		assertThat(compter("SELECT count(*) FROM time_entry WHERE id_users = ?", userId)).isZero();
+	}
+
+	@Test
+	void repriseSeulementQuandLeBailDeLAutreInstanceAExpire() throws InterruptedException {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		donnees.tache(projetId);
+		donnees.tache(projetId);
+		donnees.tache(projetId);
+		// Instance arrêtée après le masquage, son bail court encore
+		jdbcTemplate.update("INSERT INTO purge_bail (cible, id_cible, instance_purge, bail_purge) "
+				+ "VALUES ('PROJET', ?, 'autre', ?)", projetId, Timestamp.from(Instant.now().plusSeconds(60)));
+		jdbcTemplate.update("UPDATE projet SET supprime = true WHERE id_projet = ?", projetId);
+
+		purgeService.reprendre();
+		assertThat(jdbcTemplate.queryForObject("SELECT instance_purge FROM purge_bail WHERE id_cible = ?",
+				String.class, projetId)).isEqualTo("autre");
+		assertThat(projetEfface(projetId)).isFalse();
+
+		jdbcTemplate.update("UPDATE purge_bail SET bail_purge = now() - interval '1 second' WHERE id_cible = ?",
+				projetId);
+		purgeService.reprendre();
+
+		attendre(() -> projetEfface(projetId) && baux(projetId) == 0);
+		assertThat(compter("SELECT count(*) FROM tache WHERE id_projets = ?", projetId)).isZero();
+	}
+
+	@Test
+	void purgeEnEchecRelanceeAuPassageSuivant() throws InterruptedException {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		donnees.tache(projetId);
+		String nom = "test_bloque_" + projetId;
+		jdbcTemplate.execute("CREATE FUNCTION " + nom + "() RETURNS trigger AS $$ BEGIN "
+				+ "IF OLD.id_projets = " + projetId + " THEN RAISE EXCEPTION 'suppression bloquée'; END IF; "
+				+ "RETURN OLD; END $$ LANGUAGE plpgsql");
+		jdbcTemplate.execute("CREATE TRIGGER " + nom + " BEFORE DELETE ON tache FOR EACH ROW EXECUTE FUNCTION "
+				+ nom + "()");
+		PurgeProgress echec;
+		try {
+			echec = fin(purgeService.supprimerProjet(projetId));
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER " + nom + " ON tache");
+			jdbcTemplate.execute("DROP FUNCTION " + nom + "()");
+		}
+		assertThat(echec.statut()).isEqualTo("ECHEC");
+		assertThat(projetEfface(projetId)).isFalse();
+
+		purgeService.reprendre();
+
+		attendre(() -> projetEfface(projetId) && baux(projetId) == 0);
+	}
+
+	@Test
+	void emailDUnCompteMasqueToujoursPris() {
+		Long userId = donnees.utilisateur();
+		String email = jdbcTemplate.queryForObject("SELECT email FROM utilisateur WHERE id = ?", String.class, userId);
+		jdbcTemplate.update("UPDATE utilisateur SET supprime = true WHERE id = ?", userId);
+		Utilisateur doublon = new Utilisateur();
+		doublon.setNom("Doublon");
+		doublon.setEmail(email);
+		doublon.setMotDePasse("secret");
+		try {
+			assertThat(utilisateurRepository.findByEmail(email)).isEmpty();
+			assertThatThrownBy(() -> utilisateurService.registerUtilisateur(doublon))
+					.hasMessage("Email déjà utilisé: " + email);
+		} finally {
+			jdbcTemplate.update("DELETE FROM utilisateur WHERE id = ?", userId);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tsirionantsoa.demo.dto.RapportLigne;
+import tsirionantsoa.demo.model.Granularite;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class RapportServiceTest {
+
+	// Samedi 28 février et dimanche 1er mars 2026 : même semaine, deux mois différents
+	private static final LocalDateTime SAMEDI = LocalDateTime.of(2026, 2, 28, 9, 0);
+	private static final LocalDateTime DIMANCHE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+	@Autowired
+	private RapportService rapportService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	private List<RapportLigne> rapport(Long userId, Granularite granularite) {
+		return rapportService.rapport(userId, granularite, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 31),
+				"utilisateur");
+	}
+
+	@Test
+	void cumuleLesEntreesDeLaMemePeriode() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+
+		donnees.entree(userId, tacheId, SAMEDI, 600);
+		donnees.entree(userId, tacheId, SAMEDI.plusHours(2), 300);
+		donnees.entree(userId, tacheId, DIMANCHE, 60);
+
+		assertThat(rapport(userId, Granularite.JOUR))
+				.extracting(RapportLigne::periode, RapportLigne::totalSecondes, RapportLigne::nbEntrees)
+				.containsExactly(tuple(SAMEDI.toLocalDate(), 900L, 2L), tuple(DIMANCHE.toLocalDate(), 60L, 1L));
+		assertThat(rapport(userId, Granularite.SEMAINE))
+				.extracting(RapportLigne::periode, RapportLigne::totalSecondes, RapportLigne::nbEntrees)
+				.containsExactly(tuple(LocalDate.of(2026, 2, 23), 960L, 3L));
+		assertThat(rapport(userId, Granularite.MOIS))
+				.extracting(RapportLigne::periode, RapportLigne::totalSecondes, RapportLigne::nbEntrees)
+				.containsExactly(tuple(LocalDate.of(2026, 2, 1), 900L, 2L), tuple(LocalDate.of(2026, 3, 1), 60L, 1L));
+	}
+
+	@Test
+	void reconstructionRetrouveLesCumulsIncrementaux() {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		Long premiere = donnees.tache(projetId);
+		Long seconde = donnees.tache(projetId);
+		donnees.entree(userId, premiere, SAMEDI, 600);
+		donnees.entree(userId, seconde, SAMEDI, 120);
+		donnees.entree(userId, premiere, DIMANCHE, 60);
+		List<RapportLigne> incrementaux = rapportService.rapport(userId, Granularite.SEMAINE,
+				LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 31), "tache");
+
+		assertThat(rapportService.reconstruire(userId)).isEqualTo(3 + 2 + 3);
+
+		assertThat(rapportService.rapport(userId, Granularite.SEMAINE, LocalDate.of(2026, 2, 1),
+				LocalDate.of(2026, 3, 31), "tache")).containsExactlyInAnyOrderElementsOf(incrementaux);
+	}
+}
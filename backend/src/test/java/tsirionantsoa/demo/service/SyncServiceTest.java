@@ -0,0 +1,95 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tsirionantsoa.demo.dto.SuppressionView;
+import tsirionantsoa.demo.dto.SyncResponse;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fenêtres des traces de suppression : ]depuis, maintenant - app.sync.delai-ms (5 s)]
+@SpringBootTest
+class SyncServiceTest {
+
+	@Autowired
+	private SyncService syncService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private void trace(Long userId, long tacheId, Instant le) {
+		jdbcTemplate.update("INSERT INTO suppression (entite, id_entite, id_users, supprime_le) VALUES ('tache', ?, ?, ?)",
+				tacheId, userId, Timestamp.from(le));
+	}
+
+	private static Instant ilYA(Duration duree) {
+		return Instant.now().minus(duree).truncatedTo(ChronoUnit.MICROS);
+	}
+
+	@Test
+	void tracesDeLaFenetreSeulementSansDoublonAuCurseurSuivant() {
+		Long userId = donnees.utilisateur();
+		Long autre = donnees.utilisateur();
+		Instant depuis = ilYA(Duration.ofMinutes(1));
+		trace(userId, 1, depuis);                          // au curseur : déjà envoyée
+		trace(userId, 2, ilYA(Duration.ofSeconds(30)));
+		trace(userId, 3, ilYA(Duration.ofSeconds(1)));     // dans le délai : pas encore sûre
+		trace(autre, 4, ilYA(Duration.ofSeconds(30)));
+
+		SyncResponse premiere = syncService.synchroniser(userId, depuis);
+
+		assertThat(premiere.complet()).isFalse();
+		assertThat(premiere.jusqua()).isBefore(ilYA(Duration.ofSeconds(4)));
+		assertThat(premiere.suppressions()).extracting(SuppressionView::id).containsExactly(2L);
+
+		// La trace ajoutée exactement au curseur renvoyé appartient à la fenêtre déjà envoyée
+		trace(userId, 5, premiere.jusqua());
+		SyncResponse suivante = syncService.synchroniser(userId, premiere.jusqua());
+		assertThat(suivante.suppressions()).extracting(SuppressionView::id).doesNotContain(2L, 5L);
+	}
+
+	@Test
+	void curseurTropRecentNeReculePas() {
+		Long userId = donnees.utilisateur();
+		Instant depuis = ilYA(Duration.ofSeconds(1));
+		trace(userId, 1, ilYA(Duration.ofMillis(500)));
+
+		SyncResponse reponse = syncService.synchroniser(userId, depuis);
+
+		assertThat(reponse.jusqua()).isEqualTo(depuis);
+		assertThat(reponse.suppressions()).isEmpty();
+	}
+
+	@Test
+	void curseurAuDelaDeLaRetentionImposeUneSynchronisationComplete() {
+		Long userId = donnees.utilisateur();
+		trace(userId, 1, ilYA(Duration.ofDays(31)));
+
+		SyncResponse reponse = syncService.synchroniser(userId, ilYA(Duration.ofDays(31).plusMinutes(1)));
+
+		assertThat(reponse.complet()).isTrue();
+		assertThat(reponse.suppressions()).isEmpty();
+	}
+
+	@Test
+	void purgeSupprimeLesTracesHorsRetention() {
+		Long userId = donnees.utilisateur();
+		trace(userId, 1, ilYA(Duration.ofDays(31)));
+		trace(userId, 2, ilYA(Duration.ofDays(29)));
+
+		syncService.purger();
+
+		assertThat(jdbcTemplate.queryForList("SELECT id_entite FROM suppression WHERE id_users = ?", Long.class,
+				userId)).containsExactly(2L);
+	}
+}
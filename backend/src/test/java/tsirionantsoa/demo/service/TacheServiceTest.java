@@ -0,0 +1,153 @@
+package tsirionantsoa.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tsirionantsoa.demo.dto.Empreinte;
+import tsirionantsoa.demo.dto.TacheView;
+import tsirionantsoa.demo.model.PrioriteTache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TacheServiceTest {
+
+	@Autowired
+	private TacheService tacheService;
+
+	@Autowired
+	private ChronoService chronoService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private TacheView patch(Long tacheId, String json) throws Exception {
+		return tacheService.patchTache(tacheId, mapper.readTree(json), null);
+	}
+
+	private long lignes(String table, Long tacheId) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE id_task = ?", Long.class, tacheId);
+	}
+
+	@Test
+	void supprimeUneTacheAvecSonChronometre() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		chronoService.demarrer(userId, tacheId);
+		chronoService.sauvegarder();
+
+		tacheService.deleteTache(tacheId);
+
+		assertThat(tacheService.findTacheById(tacheId)).isEmpty();
+		assertThat(lignes("active_timer", tacheId)).isZero();
+		assertThat(chronoService.chronosUtilisateur(userId)).isEmpty();
+	}
+
+	@Test
+	void suppressionRefuseeQuandDuTempsEstEnregistre() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		donnees.entree(userId, tacheId);
+
+		assertThatThrownBy(() -> tacheService.deleteTache(tacheId))
+				.isInstanceOf(DataIntegrityViolationException.class)
+				.hasMessage("Suppression impossible : du temps est enregistré sur les tâches [" + tacheId + "]");
+
+		assertThat(tacheService.findTacheById(tacheId)).isPresent();
+		assertThat(lignes("time_entry", tacheId)).isOne();
+		assertThat(lignes("time_rollup", tacheId)).isEqualTo(3);
+	}
+
+	@Test
+	void chronometreConserveQuandLaSuppressionEstAnnulee() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		chronoService.demarrer(userId, tacheId);
+		chronoService.sauvegarder();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			tacheService.deleteTache(tacheId);
+			status.setRollbackOnly();
+		});
+
+		assertThat(lignes("tache", tacheId)).isOne();
+		assertThat(lignes("active_timer", tacheId)).isOne();
+		assertThat(chronoService.chronosUtilisateur(userId)).singleElement()
+				.satisfies(chrono -> assertThat(chrono.enCours()).isTrue());
+		chronoService.abandonner(userId, tacheId);
+	}
+
+	@Test
+	void suppressionEnLotRefuseeEnEntierQuandUneTacheADuTemps() {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		Long avecTemps = donnees.tache(projetId);
+		Long sansTemps = donnees.tache(projetId);
+		donnees.entree(userId, avecTemps);
+
+		assertThatThrownBy(() -> tacheService.deleteTaches(List.of(avecTemps, sansTemps)))
+				.isInstanceOf(DataIntegrityViolationException.class)
+				.hasMessage("Suppression impossible : du temps est enregistré sur les tâches [" + avecTemps + "]");
+
+		assertThat(lignes("tache", avecTemps) + lignes("tache", sansTemps)).isEqualTo(2);
+		assertThat(tacheService.deleteTaches(List.of(sansTemps))).isOne();
+		assertThat(lignes("tache", sansTemps)).isZero();
+	}
+
+	@Test
+	void empreinteSqlIdentiqueAuCalculSurLaListe() {
+		Long userId = donnees.utilisateur();
+		Long projetId = donnees.projet(userId);
+		donnees.tache(projetId);
+		Long supprimee = donnees.tache(projetId);
+		donnees.tache(projetId);
+		tacheService.deleteTache(supprimee);
+		donnees.renommer(projetId, "Renommé");
+
+		assertThat(tacheService.empreinteTachesByProjet(projetId)).isEqualTo(Empreinte.of(
+				tacheService.findTachesByProjet(projetId), TacheView::id, TacheView::versionComposee));
+	}
+
+	@Test
+	void patchChampAbsentConserveEtNullEfface() throws Exception {
+		Long tacheId = donnees.tache(donnees.projet(donnees.utilisateur()));
+		patch(tacheId, "{\"echeance\": \"2026-03-01\", \"priorite\": \"BASSE\"}");
+
+		TacheView sansEcheance = patch(tacheId, "{\"priorite\": \"HAUTE\"}");
+		assertThat(sansEcheance.echeance()).isEqualTo(LocalDate.of(2026, 3, 1));
+		assertThat(sansEcheance.priorite()).isEqualTo(PrioriteTache.HAUTE);
+
+		TacheView effacee = patch(tacheId, "{\"echeance\": null}");
+		assertThat(effacee.echeance()).isNull();
+		assertThat(effacee.priorite()).isEqualTo(PrioriteTache.HAUTE);
+		assertThat(effacee.titre()).isEqualTo("Tâche");
+	}
+
+	@Test
+	void patchTitreNullRefuseEtPatchVideSansEcriture() throws Exception {
+		Long tacheId = donnees.tache(donnees.projet(donnees.utilisateur()));
+		TacheView avant = tacheService.findTacheById(tacheId).orElseThrow();
+
+		assertThatThrownBy(() -> patch(tacheId, "{\"titre\": null}"))
+				.hasMessage("Le titre de la tâche est requis");
+		assertThat(patch(tacheId, "{}")).isEqualTo(avant);
+		assertThat(tacheService.findTacheById(tacheId).orElseThrow().version()).isEqualTo(avant.version());
+	}
+}
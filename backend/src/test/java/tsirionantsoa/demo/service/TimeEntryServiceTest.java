@@ -0,0 +1,73 @@
+package tsirionantsoa.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tsirionantsoa.demo.dto.TimeEntryDTO;
+import tsirionantsoa.demo.dto.TimeEntryView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TimeEntryServiceTest {
+
+	private static final LocalDateTime DEBUT = LocalDateTime.of(2026, 2, 28, 9, 0);
+
+	@Autowired
+	private TimeEntryService timeEntryService;
+
+	@Autowired
+	private JeuDeDonnees donnees;
+
+	private static TimeEntryDTO entree(Long tacheId, LocalDateTime fin, long secondes) {
+		TimeEntryDTO entree = new TimeEntryDTO();
+		entree.setTacheId(tacheId);
+		entree.setDebut(DEBUT);
+		entree.setFin(fin);
+		entree.setDureeSecondes(secondes);
+		return entree;
+	}
+
+	private List<TimeEntryView> entrees(Long userId) {
+		return timeEntryService.findByUtilisateur(userId, DEBUT.toLocalDate(), DEBUT.toLocalDate());
+	}
+
+	@Test
+	void dureePlusLongueQueLIntervalleRefusee() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+
+		assertThatThrownBy(() -> timeEntryService.ingest(
+				List.of(entree(tacheId, DEBUT.plusSeconds(1), 1_000_000_000L)), userId))
+				.hasMessage("La durée dépasse l'intervalle entre le début et la fin");
+		assertThat(entrees(userId)).isEmpty();
+	}
+
+	@Test
+	void dureePlusCourteQueLIntervalleAcceptee() {
+		Long userId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+
+		// Chronomètre mis en pause : une heure d'intervalle, vingt minutes de travail
+		timeEntryService.ingest(List.of(entree(tacheId, DEBUT.plusHours(1), 1200),
+				entree(tacheId, DEBUT.plusSeconds(60), 60)), userId);
+
+		assertThat(entrees(userId)).extracting(TimeEntryView::dureeSecondes).containsExactlyInAnyOrder(1200L, 60L);
+	}
+
+	@Test
+	void entreesDUneTacheSeulementPourLeProprietaireDuProjet() {
+		Long userId = donnees.utilisateur();
+		Long autreId = donnees.utilisateur();
+		Long tacheId = donnees.tache(donnees.projet(userId));
+		donnees.entree(userId, tacheId);
+
+		assertThat(timeEntryService.findByTache(tacheId, userId)).singleElement()
+				.satisfies(entree -> assertThat(entree.utilisateurId()).isEqualTo(userId));
+		assertThat(timeEntryService.findByTache(tacheId, autreId)).isEmpty();
+	}
+}
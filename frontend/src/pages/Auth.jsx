@@ -90,7 +90,9 @@ const Auth = () => {
             navigate("/dashboard"); // Rediriger vers le tableau de bord standard (pour USER ou rôle non spécifié)
         }
         
-        // *Optionnel: Enregistrer le token/les données de l'utilisateur dans le stockage local ou le contexte global ici.*
+        // Jeton signé renvoyé par le backend : à envoyer dans "Authorization: Bearer ..."
+        localStorage.setItem("authToken", data.token);
+        localStorage.setItem("userId", data.id);
       }
       
     } catch (err) {